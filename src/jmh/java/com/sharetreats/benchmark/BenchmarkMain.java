@@ -0,0 +1,35 @@
+package com.sharetreats.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 벤치마크 실행 진입점입니다.
+ * <p>
+ *     처리량과 함께 연산당 할당량을 기록하도록 {@link GCProfiler}를 붙여 실행하고, 이전 결과와 비교할 수 있도록
+ *     결과를 {@code target/jmh-result.json}에 저장합니다. 첫 번째 인자로 실행할 벤치마크의 정규식을 받을 수 있습니다.
+ * </p>
+ * <pre>
+ *     mvn -P jmh -DskipTests package
+ *     java -jar target/benchmarks.jar DepartmentBenchmark.add
+ * </pre>
+ * */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
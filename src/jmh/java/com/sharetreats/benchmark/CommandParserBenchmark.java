@@ -0,0 +1,61 @@
+package com.sharetreats.benchmark;
+
+import com.sharetreats.command.Command;
+import com.sharetreats.command.CommandRegex;
+import com.sharetreats.command.CommandTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 줄의 명령을 해석하는 비용을 {@link CommandRegex}와 {@code String.split}으로 해석하던 방식과
+ * {@link CommandTokenizer}로 비교합니다. 서비스는 호출하지 않고 이름과 인원수를 꺼내는 데까지만 측정합니다.
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandParserBenchmark {
+
+    @Param({"BACKEND, 20", "DEV>BACKEND", "BACKEND"})
+    public String input;
+
+    @Benchmark
+    public Object regex() {
+        if (!CommandRegex.COMMAND.matches(input)) return null;
+
+        if (CommandRegex.COMMA.matches(input)) {
+            String[] segments = segment(input, ",");
+            return segments[0].length() + Integer.parseInt(segments[1]);
+        } else if (CommandRegex.RELATION.matches(input)) {
+            String[] segments = segment(input, ">");
+            return CommandRegex.UPPERCASE.matches(segments[0]) && CommandRegex.UPPERCASE.matches(segments[1]);
+        } else if (CommandRegex.UPDATE.matches(input)) {
+            return segment(input, "@");
+        } else if (CommandRegex.UPPERCASE.matches(input)) {
+            return input;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Command tokenizer() {
+        return CommandTokenizer.tokenize(input);
+    }
+
+    private static String[] segment(String input, String delimiter) {
+        return Arrays.stream(input.trim().split(delimiter)).map(String::trim).toArray(String[]::new);
+    }
+}
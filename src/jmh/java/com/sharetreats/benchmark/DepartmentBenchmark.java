@@ -0,0 +1,78 @@
+package com.sharetreats.benchmark;
+
+import com.sharetreats.benchmark.OrgChartGenerator.OrgChart;
+import com.sharetreats.benchmark.OrgChartGenerator.Shape;
+import com.sharetreats.department.Department;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Department}의 조직도 변경 연산과 인원수 조회 연산의 처리량을 측정합니다.
+ * <p>
+ *     {@link OrgChartGenerator}로 만든 조직도 위에서 말단 부서({@code probe})를 두 상위 부서 사이로 옮기거나,
+ *     인원수를 바꾸거나, 총 인원수와 조직 관계를 조회합니다. 조직도의 모양({@code shape})과 최상위 부서 설정 여부
+ *     ({@code rooted})에 따라 깊이나 너비에 비례하는 비용이 드러나도록 했습니다.
+ * </p>
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepartmentBenchmark {
+
+    @Param({"CHAIN", "FAN", "BALANCED"})
+    public Shape shape;
+
+    @Param({"true", "false"})
+    public boolean rooted;
+
+    private Department probe;
+    private Department homeA;
+    private Department homeB;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        OrgChart chart = OrgChartGenerator.generate(shape, rooted);
+        probe = chart.getProbe();
+        homeA = chart.getHomeA();
+        homeB = chart.getHomeB();
+    }
+
+    @Benchmark
+    public Department add() {
+        Department superior = (toggle = !toggle) ? homeB : homeA;
+        superior.add(probe);
+        return superior;
+    }
+
+    @Benchmark
+    public int updateHeadcount() {
+        int headCount = (toggle = !toggle) ? 2 : 1;
+        probe.updateHeadcount(headCount);
+        return headCount;
+    }
+
+    @Benchmark
+    public int getTotalHeadCountOfDepartment() {
+        return probe.getTotalHeadCountOfDepartment();
+    }
+
+    @Benchmark
+    public String relationToString() {
+        return probe.relationToString();
+    }
+}
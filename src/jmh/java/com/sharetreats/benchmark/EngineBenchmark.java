@@ -0,0 +1,84 @@
+package com.sharetreats.benchmark;
+
+import com.sharetreats.benchmark.OrgChartGenerator.OrgChart;
+import com.sharetreats.benchmark.OrgChartGenerator.Shape;
+import com.sharetreats.department.ArrayDepartmentService;
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentRepositoryImpl;
+import com.sharetreats.department.DepartmentService;
+import com.sharetreats.department.DepartmentServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 부서 객체로 조직도를 관리하는 {@link DepartmentServiceImpl}과 기본형 배열로 관리하는 {@link ArrayDepartmentService}를
+ * 같은 조직도와 같은 연산으로 비교합니다.
+ * <p>
+ *     {@link DepartmentBenchmark}와 같이 말단 부서({@code probe})를 두 상위 부서 사이로 옮기거나, 인원수를 바꾸거나,
+ *     조직 관계를 조회하며, 모두 {@link DepartmentService}를 거쳐 호출합니다.
+ * </p>
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    public enum Engine {
+        OBJECT, ARRAY
+    }
+
+    @Param({"OBJECT", "ARRAY"})
+    public Engine engine;
+
+    @Param({"CHAIN", "FAN", "BALANCED"})
+    public Shape shape;
+
+    private DepartmentService departmentService;
+    private String probe;
+    private String homeA;
+    private String homeB;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        OrgChart chart = OrgChartGenerator.generate(shape, true);
+        List<Department> departments = chart.getDepartments();
+
+        probe = chart.getProbe().getName();
+        homeA = chart.getHomeA().getName();
+        homeB = chart.getHomeB().getName();
+        departmentService = engine == Engine.OBJECT
+                ? new DepartmentServiceImpl(new DepartmentRepositoryImpl(() -> departments))
+                : new ArrayDepartmentService(departments);
+    }
+
+    @Benchmark
+    public String relate() {
+        return departmentService.relate((toggle = !toggle) ? homeB : homeA, probe);
+    }
+
+    @Benchmark
+    public String update() {
+        return departmentService.update(Department.of((toggle = !toggle) ? 2 : 1, probe));
+    }
+
+    @Benchmark
+    public String getDepartment() {
+        return departmentService.getDepartment(probe);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sharetreats.benchmark;
+
+import com.sharetreats.department.NameDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 부서 이름으로 번호를 찾는 비용을 {@link HashMap}과 {@link NameDictionary}로 비교합니다.
+ * <p>
+ *     명령에서 잘라낸 이름처럼 매번 새로 만든 문자열로 찾으므로, {@link HashMap}은 조회마다 해시값을 새로 계산하고 문자열을 비교합니다.
+ * </p>
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameLookupBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private final Map<String, Integer> map = new HashMap<>();
+    private NameDictionary dictionary;
+    private char[][] queries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        dictionary = new NameDictionary(size);
+        for (int i = 0; i < size; i++) {
+            String name = OrgChartGenerator.nameOf(i);
+            map.put(name, i);
+            dictionary.intern(name);
+        }
+
+        queries = new char[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = OrgChartGenerator.nameOf((int) ((long) i * 7919 % size)).toCharArray();
+        }
+    }
+
+    @Benchmark
+    public Integer hashMap() {
+        return map.get(new String(nextQuery()));
+    }
+
+    @Benchmark
+    public int dictionary() {
+        return dictionary.idOf(new String(nextQuery()));
+    }
+
+    private char[] nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+}
@@ -0,0 +1,171 @@
+package com.sharetreats.benchmark;
+
+import com.sharetreats.department.Department;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 가상 조직도를 만드는 클래스입니다.
+ * <p>
+ *     조직도의 모양은 {@link Shape}로 지정하며, 모든 부서의 인원수는 0명이고 측정 대상이 되는 {@code probe} 부서만 1명입니다.
+ *     부서 하나의 총 인원수가 1000명을 넘으면 예외가 발생하기 때문에, 부서 수가 많아도 인원 제한에 걸리지 않도록 했습니다.
+ * </p>
+ * <p>
+ *     {@code probe}는 조직도에서 가장 깊은 곳에 있는 말단 부서이고, {@code homeA}와 {@code homeB}는 부서 이동을 측정할 때
+ *     {@code probe}가 번갈아 소속되는 두 상위 부서입니다.
+ * </p>
+ * */
+public final class OrgChartGenerator {
+
+    public enum Shape {
+        /** 상위-하위 관계가 한 줄로 이어진 조직도입니다. */
+        CHAIN(10_000),
+        /** 최상위 부서 아래에 모든 부서가 바로 붙어 있는 조직도입니다. */
+        FAN(100_000),
+        /** 모든 부서가 8개의 하위 부서를 가지는 깊이 5의 조직도입니다. */
+        BALANCED(1 + 8 + 64 + 512 + 4096 + 32768);
+
+        private final int size;
+
+        Shape(int size) {
+            this.size = size;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+
+    private static final int BRANCHING_FACTOR = 8;
+
+    private OrgChartGenerator() {
+    }
+
+    public static OrgChart generate(Shape shape, boolean rooted) {
+        switch (shape) {
+            case CHAIN:
+                return chain(shape.getSize(), rooted);
+            case FAN:
+                return fan(shape.getSize(), rooted);
+            case BALANCED:
+                return balanced(shape.getSize(), rooted);
+            default:
+                throw new IllegalArgumentException(shape.name());
+        }
+    }
+
+    /**
+     * 부서 번호를 알파벳 대문자로 된 부서 이름으로 바꿉니다. 0은 A, 25는 Z, 26은 BA 입니다.
+     * */
+    public static String nameOf(int index) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) ('A' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return sb.reverse().toString();
+    }
+
+    private static OrgChart chain(int size, boolean rooted) {
+        List<Department> departments = new ArrayList<>(size);
+        Department probe = Department.of(1, nameOf(size - 1));
+        departments.add(probe);
+
+        // 아래에서부터 위로 쌓아 올려야 부서를 추가할 때마다 전체 체인을 다시 계산하지 않습니다.
+        Department top = probe;
+        for (int i = size - 2; i >= 0; i--) {
+            Department superior = Department.of(0, nameOf(i));
+            superior.add(top);
+            departments.add(superior);
+            top = superior;
+        }
+
+        if (rooted) top.setAsRoot();
+
+        // probe 의 상위 부서와 체인의 중간 부서를 오가며 이동합니다.
+        Department homeA = departments.get(1);
+        Department homeB = departments.get(size / 2);
+        return new OrgChart(top, probe, homeA, homeB, departments);
+    }
+
+    private static OrgChart fan(int size, boolean rooted) {
+        List<Department> departments = new ArrayList<>(size);
+        Department top = Department.of(0, nameOf(0));
+        if (rooted) top.setAsRoot();
+        departments.add(top);
+
+        for (int i = 1; i < size - 1; i++) {
+            Department subordinate = Department.of(0, nameOf(i));
+            top.add(subordinate);
+            departments.add(subordinate);
+        }
+
+        Department probe = Department.of(1, nameOf(size - 1));
+        top.add(probe);
+        departments.add(probe);
+
+        // 하위 부서가 매우 많은 최상위 부서와 그 하위 부서 하나를 오가며 이동합니다.
+        return new OrgChart(top, probe, top, departments.get(1), departments);
+    }
+
+    private static OrgChart balanced(int size, boolean rooted) {
+        List<Department> departments = new ArrayList<>(size);
+        Department top = Department.of(0, nameOf(0));
+        if (rooted) top.setAsRoot();
+        departments.add(top);
+
+        // 너비 우선으로 부서를 추가합니다. i 번째 부서의 하위 부서는 i * 8 + 1 ~ i * 8 + 8 번째 부서입니다.
+        for (int i = 1; i < size - 1; i++) {
+            Department subordinate = Department.of(0, nameOf(i));
+            departments.get((i - 1) / BRANCHING_FACTOR).add(subordinate);
+            departments.add(subordinate);
+        }
+
+        Department probe = Department.of(1, nameOf(size - 1));
+        Department homeA = departments.get((size - 2) / BRANCHING_FACTOR);
+        homeA.add(probe);
+        departments.add(probe);
+
+        // 같은 깊이에 있는 다른 말단 부서의 상위 부서를 두 번째 소속으로 사용합니다.
+        Department homeB = departments.get((size - 2) / BRANCHING_FACTOR - 1);
+        return new OrgChart(top, probe, homeA, homeB, departments);
+    }
+
+    public static final class OrgChart {
+
+        private final Department top;
+        private final Department probe;
+        private final Department homeA;
+        private final Department homeB;
+        private final List<Department> departments;
+
+        private OrgChart(Department top, Department probe, Department homeA, Department homeB, List<Department> departments) {
+            this.top = top;
+            this.probe = probe;
+            this.homeA = homeA;
+            this.homeB = homeB;
+            this.departments = departments;
+        }
+
+        public Department getTop() {
+            return top;
+        }
+
+        public Department getProbe() {
+            return probe;
+        }
+
+        public Department getHomeA() {
+            return homeA;
+        }
+
+        public Department getHomeB() {
+            return homeB;
+        }
+
+        public List<Department> getDepartments() {
+            return departments;
+        }
+    }
+}
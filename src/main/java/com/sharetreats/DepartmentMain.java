@@ -2,10 +2,22 @@ package com.sharetreats;
 
 import com.sharetreats.department.*;
 import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.metrics.MetricsRegistry;
+import com.sharetreats.persistence.ColumnarDepartmentService;
+import com.sharetreats.persistence.ColumnarOrgChart;
+import com.sharetreats.persistence.DurableDepartmentRepository;
+import com.sharetreats.persistence.OrgChartExporter;
+import com.sharetreats.server.DepartmentServer;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class DepartmentMain {
 
@@ -30,6 +42,13 @@ public class DepartmentMain {
                     "부서 이름을 조회할 수 있습니다. 이 때 조회한 부서와 그 부서를 포함하고 있는 최상위 부서, 해당 부서의 모든 인원수가 함께 출력됩니다. \n" +
                     "최상위 부서가 없는 경우라면 해당 부서의 상위 부서 중 가장 높은 부서가 출력되고, 해당 부서의 모든 인원수가 함께 출력됩니다. \n" +
                     "\n" +
+                    "- 지표 조회: STATS\n" +
+                    "명령별 처리 시간, 인원수 전파 시 방문한 부서 수, 조직도의 깊이와 너비, 예외별 발생 횟수를 출력합니다. STATS는 부서 이름으로 사용할 수 없습니다. \n" +
+                    "\n" +
+                    "- 트랜잭션: BEGIN / COMMIT / ROLLBACK\n" +
+                    "BEGIN 이후의 부서 등록과 관계 설정은 COMMIT 할 때 한 번에 반영되고, ROLLBACK 하면 모두 취소됩니다. \n" +
+                    "총 인원수 1000명 제한은 COMMIT 할 때 확인하며, 넘는 경우 트랜잭션 전체가 취소됩니다. BEGIN, COMMIT, ROLLBACK은 부서 이름으로 사용할 수 없습니다. \n" +
+                    "\n" +
                     "예를 들어 IT, 20 / DEV, 0 / BACKEND, 10 와 같이 세 부서를 입력하고 \n" +
                     "*>IT / IT>DEV / DEV>BACKEND 와 같이 관계를 설정했을 때, *>IT>DEV>BACKEND 형태의 조직도가 설정됩니다. \n" +
                     "위 조직도에 속해 있는 특정 부서를 조회했을 때 출력은 모두 같으며, 다음과 같습니다. \n" +
@@ -46,14 +65,50 @@ public class DepartmentMain {
                     "\n" +
                     "*>DEV(10), DEV>FRONTEND(20), DEV>BACKEND(30), DEV>DEVOPS(20) 총 80명이 포함된 조직이 기본으로 저장되어 있습니다.";;
 
+    /**
+     * {@code --data [디렉터리]} 옵션을 주면 조직도를 해당 디렉터리에 저장하고, 재시작할 때 다시 불러옵니다.
+     * {@code --import [파일]} 옵션을 주면 {@link ColumnarOrgChart} 파일의 조직도로 시작합니다. 첫 변경 전까지 부서 조회는
+     * {@link ColumnarDepartmentService}가 파일에서 처리하고, 부서 객체는 첫 변경이나 하위 조직 요약, 내보내기 때 만듭니다.
+     * {@code --shards [수]} 옵션을 주면 조직도마다 나눠 저장하는 {@link ShardedDepartmentRepository}와, 샤드마다 잠금을 따로 잡는
+     * {@link ShardedDepartmentService}를 사용합니다.
+     * {@code --batch [파일]} 옵션을 주면 파일에 적힌 명령들을 {@link DepartmentController#parseBatch(Iterable)}로 한 번에 처리한 뒤 시작합니다.
+     * {@code --export [파일]} 옵션을 주면 명령을 받기 전의 조직도를 {@link OrgChartExporter}로 내보냅니다. 파일 이름이 {@code .jsonl}로
+     * 끝나면 JSON Lines, {@code .chart}로 끝나면 {@code --import}로 읽을 수 있는 {@link ColumnarOrgChart} 형식, 그 외에는 CSV 형식입니다.
+     * {@code --port [포트]} 옵션을 주면 콘솔 대신 {@link DepartmentServer}로 명령을 받습니다. 이때는 연결마다 트랜잭션을 따로 열 수
+     * 있도록 {@link SingleWriterDepartmentService}를 사용하며, 커밋 전의 변경은 다른 연결에 보이지 않습니다.
+     * {@code --metrics-dump [초]} 옵션을 주면 주어진 간격마다 지표를 출력합니다. 지표는 언제든 {@code STATS} 명령으로 볼 수 있습니다.
+     * */
     public static void main(String[] args) throws IOException {
 
-        DepartmentRepository departmentRepository = new DepartmentRepositoryImpl();
+        ColumnarOrgChart chart = openImport(args);
+        DepartmentRepository departmentRepository = createRepository(args, chart);
+        Integer port = portOf(args);
         DepartmentService departmentService = new DepartmentServiceImpl(departmentRepository);
+        if (departmentRepository instanceof ShardedDepartmentRepository) {
+            departmentService = new ShardedDepartmentService(
+                    departmentService, (ShardedDepartmentRepository) departmentRepository);
+        } else if (port == null) {
+            departmentService = new CachingDepartmentService(departmentService, departmentRepository);
+        }
+        if (port != null) departmentService = new SingleWriterDepartmentService(departmentService, departmentRepository);
+        if (chart != null) departmentService = new ColumnarDepartmentService(chart, departmentService);
+        departmentService = new MeteredDepartmentService(departmentService, departmentRepository, MetricsRegistry.global());
         DepartmentController departmentController = new DepartmentController(departmentService);
+        startMetricsDump(args);
         BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
         System.out.println(MESSAGE);
 
+        runBatch(args, departmentController);
+        export(args, departmentRepository);
+
+        if (port != null) {
+            try (DepartmentServer server = DepartmentServer.open(departmentController, new InetSocketAddress(port))) {
+                System.out.println("포트 " + server.getLocalAddress().getPort() + "에서 명령을 기다립니다.");
+                server.run();
+            }
+            return;
+        }
+
         while (true) {
 
             String input = br.readLine();
@@ -69,4 +124,73 @@ public class DepartmentMain {
 
     }
 
+    private static void runBatch(String[] args, DepartmentController departmentController) throws IOException {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (!args[i].equals("--batch")) continue;
+
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[i + 1]))) {
+                System.out.println(departmentController.parseBatch(reader.lines()::iterator));
+            } catch (CustomRuntimeException e) {
+                if(e.getCause() != null) System.out.println(e.getCause().getMessage());
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    private static void export(String[] args, DepartmentRepository departmentRepository) throws IOException {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (!args[i].equals("--export")) continue;
+
+            String file = args[i + 1];
+            if (ColumnarOrgChart.isColumnar(file)) {
+                List<Department> departments = departmentRepository.findAll();
+                ColumnarOrgChart.write(departments, Paths.get(file));
+                System.out.println(file + " 파일로 " + departments.size() + "개 부서를 내보냈습니다.");
+                continue;
+            }
+            try (OutputStream out = Files.newOutputStream(Paths.get(file))) {
+                long count = OrgChartExporter.export(
+                        departmentRepository, Traversal.PRE_ORDER, out, OrgChartExporter.Format.of(file));
+                System.out.println(file + " 파일로 " + count + "개 부서를 내보냈습니다.");
+            }
+        }
+    }
+
+    private static void startMetricsDump(String[] args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("--metrics-dump")) {
+                MetricsRegistry.global().startDump(Long.parseLong(args[i + 1]), TimeUnit.SECONDS, System.out::println);
+            }
+        }
+    }
+
+    private static Integer portOf(String[] args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("--port")) return Integer.parseInt(args[i + 1]);
+        }
+        return null;
+    }
+
+    private static ColumnarOrgChart openImport(String[] args) throws IOException {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("--import")) return ColumnarOrgChart.open(Paths.get(args[i + 1]));
+        }
+        return null;
+    }
+
+    private static DepartmentRepository createRepository(String[] args, ColumnarOrgChart chart) throws IOException {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("--data")) {
+                return DurableDepartmentRepository.open(Paths.get(args[i + 1]));
+            }
+            if (args[i].equals("--import")) {
+                return new DepartmentRepositoryImpl(chart::toDepartments);
+            }
+            if (args[i].equals("--shards")) {
+                return ShardedDepartmentRepository.byTopDepartment(Integer.parseInt(args[i + 1]), MetricsRegistry.global());
+            }
+        }
+        return new DepartmentRepositoryImpl();
+    }
+
 }
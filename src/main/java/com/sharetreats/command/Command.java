@@ -0,0 +1,76 @@
+package com.sharetreats.command;
+
+/**
+ * {@link CommandTokenizer}가 한 줄의 입력을 해석한 결과입니다.
+ * <p>
+ *     부서 등록은 {@code name}과 {@code headCount}, 관계 설정은 {@code name}(상위 부서)과 {@code subordinate},
+ *     부서 조회는 {@code name}만, 예약된 명령어는 {@code keyword}만 사용합니다.
+ * </p>
+ * */
+public final class Command {
+
+    public enum Type {
+        /** [부서이름], [인원수] */
+        POST,
+        /** [상위부서]>[하위부서] */
+        RELATE,
+        /** [부서이름] */
+        QUERY,
+        /** {@link CommandKeyword} */
+        KEYWORD
+    }
+
+    private final Type type;
+    private final String name;
+    private final String subordinate;
+    private final int headCount;
+    private final CommandKeyword keyword;
+
+    private Command(Type type, String name, String subordinate, int headCount, CommandKeyword keyword) {
+        this.type = type;
+        this.name = name;
+        this.subordinate = subordinate;
+        this.headCount = headCount;
+        this.keyword = keyword;
+    }
+
+    static Command post(String name, int headCount) {
+        return new Command(Type.POST, name, null, headCount, null);
+    }
+
+    static Command relate(String superior, String subordinate) {
+        return new Command(Type.RELATE, superior, subordinate, 0, null);
+    }
+
+    static Command query(String name) {
+        return new Command(Type.QUERY, name, null, 0, null);
+    }
+
+    static Command keyword(CommandKeyword keyword) {
+        return new Command(Type.KEYWORD, null, null, 0, keyword);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSuperior() {
+        return name;
+    }
+
+    public String getSubordinate() {
+        return subordinate;
+    }
+
+    public int getHeadCount() {
+        return headCount;
+    }
+
+    public CommandKeyword getKeyword() {
+        return keyword;
+    }
+}
@@ -0,0 +1,29 @@
+package com.sharetreats.command;
+
+/**
+ * 부서 조회 대신 다른 동작을 하는 예약된 명령어입니다. 부서 이름과 형식이 같으므로 부서 이름으로 사용할 수 없습니다.
+ * */
+public enum CommandKeyword {
+
+    /** 지표 조회 */
+    STATS,
+    /** 트랜잭션 시작 */
+    BEGIN,
+    /** 트랜잭션 반영 */
+    COMMIT,
+    /** 트랜잭션 취소 */
+    ROLLBACK,
+    ;
+
+    private static final CommandKeyword[] KEYWORDS = values();
+
+    /**
+     * 입력 전체가 예약된 명령어라면 그 명령어를, 아니라면 {@code null}을 반환합니다.
+     * */
+    public static CommandKeyword of(String input) {
+        for (CommandKeyword keyword : KEYWORDS) {
+            if (keyword.name().equals(input)) return keyword;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.sharetreats.command;
+
+import com.sharetreats.exception.CustomNumberFormatException;
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+/**
+ * 정규식과 {@code String.split} 없이 한 줄의 명령을 해석하는 클래스입니다.
+ * <p>
+ *     입력을 한 번 훑으면서 허용되지 않는 문자가 있는지, 쉼표와 {@code >}가 몇 개이고 어디에 있는지, 모두 대문자인지를 기록한 뒤
+ *     그 결과로 명령의 종류를 정합니다. 부서 이름은 공백을 제외한 범위만 잘라내고, 인원수는 문자열을 만들지 않고 바로 숫자로 바꿉니다.
+ * </p>
+ * <p>
+ *     명령의 종류를 정하는 순서와 예외는 {@link CommandRegex}로 검사하던 때와 같습니다. 허용되는 문자는 영어 대문자, 숫자, 공백,
+ *     {@code , > *}이며, 쉼표가 하나면 부서 등록, {@code >}가 하나면 관계 설정, 모두 대문자면 부서 조회입니다.
+ *     {@code @}는 허용되는 문자가 아니므로 인원수 변경 명령은 이전과 같이 잘못된 명령으로 처리됩니다.
+ * </p>
+ * <p>
+ *     입력 전체가 {@link CommandKeyword}이면 예약된 명령어로 해석하고, 부서 등록과 관계 설정에서 예약된 명령어를 부서 이름으로
+ *     사용하면 잘못된 이름으로 처리합니다.
+ * </p>
+ * */
+public final class CommandTokenizer {
+
+    private static final int NONE = -1;
+
+    private CommandTokenizer() {
+    }
+
+    public static Command tokenize(String input) {
+        int length = input.length();
+        if (length == 0) throw invalidCommand();
+
+        int commas = 0;
+        int comma = NONE;
+        int arrows = 0;
+        int arrow = NONE;
+        boolean uppercase = true;
+
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+
+            if (c >= 'A' && c <= 'Z') continue;
+            uppercase = false;
+
+            if (c == ',') {
+                if (commas++ == 0) comma = i;
+            } else if (c == '>') {
+                if (arrows++ == 0) arrow = i;
+            } else if (!(c >= '0' && c <= '9') && c != '*' && !isWhitespace(c)) {
+                throw invalidCommand();
+            }
+        }
+
+        if (commas == 1) {
+            int headCountEnd = segmentEnd(input, comma);
+            return Command.post(name(input, 0, comma), headCount(input, comma + 1, headCountEnd));
+        }
+
+        if (arrows == 1) {
+            int subordinateEnd = segmentEnd(input, arrow);
+            String superior = name(input, 0, arrow);
+            return Command.relate(superior, name(input, arrow + 1, subordinateEnd));
+        }
+
+        if (arrows == 0 && uppercase) {
+            CommandKeyword keyword = CommandKeyword.of(input);
+            return keyword == null ? Command.query(input) : Command.keyword(keyword);
+        }
+
+        throw invalidCommand();
+    }
+
+    /**
+     * 구분자 뒤의 두 번째 값이 끝나는 위치를 반환합니다. 구분자 뒤에 공백만 있으면 값이 하나뿐인 잘못된 명령입니다.
+     * */
+    private static int segmentEnd(String input, int delimiter) {
+        int end = input.length();
+        while (end > delimiter + 1 && isWhitespace(input.charAt(end - 1))) end--;
+
+        if (end == delimiter + 1) throw invalidCommand();
+        return end;
+    }
+
+    /**
+     * 앞뒤 공백을 제외한 범위가 {@code *}이거나 예약된 명령어가 아닌 영어 대문자로만 이루어져 있으면 부서 이름으로 반환합니다.
+     * */
+    private static String name(String input, int from, int to) {
+        while (from < to && isWhitespace(input.charAt(from))) from++;
+        while (to > from && isWhitespace(input.charAt(to - 1))) to--;
+
+        if (to - from == 1 && input.charAt(from) == '*') return "*";
+        if (from == to) throw invalidName();
+
+        for (int i = from; i < to; i++) {
+            char c = input.charAt(i);
+            if (c < 'A' || c > 'Z') throw invalidName();
+        }
+
+        String name = input.substring(from, to);
+        if (CommandKeyword.of(name) != null) throw invalidName();
+        return name;
+    }
+
+    private static int headCount(String input, int from, int to) {
+        while (from < to && isWhitespace(input.charAt(from))) from++;
+
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') throw invalidNumber();
+
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) throw invalidNumber();
+        }
+        return (int) value;
+    }
+
+    /**
+     * 정규식의 {@code \s}와 같은 공백 문자인지 확인합니다.
+     * */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static CustomRuntimeException invalidCommand() {
+        return new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
+    }
+
+    private static CustomRuntimeException invalidName() {
+        return new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_NAME);
+    }
+
+    private static CustomRuntimeException invalidNumber() {
+        return new CustomRuntimeException(new CustomNumberFormatException(), CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
+    }
+}
@@ -0,0 +1,610 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 부서 객체 없이 기본형 배열로 조직도를 관리하는 서비스입니다.
+ * <p>
+ *     부서마다 {@link NameDictionary}로 순번(id)을 매기고, 같은 종류의 값을 배열 하나에 모아 둡니다. 상위 부서는 {@code parent}, 하위 부서들은
+ *     {@code firstChild}에서 시작해 {@code nextSibling}으로 이어지는 목록으로 표현합니다. 부서 이동 시 원래 상위 부서의
+ *     목록에서 상수 시간에 빠질 수 있도록 {@code prevSibling}도 함께 저장합니다.
+ *     부서 객체의 헤더와 참조가 없으므로 부서가 많을수록 메모리를 적게 쓰고, 상위 부서로 올라가는 탐색이 배열 안에서 이루어집니다.
+ * </p>
+ * <p>
+ *     부서 등록, 관계 설정, 인원수 변경, 조회의 결과와 예외는 {@link DepartmentServiceImpl}과 같습니다.
+ *     총 인원수와 하위 조직의 집계 값은 {@link Department}와 같은 방식으로 유지하고, 가장 상위 부서는 버전과 경로 압축으로 캐싱합니다.
+ *     인원수 제한도 {@link HeadCountPolicy}와 같은 방식으로 상위 부서 방향으로만 확인합니다.
+ * </p>
+ * <p>
+ *     삭제된 부서는 {@code alive}를 지우고 이름을 사전에서 지우므로, 다음에 등록하는 부서가 이름과 관계없이 그 순번을 다시 사용합니다.
+ *     하위 조직 전체를 삭제할 때 삭제된 부서들 사이의 관계는 고치지 않습니다.
+ * </p>
+ * <p>
+ *     {@link DepartmentRepository}는 부서 객체를 주고받으므로 이 서비스는 저장소 없이 배열을 직접 관리합니다.
+ *     동기화하지 않으므로 여러 스레드에서 사용하려면 외부에서 잠가야 합니다.
+ * </p>
+ * */
+public class ArrayDepartmentService implements DepartmentService {
+
+    private static final int NONE = -1;
+    private static final int NOT_HELD = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final NameDictionary names;
+    private final HeadCountPolicy policy;
+    private int size;
+    private int deleted;
+    private long versions;
+
+    private int[] parent;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] prevSibling;
+    private int[] headCount;
+    private int[] combined;
+    private int[] descendants;
+    private int[] depth;
+    private int[] depthHolders;
+    private int[] maxHeadCount;
+    private int[] maxHeadCountHolders;
+    private boolean[] root;
+    private boolean[] alive;
+    private int[] cachedTop;
+    private long[] cachedTopVersion;
+    private long[] version;
+
+    public ArrayDepartmentService() {
+        this(DepartmentRepositoryImpl.defaultOrganization());
+    }
+
+    /**
+     * 주어진 부서들의 조직도로 시작합니다. 부서들의 상위 부서도 모두 주어진 부서에 포함되어 있어야 합니다.
+     * */
+    public ArrayDepartmentService(Collection<Department> departments) {
+        this(departments, HeadCountPolicy.DEFAULT);
+    }
+
+    public ArrayDepartmentService(Collection<Department> departments, HeadCountPolicy policy) {
+        this.names = new NameDictionary(departments.size());
+        this.policy = policy;
+        allocate(Math.max(INITIAL_CAPACITY, departments.size()));
+        load(departments);
+    }
+
+    @Override
+    public String getDepartment(String name) {
+        int id = idOf(name);
+        int top = findRootOrHighest(id);
+        return Department.relationToString(name, root[id], names.nameOf(top), root[top], combined[top]);
+    }
+
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        int id = idOf(name);
+        return SubtreeSummary.of(name, combined[id], descendants[id], depth[id], maxHeadCount[id]);
+    }
+
+    @Override
+    public String post(Department department) {
+        policy.validateHeadCount(department.getHeadCount());
+        if (exists(department.getName())) {
+            department.throwDuplicatedNameException();
+        }
+        newId(department.getName(), department.getHeadCount());
+        return department.toString();
+    }
+
+    @Override
+    public String postAll(List<Department> departments) {
+        // 목록 안에서 이름이 겹치면 newId가 앞의 부서 번호를 삭제된 번호로 보고 다시 쓰므로 먼저 확인
+        Set<String> seen = new HashSet<>(departments.size() * 2);
+        for (Department department : departments) {
+            if (exists(department.getName()) || !seen.add(department.getName())) {
+                department.throwDuplicatedNameException();
+            }
+            policy.validateHeadCount(department.getHeadCount());
+            policy.validate(department);
+        }
+        load(departments);
+        return DepartmentServiceImpl.postAllResult(departments.size());
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        deleteAll(List.of(departmentName), mode);
+    }
+
+    /**
+     * {@link DepartmentServiceImpl#deleteAll(Collection, DeleteMode)}와 같습니다. 하위 조직은 재귀 호출 대신 배열로 만든 스택으로 방문합니다.
+     * */
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        int[] targets = new int[departmentNames.size()];
+        int count = 0;
+        for (String name : departmentNames) {
+            targets[count++] = idOf(name);
+        }
+        targets = topDown(targets);
+
+        BitSet removing = new BitSet(size);
+        int[] stack = new int[16];
+        for (int target : targets) {
+            if (removing.get(target)) continue;
+            if (mode == DeleteMode.RE_HOME) {
+                markRemoved(removing, target);
+                continue;
+            }
+
+            int top = 0;
+            stack[top++] = target;
+            while (top > 0) {
+                int d = stack[--top];
+                markRemoved(removing, d);
+                for (int c = firstChild[d]; c != NONE; c = nextSibling[c]) {
+                    if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                    stack[top++] = c;
+                }
+            }
+        }
+
+        for (int target : targets) {
+            if (mode == DeleteMode.RE_HOME) {
+                rehomeSubordinates(target);
+            } else if (parent[target] == NONE || !removing.get(parent[target])) {
+                detach(target);
+            }
+        }
+
+        for (int id = removing.nextSetBit(0); id >= 0; id = removing.nextSetBit(id + 1)) {
+            alive[id] = false;
+            deleted++;
+            names.remove(names.nameOf(id));
+        }
+        return DepartmentServiceImpl.deleteAllResult(removing.cardinality());
+    }
+
+    @Override
+    public String update(Department department) {
+        int id = idOf(department.getName());
+        int old = headCount[id];
+        int count = department.getHeadCount();
+        policy.validateHeadCount(count);
+        validateIncrease(id, count - old);
+        headCount[id] = count;
+        propagate(id, count - old, 0);
+
+        updateMaxHeadCount(id, old, count);
+        return department.toString();
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        int sub = idOf(subordinate);
+
+        if (superior.equals("*")) {
+            setAsRoot(sub);
+        } else {
+            add(idOf(superior), sub);
+        }
+        return getDepartment(subordinate);
+    }
+
+    /**
+     * 되돌리기 위한 로그를 배열로 유지하지 않으므로 트랜잭션을 지원하지 않습니다.
+     * */
+    @Override
+    public DepartmentTransaction begin() {
+        throw new CustomRuntimeException(CustomRuntimeExceptionCode.TRANSACTION_NOT_SUPPORTED);
+    }
+
+    public int size() {
+        return size - deleted;
+    }
+
+    private void markRemoved(BitSet removing, int id) {
+        if (root[id]) throw new CustomRuntimeException(CustomRuntimeExceptionCode.ROOT_CANNOT_BE_DELETE);
+        removing.set(id);
+    }
+
+    /**
+     * 부서들을 조직도의 깊이가 얕은 순서로 정렬합니다.
+     * */
+    private int[] topDown(int[] ids) {
+        long[] keyed = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            int level = 0;
+            for (int d = parent[ids[i]]; d != NONE; d = parent[d]) level++;
+            keyed[i] = ((long) level << 32) | i;
+        }
+        Arrays.sort(keyed);
+
+        int[] sorted = new int[ids.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = ids[(int) keyed[i]];
+        }
+        return sorted;
+    }
+
+    /**
+     * {@link Department}의 {@code detach}와 같습니다.
+     * */
+    private void detach(int id) {
+        int sup = parent[id];
+        if (sup == NONE) return;
+
+        version[findRootOrHighest(id)] = ++versions;
+        unlink(sup, id);
+        propagate(sup, -combined[id], -(descendants[id] + 1));
+        updateMaxHeadCount(sup, maxHeadCount[id], NOT_HELD);
+        updateDepth(sup, depth[id] + 1, NOT_HELD);
+    }
+
+    /**
+     * {@link Department}의 {@code rehomeSubordinates}와 같습니다.
+     * */
+    private void rehomeSubordinates(int id) {
+        int sup = parent[id];
+
+        if (sup == NONE) {
+            version[id] = ++versions;
+            for (int c = firstChild[id], next; c != NONE; c = next) {
+                next = nextSibling[c];
+                parent[c] = NONE;
+                nextSibling[c] = NONE;
+                prevSibling[c] = NONE;
+            }
+        } else {
+            unlink(sup, id);
+            for (int c = firstChild[id], next; c != NONE; c = next) {
+                next = nextSibling[c];
+                link(sup, c);
+                updateMaxHeadCount(sup, NOT_HELD, maxHeadCount[c]);
+                updateDepth(sup, NOT_HELD, depth[c] + 1);
+            }
+            propagate(sup, -headCount[id], -1);
+            updateMaxHeadCount(sup, maxHeadCount[id], NOT_HELD);
+            updateDepth(sup, depth[id] + 1, NOT_HELD);
+        }
+
+        firstChild[id] = NONE;
+        combined[id] = headCount[id];
+        descendants[id] = 0;
+        depth[id] = 0;
+        depthHolders[id] = 1;
+        maxHeadCount[id] = headCount[id];
+        maxHeadCountHolders[id] = 1;
+    }
+
+    /**
+     * {@link Department#setAsRoot()}와 같습니다.
+     * */
+    private void setAsRoot(int id) {
+        int top = findRootOrHighest(id);
+        if (!root[id] && root[top]) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.ROOT_IS_ALREADY_SET);
+        }
+
+        version[top] = ++versions;
+        root[id] = true;
+    }
+
+    /**
+     * {@link Department#add(Department)}와 같습니다.
+     * */
+    private void add(int sup, int sub) {
+        if (root[sub]) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.ROOT_CANNOT_BE_SUBORDINATED);
+        }
+        if (parent[sub] == sup) {
+            return;
+        }
+        if (sub == sup || isAncestorOf(sub, sup)) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.CYCLIC_RELATION);
+        }
+        validateAddition(sup, sub);
+
+        // 옮겨지는 부서들이 캐싱하고 있던 가장 상위 부서를 무효화
+        version[findRootOrHighest(sub)] = ++versions;
+
+        int oldSup = parent[sub];
+        if (oldSup != NONE) {
+            unlink(oldSup, sub);
+            propagate(oldSup, -combined[sub], -(descendants[sub] + 1));
+            updateMaxHeadCount(oldSup, maxHeadCount[sub], NOT_HELD);
+            updateDepth(oldSup, depth[sub] + 1, NOT_HELD);
+        }
+        link(sup, sub);
+        propagate(sup, combined[sub], descendants[sub] + 1);
+        updateMaxHeadCount(sup, NOT_HELD, maxHeadCount[sub]);
+        updateDepth(sup, NOT_HELD, depth[sub] + 1);
+    }
+
+    /**
+     * 부서들의 인원수, 총 인원수와 하위 조직의 집계 값, 최상위 부서 여부를 그대로 옮기고 상위-하위 관계를 연결합니다.
+     * */
+    private void load(Collection<Department> departments) {
+        for (Department department : departments) {
+            int id = newId(department.getName(), department.getHeadCount());
+            combined[id] = department.getCombinedHeadCount();
+            descendants[id] = department.getDescendantCount();
+            depth[id] = department.getSubtreeDepth();
+            maxHeadCount[id] = department.getMaxHeadCount();
+            root[id] = department.isThisRoot();
+        }
+        for (Department department : departments) {
+            Department superior = department.getSuperior();
+            if (superior != null) {
+                link(names.idOf(superior.getName()), names.idOf(department.getName()));
+            }
+        }
+        for (Department department : departments) {
+            int id = names.idOf(department.getName());
+            recalculateMaxHeadCount(id);
+            recalculateDepth(id);
+        }
+    }
+
+    /**
+     * {@link HeadCountPolicy}의 {@code validateIncrease}와 같습니다.
+     * */
+    private void validateIncrease(int id, int delta) {
+        if (delta <= 0) return;
+
+        int top = id;
+        int belowTop = NONE;
+        while (parent[top] != NONE) {
+            belowTop = top;
+            top = parent[top];
+        }
+
+        if ((long) combined[top] + delta > policy.getMaxTreeHeadCount()) throw notValidHeadCount();
+        if (belowTop != NONE && (long) combined[belowTop] + delta > policy.getMaxSubtreeHeadCount()) throw notValidHeadCount();
+    }
+
+    /**
+     * {@link HeadCountPolicy}의 {@code validateAddition}과 같습니다.
+     * */
+    private void validateAddition(int sup, int sub) {
+        long delta = combined[sub];
+
+        int top = sup;
+        int belowTop = NONE;
+        while (parent[top] != NONE) {
+            belowTop = top;
+            top = parent[top];
+        }
+
+        if (belowTop == NONE) {
+            if (delta > policy.getMaxSubtreeHeadCount()) throw notValidHeadCount();
+        } else if (!isAncestorOf(belowTop, sub)) {
+            if (combined[belowTop] + delta > policy.getMaxSubtreeHeadCount()) throw notValidHeadCount();
+        }
+
+        if (!isAncestorOf(top, sub) && combined[top] + delta > policy.getMaxTreeHeadCount()) {
+            throw notValidHeadCount();
+        }
+    }
+
+    private static CustomRuntimeException notValidHeadCount() {
+        return new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT);
+    }
+
+    private boolean isAncestorOf(int ancestor, int id) {
+        for (int d = parent[id]; d != NONE; d = parent[d]) {
+            if (d == ancestor) return true;
+        }
+        return false;
+    }
+
+    private int findRootOrHighest(int id) {
+        int d = id;
+        int top;
+
+        while (true) {
+            if (root[d] || parent[d] == NONE) {
+                top = d;
+                break;
+            }
+            int cached = cachedTop[d];
+            if (cached != NONE && cachedTopVersion[d] == version[cached]) {
+                top = cached;
+                break;
+            }
+            d = parent[d];
+        }
+
+        // 경로 압축
+        long topVersion = version[top];
+        for (int n = id; n != d; n = parent[n]) {
+            cachedTop[n] = top;
+            cachedTopVersion[n] = topVersion;
+        }
+        return top;
+    }
+
+    private void propagate(int id, int delta, int descendantDelta) {
+        if (delta == 0 && descendantDelta == 0) return;
+
+        for (int d = id; d != NONE; d = parent[d]) {
+            combined[d] += delta;
+            descendants[d] += descendantDelta;
+        }
+    }
+
+    /**
+     * {@link Department}의 {@code updateMaxHeadCount}와 같습니다.
+     * */
+    private void updateMaxHeadCount(int id, int old, int now) {
+        for (int d = id; d != NONE; d = parent[d]) {
+            int before = maxHeadCount[d];
+            if (now > before) {
+                maxHeadCount[d] = now;
+                maxHeadCountHolders[d] = 1;
+            } else if (now == before) {
+                if (old != before) maxHeadCountHolders[d]++;
+            } else if (old == before && --maxHeadCountHolders[d] == 0) {
+                recalculateMaxHeadCount(d);
+            }
+
+            if (maxHeadCount[d] == before) return;
+            old = before;
+            now = maxHeadCount[d];
+        }
+    }
+
+    /**
+     * {@link Department}의 {@code updateDepth}와 같습니다.
+     * */
+    private void updateDepth(int id, int old, int now) {
+        for (int d = id; d != NONE; d = parent[d]) {
+            int before = depth[d];
+            if (now > before) {
+                depth[d] = now;
+                depthHolders[d] = 1;
+            } else if (now == before) {
+                if (old != before) depthHolders[d]++;
+            } else if (old == before && --depthHolders[d] == 0) {
+                recalculateDepth(d);
+            }
+
+            if (depth[d] == before) return;
+            old = before + 1;
+            now = depth[d] + 1;
+        }
+    }
+
+    private void recalculateMaxHeadCount(int id) {
+        int max = headCount[id];
+        int holders = 1;
+        for (int c = firstChild[id]; c != NONE; c = nextSibling[c]) {
+            if (maxHeadCount[c] > max) {
+                max = maxHeadCount[c];
+                holders = 1;
+            } else if (maxHeadCount[c] == max) {
+                holders++;
+            }
+        }
+        maxHeadCount[id] = max;
+        maxHeadCountHolders[id] = holders;
+    }
+
+    private void recalculateDepth(int id) {
+        int level = 0;
+        int holders = 1;
+        for (int c = firstChild[id]; c != NONE; c = nextSibling[c]) {
+            if (depth[c] + 1 > level) {
+                level = depth[c] + 1;
+                holders = 1;
+            } else if (depth[c] + 1 == level) {
+                holders++;
+            }
+        }
+        depth[id] = level;
+        depthHolders[id] = holders;
+    }
+
+    private void link(int sup, int sub) {
+        int head = firstChild[sup];
+        nextSibling[sub] = head;
+        prevSibling[sub] = NONE;
+        if (head != NONE) prevSibling[head] = sub;
+        firstChild[sup] = sub;
+        parent[sub] = sup;
+    }
+
+    private void unlink(int sup, int sub) {
+        int prev = prevSibling[sub];
+        int next = nextSibling[sub];
+        if (prev == NONE) firstChild[sup] = next;
+        else nextSibling[prev] = next;
+        if (next != NONE) prevSibling[next] = prev;
+        parent[sub] = NONE;
+    }
+
+    private boolean exists(String name) {
+        int id = names.idOf(name);
+        return id != NameDictionary.NONE && alive[id];
+    }
+
+    private int idOf(String name) {
+        int id = names.idOf(name);
+        if (id == NameDictionary.NONE || !alive[id]) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_SUCH_DEPARTMENT);
+        }
+        return id;
+    }
+
+    private int newId(String name, int count) {
+        if (size == parent.length) {
+            allocate(size * 2);
+        }
+
+        // 삭제된 부서의 순번이 있으면 이름과 관계없이 그 순번을 다시 사용
+        int id = names.intern(name);
+        if (id == size) size++;
+        else deleted--;
+        alive[id] = true;
+        root[id] = false;
+        parent[id] = NONE;
+        firstChild[id] = NONE;
+        nextSibling[id] = NONE;
+        prevSibling[id] = NONE;
+        headCount[id] = count;
+        combined[id] = count;
+        descendants[id] = 0;
+        depth[id] = 0;
+        depthHolders[id] = 1;
+        maxHeadCount[id] = count;
+        maxHeadCountHolders[id] = 1;
+        cachedTop[id] = NONE;
+        version[id] = ++versions;
+        return id;
+    }
+
+    private void allocate(int capacity) {
+        if (parent == null) {
+            parent = new int[capacity];
+            firstChild = new int[capacity];
+            nextSibling = new int[capacity];
+            prevSibling = new int[capacity];
+            headCount = new int[capacity];
+            combined = new int[capacity];
+            descendants = new int[capacity];
+            depth = new int[capacity];
+            depthHolders = new int[capacity];
+            maxHeadCount = new int[capacity];
+            maxHeadCountHolders = new int[capacity];
+            root = new boolean[capacity];
+            alive = new boolean[capacity];
+            cachedTop = new int[capacity];
+            cachedTopVersion = new long[capacity];
+            version = new long[capacity];
+            return;
+        }
+
+        parent = Arrays.copyOf(parent, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        prevSibling = Arrays.copyOf(prevSibling, capacity);
+        headCount = Arrays.copyOf(headCount, capacity);
+        combined = Arrays.copyOf(combined, capacity);
+        descendants = Arrays.copyOf(descendants, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        depthHolders = Arrays.copyOf(depthHolders, capacity);
+        maxHeadCount = Arrays.copyOf(maxHeadCount, capacity);
+        maxHeadCountHolders = Arrays.copyOf(maxHeadCountHolders, capacity);
+        root = Arrays.copyOf(root, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        cachedTop = Arrays.copyOf(cachedTop, capacity);
+        cachedTopVersion = Arrays.copyOf(cachedTopVersion, capacity);
+        version = Arrays.copyOf(version, capacity);
+    }
+}
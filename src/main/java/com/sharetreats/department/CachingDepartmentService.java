@@ -0,0 +1,154 @@
+package com.sharetreats.department;
+
+import com.sharetreats.metrics.Counter;
+import com.sharetreats.metrics.MetricsRegistry;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 다른 {@link DepartmentService}를 감싸 부서 조회 결과를 캐싱하는 서비스입니다.
+ * <p>
+ *     조회 결과는 부서 이름, 최상위 부서 여부와 부서가 속한 최상위 부서(없으면 가장 상위 부서)의 이름, 최상위 부서 여부, 총 인원수로만
+ *     정해집니다. 그래서 결과를 만들 때의 최상위 부서와 그 부서의 {@code generation}을 함께 저장해 두고, 다시 조회할 때 최상위 부서가
+ *     같고 {@code generation}이 바뀌지 않았으면 저장해 둔 결과를 반환합니다. 부서 이동, 인원수 변경, 최상위 부서 설정이 있으면
+ *     영향을 받은 조직의 최상위 부서의 값만 바뀌므로, 다른 조직의 결과는 그대로 사용됩니다. 최상위 부서는 경로 압축된 캐시로 찾으므로
+ *     반복되는 조회는 거의 상수 시간에 처리되고 문자열을 다시 만들지 않습니다.
+ * </p>
+ * <p>
+ *     저장하는 결과의 글자 수 합이 {@code maxWeight}를 넘으면 가장 오래전에 사용한 결과부터 버립니다. 적중, 실패, 제거 횟수는
+ *     {@code cache.department.hits}, {@code cache.department.misses}, {@code cache.department.evictions} 카운터에,
+ *     결과 수와 글자 수는 {@code cache.department} 게이지에 기록합니다.
+ * </p>
+ * <p>
+ *     부서 객체의 변경과 조회가 서로 다른 스레드에서 동시에 일어나면 안 되므로, {@link ConcurrentDepartmentService}처럼 스냅샷에서
+ *     조회하는 서비스의 안쪽이 아니라 {@link DepartmentServiceImpl}을 직접 감싸 사용합니다. 캐시 자체는 동기화되어 있습니다.
+ * </p>
+ * */
+public class CachingDepartmentService implements DepartmentService {
+
+    public static final long DEFAULT_MAX_WEIGHT = 1 << 20;
+
+    private final DepartmentService departmentService;
+    private final DepartmentRepository departmentRepository;
+    private final long maxWeight;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long weight;
+
+    public CachingDepartmentService(DepartmentService departmentService, DepartmentRepository departmentRepository) {
+        this(departmentService, departmentRepository, DEFAULT_MAX_WEIGHT, MetricsRegistry.global());
+    }
+
+    public CachingDepartmentService(DepartmentService departmentService, DepartmentRepository departmentRepository,
+                                    long maxWeight, MetricsRegistry registry) {
+        this.departmentService = departmentService;
+        this.departmentRepository = departmentRepository;
+        this.maxWeight = maxWeight;
+        this.hits = registry.counter("cache.department.hits");
+        this.misses = registry.counter("cache.department.misses");
+        this.evictions = registry.counter("cache.department.evictions");
+
+        registry.gauges("cache.department", () -> {
+            synchronized (this) {
+                return Map.of("entries", (long) entries.size(), "weight", weight);
+            }
+        });
+    }
+
+    @Override
+    public String getDepartment(String name) {
+        Department department = departmentRepository.findBy(name).orElse(null);
+        if (department == null) return departmentService.getDepartment(name);
+
+        // 결과를 만들기 전의 상태를 기록하므로, 그 사이에 바뀌었다면 다음 조회에서 다시 만듦
+        Department top = department.top();
+        int generation = top.generation();
+
+        synchronized (this) {
+            Entry entry = entries.get(name);
+            if (entry != null && entry.department == department && entry.top == top && entry.generation == generation) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        String value = departmentService.getDepartment(name);
+        put(name, new Entry(department, top, generation, value));
+        return value;
+    }
+
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        return departmentService.getSubtreeSummary(name);
+    }
+
+    @Override
+    public String post(Department department) {
+        return departmentService.post(department);
+    }
+
+    @Override
+    public String postAll(List<Department> departments) {
+        return departmentService.postAll(departments);
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        departmentService.delete(departmentName, mode);
+    }
+
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        return departmentService.deleteAll(departmentNames, mode);
+    }
+
+    @Override
+    public String update(Department department) {
+        return departmentService.update(department);
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        return departmentService.relate(superior, subordinate);
+    }
+
+    @Override
+    public DepartmentTransaction begin() {
+        return departmentService.begin();
+    }
+
+    private synchronized void put(String name, Entry entry) {
+        Entry old = entries.put(name, entry);
+        if (old != null) weight -= old.value.length();
+        weight += entry.value.length();
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().value.length();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Department department;
+        private final Department top;
+        private final int generation;
+        private final String value;
+
+        private Entry(Department department, Department top, int generation, String value) {
+            this.department = department;
+            this.top = top;
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sharetreats.department;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * 여러 스레드에서 동시에 사용할 수 있는 저장소입니다.
+ * <p>
+ *     {@link ConcurrentHashMap}을 사용하므로 부서 조회는 잠금 없이 처리됩니다. 저장소는 부서의 이름과 객체만 관리하며,
+ *     부서 간의 관계나 인원수처럼 {@link Department} 객체 자체의 변경은 {@link ConcurrentDepartmentService}가 동기화합니다.
+ * </p>
+ * */
+public class ConcurrentDepartmentRepository implements DepartmentRepository {
+
+    private final ConcurrentMap<String, Department> storage;
+
+    public ConcurrentDepartmentRepository() {
+        this.storage = new ConcurrentHashMap<>();
+        setup();
+    }
+
+    @Override
+    public Department save(Department department) {
+        storage.put(department.getName(), department);
+        return department;
+    }
+
+    @Override
+    public void delete(Department department) {
+        storage.remove(department.getName(), department);
+    }
+
+    @Override
+    public List<Department> findAll() {
+        return new ArrayList<>(storage.values());
+    }
+
+    @Override
+    public Stream<Department> stream() {
+        return storage.values().stream();
+    }
+
+    @Override
+    public Optional<Department> findBy(String name) {
+        return Optional.ofNullable(storage.get(name));
+    }
+
+    private void setup() {
+        for (Department department : DepartmentRepositoryImpl.defaultOrganization()) {
+            save(department);
+        }
+    }
+}
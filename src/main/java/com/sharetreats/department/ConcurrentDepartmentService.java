@@ -0,0 +1,178 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 여러 스레드에서 동시에 호출할 수 있도록 다른 {@link DepartmentService}를 감싸는 서비스입니다.
+ * <p>
+ *     부서 간의 관계 설정은 서로 다른 조직을 합치거나 나누기 때문에 조직 단위로 잠금을 나누면 잠금의 대상이 바뀌는 문제가
+ *     생깁니다. 그래서 등록, 관계 설정, 인원수 변경, 삭제는 하나의 잠금 아래에서 한 번에 하나씩 처리합니다.
+ * </p>
+ * <p>
+ *     조회는 잠금을 사용하지 않습니다. 변경이 끝날 때마다 변경된 부서와 그 상위 부서들의 상태만 교체한 새
+ *     {@link OrgChartSnapshot}을 만들어 {@code volatile} 필드에 게시하고, 조회는 항상 마지막으로 게시된 스냅샷에서
+ *     처리합니다. 따라서 조직 개편 중에도 조회가 기다리지 않으며, 한 번의 조회 결과는 항상 같은 시점의 값입니다.
+ * </p>
+ * <p>
+ *     트랜잭션은 시작부터 커밋이나 취소까지 쓰기 잠금을 잡고 있으므로, 같은 스레드에서 끝내야 하고 그동안 다른 스레드의 변경은
+ *     기다립니다. 트랜잭션의 변경은 커밋할 때 스냅샷 하나로 게시되므로 조회에는 커밋 전의 변경이 보이지 않습니다. 잠금을 잡은
+ *     스레드가 트랜잭션 밖에서 변경하거나 트랜잭션을 하나 더 시작하면, 커밋 전의 부서 객체를 바꾸게 되므로 예외가 발생합니다.
+ * </p>
+ * */
+public class ConcurrentDepartmentService implements DepartmentService {
+
+    private final DepartmentService departmentService;
+    private final DepartmentRepository departmentRepository;
+    private final Lock writeLock;
+    private volatile OrgChartSnapshot snapshot;
+
+    /** 쓰기 잠금을 잡은 스레드만 사용하는, 진행 중인 트랜잭션이 있는지 여부 */
+    private boolean inTransaction;
+
+    public ConcurrentDepartmentService(DepartmentService departmentService, DepartmentRepository departmentRepository) {
+        this.departmentService = departmentService;
+        this.departmentRepository = departmentRepository;
+        this.writeLock = new ReentrantLock();
+        this.snapshot = OrgChartSnapshot.empty().withAll(departmentRepository.findAll());
+    }
+
+    /**
+     * 마지막으로 게시된 조직도 스냅샷을 반환합니다. 여러 부서를 같은 시점 기준으로 조회해야 할 때 사용합니다.
+     * */
+    public OrgChartSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String getDepartment(String name) {
+        return snapshot.relationToString(name);
+    }
+
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        return snapshot.subtreeSummaryOf(name);
+    }
+
+    @Override
+    public String post(Department department) {
+        // 중복된 이름으로 실패한 부서가 스냅샷에 들어가지 않도록 등록에 성공한 경우에만 게시
+        return write(() -> {
+            String result = departmentService.post(department);
+            publish(department);
+            return result;
+        });
+    }
+
+    @Override
+    public String postAll(List<Department> departments) {
+        return write(() -> {
+            String result = departmentService.postAll(departments);
+            snapshot = snapshot.withAll(departments);
+            return result;
+        });
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        deleteAll(List.of(departmentName), mode);
+    }
+
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        lock();
+        try {
+            // 삭제된 부서들을 빼고, 인원수가 줄어든 상위 부서들과 옮겨진 하위 부서들을 함께 게시
+            PublishingDeletion deletion = PublishingDeletion.of(departmentRepository, departmentNames, mode);
+            try {
+                return departmentService.deleteAll(departmentNames, mode);
+            } finally {
+                snapshot = deletion.applyTo(snapshot);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String update(Department department) {
+        Department target = departmentRepository.findBy(department.getName()).orElse(null);
+        return write(() -> departmentService.update(department), target);
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        lock();
+        try {
+            // 이동하기 전의 상위 부서들도 인원수가 바뀌므로 함께 게시
+            Department sub = departmentRepository.findBy(subordinate).orElse(null);
+            Department oldSuperior = sub == null ? null : sub.getSuperior();
+            try {
+                return departmentService.relate(superior, subordinate);
+            } finally {
+                publish(oldSuperior, sub);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public DepartmentTransaction begin() {
+        lock();
+        try {
+            DepartmentTransaction transaction = new PublishingTransaction(departmentService.begin(), departmentRepository,
+                    changed -> {
+                        try {
+                            publish(changed.toArray(new Department[0]));
+                        } finally {
+                            inTransaction = false;
+                            writeLock.unlock();
+                        }
+                    });
+            inTransaction = true;
+            return transaction;
+        } catch (RuntimeException e) {
+            writeLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * 쓰기 잠금을 잡습니다. 같은 스레드에서 진행 중인 트랜잭션이 있으면 잠금을 풀고 예외가 발생합니다.
+     * */
+    private void lock() {
+        writeLock.lock();
+        if (inTransaction) {
+            writeLock.unlock();
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.TRANSACTION_ALREADY_STARTED);
+        }
+    }
+
+    private <T> T write(Supplier<T> action, Department... changed) {
+        lock();
+        try {
+            try {
+                return action.get();
+            } finally {
+                publish(changed);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void publish(Department... changed) {
+        OrgChartSnapshot next = snapshot;
+        for (Department department : changed) {
+            if (department != null) next = next.withChainOf(department);
+        }
+        snapshot = next;
+    }
+}
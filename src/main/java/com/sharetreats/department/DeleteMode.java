@@ -0,0 +1,12 @@
+package com.sharetreats.department;
+
+/**
+ * 부서를 삭제할 때 그 하위 부서들을 처리하는 방법입니다.
+ * */
+public enum DeleteMode {
+
+    /** 삭제되는 부서의 바로 아래 하위 부서들을 삭제되는 부서의 상위 부서 아래로 옮깁니다. 상위 부서가 없으면 각각 가장 상위 부서가 됩니다. */
+    RE_HOME,
+    /** 삭제되는 부서와 그 하위 조직 전체를 함께 삭제합니다. */
+    CASCADE
+}
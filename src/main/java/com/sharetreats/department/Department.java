@@ -3,21 +3,52 @@ package com.sharetreats.department;
 import com.sharetreats.command.CommandRegex;
 import com.sharetreats.exception.CustomRuntimeException;
 import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import com.sharetreats.metrics.Histogram;
+import com.sharetreats.metrics.MetricsRegistry;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 부서를 표현하는 클래스입니다.
  * <p>
- *     각 부서는 여러 하위 부서를 가질 수 있도록 {@link List}로 표현하였고,
+ *     각 부서는 여러 하위 부서를 가질 수 있도록 {@link Set}으로 표현하였고,
+ *     부서 이동 시 하위 부서의 포함 여부 확인과 삭제가 상수 시간에 처리되도록 추가된 순서를 유지하는 {@link LinkedHashSet}을 사용합니다.
  *     상위부서는 하나만 가질 수 있도록 상위부서의 참조를 저장합니다.
- *     최상위 부서의 정보를 쉽게 불러올 수 있도록 최상위 부서가 있는 경우 최상위 부서의 참조를 가지도록 했습니다.
+ *     최상위 부서의 정보를 쉽게 불러올 수 있도록 가장 상위 부서의 참조를 {@code cachedTop}에 캐싱합니다.
+ * </p>
+ * <p>
+ *     캐시는 부서 이동 시 하위 부서를 모두 방문해 고치지 않고, 가장 상위 부서의 {@code version}을 올려 한꺼번에
+ *     무효화합니다. 조회할 때 유효한 캐시를 만날 때까지만 상위 부서로 올라간 뒤, 지나온 부서들의 캐시를 찾은 부서로
+ *     갱신(경로 압축)하므로 반복되는 조회는 거의 상수 시간에 처리됩니다.
+ *     버전은 모든 부서에 걸쳐 유일한 값을 사용하므로, 읽기 잠금 아래에서 여러 스레드가 동시에 경로 압축을 하며
+ *     {@code cachedTop}과 {@code cachedTopVersion}이 서로 다른 스레드의 값으로 섞여 보이더라도 잘못된 캐시가 유효하다고 판단되지 않습니다.
  * </p>
  * <p>
  *     부서 조직도에 변동이 생길 때 매번 변동된 모든 부서의 인원수를 다시 검색하지 않도록, {@code combinedHeadCount}
- *     를 통해 캐싱합니다. 하위 부서가 추가되거나 상위부서가 바뀌는 경우 재귀적으로 상하위 부서를 탐색하는데, 이 때
- *     이 캐시값이 있으면 바로 사용합니다.
+ *     를 통해 캐싱합니다. 이 값은 항상 현재 부서와 모든 하위 부서의 인원수 합과 같도록 유지됩니다. 하위 부서가 추가되거나
+ *     인원수가 바뀌는 경우 형제 부서들을 다시 합산하지 않고, 변경된 인원수(증감분)만 상위 부서 방향으로 전파합니다.
+ * </p>
+ * <p>
+ *     같은 방식으로 하위 부서 수({@code descendantCount}), 하위 조직의 깊이({@code depth}), 하위 조직의 최대 인원수
+ *     ({@code maxHeadCount})도 함께 유지하므로 {@link #getSubtreeSummary()}는 하위 부서를 방문하지 않습니다. 하위 부서 수는
+ *     증감분을 전파하고, 깊이와 최대 인원수는 그 값을 내는 바로 아래 하위 부서(최대 인원수는 현재 부서 자신도 포함)의 수를 함께
+ *     유지합니다. 값이 커질 때는 비교만 하며 올라가고, 작아질 때는 그 값을 내던 마지막 하위 부서가 빠진 경우에만 바로 아래 하위
+ *     부서들의 값으로 다시 계산합니다. 따라서 하위 부서가 많은 부서에서 부서를 옮기더라도 비용은 보통 조직도의 깊이에 비례합니다.
+ *     값이 바뀌지 않는 부서를 만나면 그 위의 부서들은 바뀌지 않으므로 멈춥니다.
+ * </p>
+ * <p>
+ *     각 부서는 자신을 가장 상위 부서로 하는 조직의 출력이 바뀔 때마다 올라가는 {@code generation}을 가집니다. 인원수가 전파된
+ *     부서들과 캐시가 무효화된 가장 상위 부서의 값이 올라가므로, {@link CachingDepartmentService}는 가장 상위 부서와 이 값이 같으면
+ *     이전에 만든 조회 결과를 그대로 사용합니다.
+ * </p>
+ * <p>
+ *     인원수를 전파하거나 가장 상위 부서를 찾을 때 방문한 부서 수는 {@link MetricsRegistry#global()}의 히스토그램에 기록됩니다.
  * </p>
  * <p>
  *     최상위 부서는 {@code isRoot}의 값이 {@code true}인 객체이며, 이 필드는 요구사항에 정의된 것처럼 다른 부서의 하위 부서가
@@ -27,21 +58,41 @@ import java.util.List;
 
 public class Department {
 
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final Histogram PROPAGATED_NODES = MetricsRegistry.global().histogram("department.propagate.nodes");
+    private static final Histogram TOP_LOOKUP_NODES = MetricsRegistry.global().histogram("department.top-lookup.nodes");
+
+    /** 하위 부서가 새로 생기거나 빠져 최대 인원수나 깊이를 내지 않는 상태. 인원수와 깊이는 0 이상이므로 어떤 값과도 같지 않습니다. */
+    private static final int NOT_HELD = -1;
+
     private static final String MESSAGE_WITHOUT_ROOT = "최상위 부서가 설정되어 있지 않아 현재 부서의 상위 부서 중 최고 부서의 정보가 표시됩니다.";
 
     private int headCount;
     private int combinedHeadCount;
+    private int descendantCount;
+    private int depth;
+    private int maxHeadCount;
+    private int depthHolders;
+    private int maxHeadCountHolders;
     private final String name;
-    private final List<Department> subordinates;
+    private final Set<Department> subordinates;
     private Department superior;
-    private Department root;
+    private Department cachedTop;
+    private long cachedTopVersion;
+    private long version;
+    private int generation;
     private boolean isRoot;
 
     private Department(int headCount, String name, boolean isRoot) {
         this.headCount = headCount;
+        this.combinedHeadCount = headCount;
+        this.maxHeadCount = headCount;
+        this.depthHolders = 1;
+        this.maxHeadCountHolders = 1;
         this.name = name;
-        this.subordinates = new LinkedList<>();
+        this.subordinates = new LinkedHashSet<>();
         this.isRoot = isRoot;
+        this.version = VERSIONS.incrementAndGet();
     }
 
     public static Department of(int headCount, String name) {
@@ -58,6 +109,25 @@ public class Department {
         return combinedHeadCount;
     }
 
+    public int getDescendantCount() {
+        return descendantCount;
+    }
+
+    public int getSubtreeDepth() {
+        return depth;
+    }
+
+    public int getMaxHeadCount() {
+        return maxHeadCount;
+    }
+
+    /**
+     * 현재 부서를 최상위로 하는 하위 조직의 총 인원수, 하위 부서 수, 깊이, 최대 인원수를 반환합니다.
+     * */
+    public SubtreeSummary getSubtreeSummary() {
+        return SubtreeSummary.of(name, combinedHeadCount, descendantCount, depth, maxHeadCount);
+    }
+
     public String getName() {
         return name;
     }
@@ -66,45 +136,55 @@ public class Department {
         return headCount;
     }
 
-    public List<Department> getSubordinates() {
-        return subordinates;
+    public Set<Department> getSubordinates() {
+        return Collections.unmodifiableSet(subordinates);
+    }
+
+    public Department getSuperior() {
+        return superior;
     }
 
+    /**
+     * 현재 부서가 속한 최상위 부서를 반환합니다. 최상위 부서가 없거나 현재 부서가 최상위 부서인 경우 {@code null}을 반환합니다.
+     * */
     public Department getRoot() {
-        return root;
+        if (isThisRoot()) return null;
+
+        Department top = findRootOrHighest();
+        return top.isThisRoot() ? top : null;
     }
 
     public void setAsRoot() {
         // 최상위부서가 이미 있는 경우
-        if (this.root != null) {
+        if (getRoot() != null) {
             throw new CustomRuntimeException(CustomRuntimeExceptionCode.ROOT_IS_ALREADY_SET);
         }
 
+        // 하위 부서들이 캐싱하고 있던 가장 상위 부서를 무효화하고 현재 부서를 최상위 부서로 설정
+        findRootOrHighest().invalidateCachedTop();
         this.isRoot = true;
-
-        // 하위 부서가 있는 부서인 경우, 하위 부서의 최상위부서를 현재부서로 설정
-        if (!this.subordinates.isEmpty()) {
-            for (Department subordinate : subordinates) {
-                setRoot(subordinate, this);
-            }
-        }
-        updateHeadcount();
     }
 
     /**
      * 하위부서를 추가합니다.
      * <p>
-     *     하위 부서의 인원 수와 현재 부서의 인원수를 더하여 {@code combinedHeadCount} 변수에 캐싱합니다.
-     *     하위 부서의 인원수에 캐싱된 값이 있다면 그것을 사용하고, 없는 경우 하위 부서의 모든 하위부서를 탐색하여
-     *     인원수를 구합니다.
+     *     하위 부서의 총 인원수({@code combinedHeadCount})를 현재 부서부터 가장 상위 부서까지 더하고,
+     *     하위 부서가 원래 속해 있던 상위 부서들에서는 같은 값을 뺍니다. 비용은 조직도의 깊이에 비례합니다.
      * </p>
      * <p>
-     *     현재 부서를 하위부서의 상위부서로 설정하고, 현재 부서에 최상위부서(root)가 설정되어 있다면
-     *     이 최상위부서를 하위부서의 최상위부서로 설정합니다. 이 작업은 하위 부서의 모든 하위부서에 재귀적으로
-     *     적용됩니다.
+     *     하위 부서가 현재 부서 자신이거나 현재 부서의 상위 부서 중 하나이면 순환하는 조직도가 되므로 예외가 발생합니다.
+     *     현재 부서를 하위부서의 상위부서로 설정합니다. 하위 부서와 그 하위 부서들의 최상위부서는 하나씩 바꾸지 않고,
+     *     원래 속해 있던 조직의 가장 상위 부서의 버전을 올려 다음 조회 때 다시 찾도록 합니다.
      * </p>
      * */
     public void add(Department subordinate) {
+        add(subordinate, HeadCountPolicy.DEFAULT);
+    }
+
+    /**
+     * 하위부서를 추가합니다. 옮겨진 뒤의 총 인원수가 {@code policy}의 제한을 넘으면 예외가 발생합니다.
+     * */
+    public void add(Department subordinate, HeadCountPolicy policy) {
         // 추가하려는 부서가 null 이면 리턴
         if (subordinate == null) {
             return;
@@ -120,26 +200,77 @@ public class Department {
             return;
         }
 
-        // 캐시 업데이트를 위해 현재 부서의 루트(최상위)를 찾음. 없는 경우 가장 상위의 부서를 리턴
-        // 새로 추가하는 부서의 사람 수를 현재 부서에 더해 캐시를 업데이트. 루트가 존재하는 경우 루트도 하위 부서에 설정
-        Department root = findRootOrHighest();
-        updateSubordinatesAndCache(subordinate, root);
+        // 현재 부서가 추가하려는 부서 자신이거나 그 하위 조직에 있으면 순환하는 조직도가 되므로 예외 처리
+        if (subordinate == this || subordinate.isAncestorOf(this)) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.CYCLIC_RELATION);
+        }
+
+        policy.validateAddition(this, subordinate);
+
+        // 새로 추가하는 부서의 사람 수를 현재 부서에 더해 캐시를 업데이트
+        updateSubordinatesAndCache(subordinate);
     }
 
+    /**
+     * 현재 부서의 인원수를 변경합니다. 변경된 만큼의 인원수만 현재 부서부터 가장 상위 부서까지 반영합니다.
+     * */
     public void updateHeadcount(int headCount) {
+        updateHeadcount(headCount, HeadCountPolicy.DEFAULT);
+    }
+
+    /**
+     * 현재 부서의 인원수를 변경합니다. 부서의 인원수나 늘어난 뒤의 총 인원수가 {@code policy}의 제한을 넘으면 아무것도 바꾸지 않고
+     * 예외가 발생합니다.
+     * */
+    public void updateHeadcount(int headCount, HeadCountPolicy policy) {
+        int old = this.headCount;
+        policy.validateHeadCount(headCount);
+        policy.validateIncrease(this, headCount - old);
+
         this.headCount = headCount;
-        updateHeadcount();
+        propagate(headCount - old, 0);
+
+        updateMaxHeadCount(old, headCount);
+    }
+
+    /**
+     * 현재 부서를 조직도에서 삭제하고, 삭제된 부서들을 반환합니다. 최상위 부서는 삭제할 수 없습니다.
+     * <p>
+     *     {@link DeleteMode#RE_HOME}은 바로 아래 하위 부서들을 상위 부서 아래로 옮깁니다. 옮겨지는 하위 조직의 총 인원수는 같은 상위
+     *     부서들에 그대로 남으므로 현재 부서의 인원수만 상위 부서 방향으로 빼면 되고, 비용은 바로 아래 하위 부서 수와 조직도의 깊이에
+     *     비례합니다. 하위 부서들이 캐싱하고 있는 가장 상위 부서도 바뀌지 않습니다.
+     * </p>
+     * <p>
+     *     {@link DeleteMode#CASCADE}는 하위 조직 전체를 삭제합니다. 상위 부서들에서는 현재 부서의 총 인원수만 한 번에 빼므로 조직도의
+     *     깊이에 비례하고, 하위 조직은 최상위 부서가 있는지 확인하며 저장소에서 지울 부서들을 모으기 위해 한 번만 방문합니다.
+     *     하위 조직의 부서들 사이의 관계는 그대로 두므로 삭제된 부서들을 다시 고치지 않습니다.
+     * </p>
+     * */
+    public List<Department> delete(DeleteMode mode) {
+        List<Department> removed = deletionOf(mode);
+        unlink(mode);
+        return removed;
     }
 
     public int getTotalHeadCountOfDepartment() {
         if (isThisRoot()) {
             return this.combinedHeadCount;
         }
-        Department highest = findRootOrHighest();
-        if (highest == null) {
-            return this.combinedHeadCount;
+        return findRootOrHighest().combinedHeadCount;
+    }
+
+    /**
+     * 현재 부서가 주어진 부서의 상위 부서 중 하나인지 확인합니다. 같은 부서는 상위 부서가 아닙니다.
+     * <p>
+     *     주어진 부서부터 가장 상위 부서까지 올라가며 확인하므로 비용은 조직도의 깊이에 비례하고, 이는 {@link #add(Department)}가
+     *     인원수를 전파하며 이미 지불하는 비용과 같습니다. 변경되지 않는 조직도에서 반복해서 확인할 때는 {@link OrgChartIndex}를 사용합니다.
+     * </p>
+     * */
+    public boolean isAncestorOf(Department department) {
+        for (Department d = department.superior; d != null; d = d.superior) {
+            if (d == this) return true;
         }
-        return highest.combinedHeadCount;
+        return false;
     }
 
     public boolean isThisRoot() {
@@ -151,69 +282,95 @@ public class Department {
     }
 
     public String relationToString() {
-        if (this.root == null && !isThisRoot()) {
-            Department highest = findRootOrHighest();
+        Department top = findRootOrHighest();
+        return relationToString(name, isRoot, top.name, top.isRoot, top.combinedHeadCount);
+    }
+
+    /**
+     * 부서의 조직 관계를 출력 형식에 맞춰 반환합니다.
+     *
+     * @param top 부서가 속한 최상위 부서. 최상위 부서가 없다면 가장 상위의 부서이고, 현재 부서가 최상위 부서라면 현재 부서입니다.
+     * */
+    public static String relationToString(String name, boolean isRoot, String top, boolean isTopRoot, int totalHeadCount) {
+        if (!isTopRoot && !isRoot) {
             return MESSAGE_WITHOUT_ROOT + "\n" +
-                    "현재부서: [ " + this.getName() + " ], " +
-                    "상위부서: [ " + highest.getName()+ " ], " +
-                    "총 인원: [ " + highest.combinedHeadCount +" ]";
+                    "현재부서: [ " + name + " ], " +
+                    "상위부서: [ " + top + " ], " +
+                    "총 인원: [ " + totalHeadCount + " ]";
         }
 
-        if (isThisRoot()) {
+        if (isRoot) {
             return "현재 조회된 부서가 최상위 부서입니다. " +
-                    "현재부서: [ " + this.getName() + " ], " +
-                    "총 인원: [ " + this.combinedHeadCount + " ]";
+                    "현재부서: [ " + name + " ], " +
+                    "총 인원: [ " + totalHeadCount + " ]";
         }
 
-        return "현재부서: [ " + this.getName() + " ], " +
-                "최상위부서: [ " + root.getName() + " ], 총 인원: [ " + root.getCombinedHeadCount() + " ]";
+        return "현재부서: [ " + name + " ], " +
+                "최상위부서: [ " + top + " ], 총 인원: [ " + totalHeadCount + " ]";
     }
 
     public String toString() {
         return "현재부서: [ " + this.getName() + " ], 현재부서의 인원: [ " + this.headCount + " ] ";
     }
 
+    /**
+     * 현재 부서가 속한 최상위 부서를 찾고, 없는 경우 가장 상위의 부서를 반환합니다.
+     * <p>
+     *     상위 부서로 올라가다가 최상위 부서, 상위 부서가 없는 부서, 또는 유효한 캐시를 가진 부서를 만나면 멈추고,
+     *     지나온 부서들의 캐시를 찾은 부서로 갱신합니다.
+     * </p>
+     * */
     private Department findRootOrHighest() {
-        if (!isThisRoot()) {
-            return findRootOrHighest(this, null);
-        }
-        return this;
-    }
+        Department d = this;
+        Department top;
 
-    private boolean alreadyRelatedTo(Department subordinate) {
-        return this.subordinates.contains(subordinate) || subordinate.superior == this;
-    }
-
-    private void updateSubordinatesAndCache(Department subordinate, Department rootOrHighest) {
-
-        updateCombinedHeadCountFrom(subordinate);
-        updateRelationOf(subordinate);
-
-        // 현재 부서의 최상위 부서가 있다면 추가하려는 하위 부서의 모든 하위 부서에도 최상위 부서를 설정하고 캐시 업데이트
-        if(rootOrHighest != null && rootOrHighest.isThisRoot()) {
-            setRoot(subordinate, rootOrHighest);
+        while (true) {
+            if (d.isRoot || d.superior == null) {
+                top = d;
+                break;
+            }
+            Department cached = d.cachedTop;
+            if (cached != null && d.cachedTopVersion == cached.version) {
+                top = cached;
+                break;
+            }
+            d = d.superior;
         }
 
-        // 현재 부서의 최상위부서까지 부서 인원 수 업데이트
-        if (this.superior != null) {
-            Department sup = this.superior;
-            sup.updateHeadcount();
+        // 경로 압축
+        long topVersion = top.version;
+        int visited = 1;
+        for (Department n = this; n != d; n = n.superior) {
+            n.cachedTop = top;
+            n.cachedTopVersion = topVersion;
+            visited++;
         }
+        TOP_LOOKUP_NODES.record(visited);
+        return top;
     }
 
-    private void updateCombinedHeadCountFrom(Department subordinate) {
-        // cache 설정
-        if (this.combinedHeadCount == 0) {
-            this.combinedHeadCount = headCount;
-        }
+    /**
+     * 현재 부서를 가장 상위 부서로 캐싱하고 있는 모든 부서의 캐시를 무효화합니다.
+     * */
+    private void invalidateCachedTop() {
+        this.version = VERSIONS.incrementAndGet();
+        this.generation++;
+    }
 
-        int subHeadcount = subordinate.calculateHeadCount();
+    private boolean alreadyRelatedTo(Department subordinate) {
+        return subordinate.superior == this || this.subordinates.contains(subordinate);
+    }
 
-        if (this.combinedHeadCount + subHeadcount > 1000) {
-            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT);
-        }
+    private void updateSubordinatesAndCache(Department subordinate) {
 
-        this.combinedHeadCount += subHeadcount;
+        // 추가하려는 하위 부서와 그 하위 부서들이 캐싱하고 있던 가장 상위 부서를 무효화
+        subordinate.findRootOrHighest().invalidateCachedTop();
+        updateRelationOf(subordinate);
+
+        // 현재 부서부터 가장 상위 부서까지 추가된 하위 부서의 인원 수와 부서 수를 더함
+        propagate(subordinate.combinedHeadCount, subordinate.descendantCount + 1);
+        updateMaxHeadCount(NOT_HELD, subordinate.maxHeadCount);
+        updateDepth(NOT_HELD, subordinate.depth + 1);
     }
 
     private void updateRelationOf(Department subordinate) {
@@ -228,66 +385,257 @@ public class Department {
     }
 
     private void remove(Department subordinate) {
-        if (this.getSubordinates().remove(subordinate)) {
-            updateHeadcount();
+        if (this.subordinates.remove(subordinate)) {
+            propagate(-subordinate.combinedHeadCount, -(subordinate.descendantCount + 1));
+            updateMaxHeadCount(subordinate.maxHeadCount, NOT_HELD);
+            updateDepth(subordinate.depth + 1, NOT_HELD);
         }
     }
 
-    private void updateHeadcount() {
-        int count = headCount;
+    /**
+     * 현재 부서부터 가장 상위 부서까지 {@code combinedHeadCount}에 인원수 증감분을, {@code descendantCount}에 부서 수 증감분을 더합니다.
+     * */
+    private void propagate(int delta, int descendantDelta) {
+        if (delta == 0 && descendantDelta == 0) return;
+
+        int visited = 0;
+        for (Department d = this; d != null; d = d.superior) {
+            d.combinedHeadCount += delta;
+            d.descendantCount += descendantDelta;
+            if (delta != 0) d.generation++;
+            visited++;
+        }
+        PROPAGATED_NODES.record(visited);
+    }
+
+    /**
+     * 현재 부서 자신이나 바로 아래 하위 부서 하나가 내는 최대 인원수가 {@code old}에서 {@code now}로 바뀌었을 때, 현재 부서부터
+     * 상위 부서 방향으로 최대 인원수와 그 값을 내는 부서 수를 고칩니다. 새로 생기거나 빠진 값은 {@link #NOT_HELD}입니다.
+     * */
+    private void updateMaxHeadCount(int old, int now) {
+        for (Department d = this; d != null; d = d.superior) {
+            int before = d.maxHeadCount;
+            if (now > before) {
+                d.maxHeadCount = now;
+                d.maxHeadCountHolders = 1;
+            } else if (now == before) {
+                if (old != before) d.maxHeadCountHolders++;
+            } else if (old == before && --d.maxHeadCountHolders == 0) {
+                d.recalculateMaxHeadCount();
+            }
 
+            if (d.maxHeadCount == before) return;
+            old = before;
+            now = d.maxHeadCount;
+        }
+    }
+
+    /**
+     * 바로 아래 하위 부서 하나가 내는 깊이({@code 하위 부서의 깊이 + 1})가 {@code old}에서 {@code now}로 바뀌었을 때,
+     * 현재 부서부터 상위 부서 방향으로 깊이와 그 값을 내는 부서 수를 고칩니다. 현재 부서 자신은 항상 깊이 0을 냅니다.
+     * */
+    private void updateDepth(int old, int now) {
+        for (Department d = this; d != null; d = d.superior) {
+            int before = d.depth;
+            if (now > before) {
+                d.depth = now;
+                d.depthHolders = 1;
+            } else if (now == before) {
+                if (old != before) d.depthHolders++;
+            } else if (old == before && --d.depthHolders == 0) {
+                d.recalculateDepth();
+            }
+
+            if (d.depth == before) return;
+            old = before + 1;
+            now = d.depth + 1;
+        }
+    }
+
+    private void recalculateMaxHeadCount() {
+        int max = headCount;
+        int holders = 1;
         for (Department subordinate : subordinates) {
-            count += subordinate.calculateHeadCount();
+            if (subordinate.maxHeadCount > max) {
+                max = subordinate.maxHeadCount;
+                holders = 1;
+            } else if (subordinate.maxHeadCount == max) {
+                holders++;
+            }
         }
+        this.maxHeadCount = max;
+        this.maxHeadCountHolders = holders;
+    }
+
+    private void recalculateDepth() {
+        int depth = 0;
+        int holders = 1;
+        for (Department subordinate : subordinates) {
+            if (subordinate.depth + 1 > depth) {
+                depth = subordinate.depth + 1;
+                holders = 1;
+            } else if (subordinate.depth + 1 == depth) {
+                holders++;
+            }
+        }
+        this.depth = depth;
+        this.depthHolders = holders;
+    }
+
+    /**
+     * 현재 부서와 그 하위 부서들을 전위 순회 순서로 나열합니다.
+     * */
+    private List<Department> subtree() {
+        List<Department> departments = new ArrayList<>(descendantCount + 1);
+        for (Iterator<Department> it = Traversal.PRE_ORDER.iterator(this); it.hasNext(); ) {
+            departments.add(it.next());
+        }
+        return departments;
+    }
 
-        combinedHeadCount = count;
+    /**
+     * 바로 아래 하위 부서들을 상위 부서 아래로 옮기고 현재 부서를 조직도에서 뺍니다.
+     * */
+    private void rehomeSubordinates() {
         Department sup = this.superior;
 
-        if (sup != null) {
-            sup.updateHeadcount();
+        if (sup == null) {
+            // 하위 부서들이 각각 가장 상위 부서가 되므로 현재 부서를 캐싱하고 있던 값을 무효화
+            invalidateCachedTop();
+            for (Department subordinate : subordinates) {
+                subordinate.superior = null;
+            }
+        } else {
+            // 옮겨지는 하위 부서들의 값은 현재 부서가 내던 값보다 크지 않으므로 상위 부서에서 바로 멈춤
+            sup.subordinates.remove(this);
+            for (Department subordinate : subordinates) {
+                sup.relateTo(subordinate);
+                sup.updateMaxHeadCount(NOT_HELD, subordinate.maxHeadCount);
+                sup.updateDepth(NOT_HELD, subordinate.depth + 1);
+            }
+            sup.propagate(-headCount, -1);
+            sup.updateMaxHeadCount(maxHeadCount, NOT_HELD);
+            sup.updateDepth(depth + 1, NOT_HELD);
         }
+
+        this.subordinates.clear();
+        this.superior = null;
+        this.combinedHeadCount = headCount;
+        this.descendantCount = 0;
+        this.depth = 0;
+        this.depthHolders = 1;
+        this.maxHeadCount = headCount;
+        this.maxHeadCountHolders = 1;
     }
 
-    private int calculateHeadCount() {
-        int count = headCount;
+    private void relateTo(Department subordinate) {
+        this.subordinates.add(subordinate);
+        subordinate.superior = this;
+    }
 
-        // 캐시된 부서 총원이 있다면 바로 리턴
-        if (combinedHeadCount != 0) return combinedHeadCount;
+    /**
+     * 인원수나 캐시를 갱신하지 않고 상위-하위 관계만 연결합니다. 하위 부서가 다른 부서에 속해 있었다면 그 관계는 끊습니다.
+     * <p>
+     *     {@link OrgChartBuilder}가 조직 전체를 먼저 연결한 뒤 인원수를 한 번에 계산할 때만 사용합니다.
+     * </p>
+     * */
+    void link(Department subordinate) {
+        Department oldSup = subordinate.superior;
+        if (oldSup == this) return;
+        if (oldSup != null) oldSup.subordinates.remove(subordinate);
+        relateTo(subordinate);
+    }
 
-        List<Department> subordinates = getSubordinates();
+    /**
+     * 다른 조건을 확인하지 않고 최상위 부서로 표시합니다. {@link OrgChartBuilder}에서만 사용합니다.
+     * */
+    void markAsRoot() {
+        this.isRoot = true;
+    }
 
-        for (Department s : subordinates) count += s.calculateHeadCount();
+    /**
+     * 상위 부서와의 관계를 끊고, 원래 상위 부서들에서 현재 부서의 인원수와 하위 조직을 뺍니다.
+     * {@link Reorganization}이 상위 부서가 없던 부서의 관계 설정을 되돌리거나 관계를 끊을 때, 하위 조직 전체를 삭제할 때 사용합니다.
+     * */
+    void detach() {
+        if (superior == null) return;
 
-        // 하위 부서가 다른 하위 부서를 가지는 경우를 탐색 시간을 줄이기 위해 캐싱
-        combinedHeadCount = count;
+        // 현재 부서와 그 하위 부서들이 캐싱하고 있던 가장 상위 부서를 무효화
+        findRootOrHighest().invalidateCachedTop();
+        superior.remove(this);
+        superior = null;
+    }
 
-        return count;
+    /**
+     * 최상위 부서 표시를 지웁니다. 하위 부서들이 현재 부서를 가장 상위 부서로 캐싱하고 있으므로 버전을 올려 무효화합니다.
+     * {@link Reorganization}이 최상위 부서 설정을 되돌릴 때만 사용합니다.
+     * */
+    void unmarkRoot() {
+        this.isRoot = false;
+        invalidateCachedTop();
     }
 
-    private void setRoot(Department subordinate, Department root) {
-        if (subordinate.root == root) {
-            return;
+    /**
+     * 조직도를 바꾸지 않고 {@link #delete(DeleteMode)}로 삭제될 부서들을 반환합니다. 최상위 부서가 포함되면 예외가 발생합니다.
+     * 여러 부서를 삭제할 때 모두 확인한 뒤에 삭제하기 위해 사용합니다.
+     * */
+    List<Department> deletionOf(DeleteMode mode) {
+        List<Department> removed = mode == DeleteMode.CASCADE ? subtree() : List.of(this);
+        for (Department department : removed) {
+            if (department.isRoot) throw new CustomRuntimeException(CustomRuntimeExceptionCode.ROOT_CANNOT_BE_DELETE);
         }
+        return removed;
+    }
 
-        subordinate.root = root;
-
-        for (Department sub : subordinate.getSubordinates()) {
-            setRoot(sub, root);
+    /**
+     * 최상위 부서가 있는지 확인하지 않고 {@link #delete(DeleteMode)}와 같이 조직도에서 뺍니다.
+     * */
+    void unlink(DeleteMode mode) {
+        if (mode == DeleteMode.CASCADE) {
+            detach();
+        } else {
+            rehomeSubordinates();
         }
     }
 
-    private void relateTo(Department subordinate) {
-        this.subordinates.add(subordinate);
-        subordinate.superior = this;
+    /**
+     * 조회 결과에 표시되는 최상위 부서를 반환합니다. 최상위 부서가 없으면 가장 상위의 부서입니다.
+     * */
+    Department top() {
+        return findRootOrHighest();
     }
 
-    private Department findRootOrHighest(Department department, Department prev) {
-        if (department == null)
-            return prev;
-        if (!department.isRoot)
-            department = findRootOrHighest(department.superior, department);
+    /**
+     * 현재 부서를 가장 상위 부서로 하는 조직의 조회 결과가 바뀔 수 있는 변경이 있을 때마다 올라가는 값입니다.
+     * */
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * 가장 상위 부서의 캐시를 주어진 부서로 채웁니다. {@link HeadCountRecalculation}이 조직도를 다시 계산하며 상위 부서로부터
+     * 찾아 내려온 가장 상위 부서를 기록할 때만 사용합니다.
+     * */
+    void cacheTop(Department top) {
+        this.cachedTop = top;
+        this.cachedTopVersion = top.version;
+    }
 
-        return department;
+    /**
+     * 하위 부서들의 {@code combinedHeadCount}와 하위 조직의 집계 값이 이미 계산되어 있다고 보고 현재 부서의 값을 다시 계산합니다.
+     * */
+    void recalculateCombinedHeadCount() {
+        int count = headCount;
+        int descendants = 0;
+        for (Department subordinate : subordinates) {
+            count += subordinate.combinedHeadCount;
+            descendants += subordinate.descendantCount + 1;
+        }
+        this.combinedHeadCount = count;
+        this.descendantCount = descendants;
+        recalculateMaxHeadCount();
+        recalculateDepth();
+        this.generation++;
     }
 
     private static void validate(int headCount, String departmentName) {
@@ -302,7 +650,6 @@ public class Department {
     }
 
     private static void validate(int headCount) {
-        if (headCount < 0 || headCount > 1000)
-            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT);
+        HeadCountPolicy.DEFAULT.validateHeadCount(headCount);
     }
 }
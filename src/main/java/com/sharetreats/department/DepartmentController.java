@@ -1,89 +1,153 @@
 package com.sharetreats.department;
 
-import com.sharetreats.command.CommandRegex;
-import com.sharetreats.exception.CustomNumberFormatException;
+import com.sharetreats.command.Command;
+import com.sharetreats.command.CommandKeyword;
+import com.sharetreats.command.CommandTokenizer;
 import com.sharetreats.exception.CustomRuntimeException;
 import com.sharetreats.exception.CustomRuntimeExceptionCode;
-
-import java.util.Arrays;
-
+import com.sharetreats.metrics.MetricsRegistry;
+
+/**
+ * 한 줄의 명령을 해석해 서비스에 전달하는 컨트롤러입니다.
+ * <p>
+ *     {@code BEGIN}으로 트랜잭션을 시작하면 {@code COMMIT}이나 {@code ROLLBACK}까지 부서 등록과 관계 설정은
+ *     {@link DepartmentTransaction}에 전달하고, 부서 조회와 지표 조회는 그대로 서비스에서 처리합니다. 진행 중인 트랜잭션은
+ *     {@link Session}마다 하나이므로, 여러 사용자가 하나의 컨트롤러를 나눠 쓸 때는 사용자마다 {@link #openSession()}으로 세션을
+ *     만들어 {@link #parseCommand(String, Session)}에 넘깁니다. 세션 없이 호출하면 컨트롤러의 기본 세션을 사용합니다.
+ * </p>
+ * */
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final MetricsRegistry metricsRegistry;
+    private final Session defaultSession = new Session();
 
     public DepartmentController(DepartmentService departmentService) {
+        this(departmentService, MetricsRegistry.global());
+    }
+
+    /**
+     * {@code STATS} 명령에 {@code metricsRegistry}의 지표를 보여주는 컨트롤러를 만듭니다.
+     * */
+    public DepartmentController(DepartmentService departmentService, MetricsRegistry metricsRegistry) {
         this.departmentService = departmentService;
+        this.metricsRegistry = metricsRegistry;
     }
 
     public String parseCommand(String input) {
+        return parseCommand(input, defaultSession);
+    }
 
-        if (!(CommandRegex.COMMAND.matches(input))) {
-            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
-        }
-
-        if (CommandRegex.COMMA.matches(input)) {
-
-            String[] segments = segment(input, ",");
-
-            Department department = toDepartmentFrom(segments);
-
-            return departmentService.post(department);
-
-        } else if (CommandRegex.RELATION.matches(input)) {
-
-            String[] segments = segment(input, ">");
-
-            validateLength(segments);
-
-            String sup = validateName(segments[0]);
-            String sub = validateName(segments[1]);
-
-            return departmentService.relate(sup, sub);
-
-        } else if (CommandRegex.UPDATE.matches(input)) {
-
-            String[] segments = segment(input, "@");
-
-            Department department = toDepartmentFrom(segments);
+    public Session openSession() {
+        return new Session();
+    }
 
-            return departmentService.update(department);
+    /**
+     * 명령을 처리합니다. 부서 등록과 관계 설정은 세션에 진행 중인 트랜잭션이 있으면 그 트랜잭션에 전달합니다.
+     * */
+    public String parseCommand(String input, Session session) {
+
+        Command command = CommandTokenizer.tokenize(input);
+
+        switch (command.getType()) {
+            case POST:
+                Department department = Department.of(command.getHeadCount(), command.getName());
+                return session.transaction != null
+                        ? session.transaction.post(department)
+                        : departmentService.post(department);
+            case RELATE:
+                return session.transaction != null
+                        ? session.transaction.relate(command.getSuperior(), command.getSubordinate())
+                        : departmentService.relate(command.getSuperior(), command.getSubordinate());
+            case QUERY:
+                return departmentService.getDepartment(command.getName());
+            case KEYWORD:
+                return parseKeyword(command.getKeyword(), session);
+            default:
+                throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
+        }
+    }
 
-        } else if (CommandRegex.UPPERCASE.matches(input)) {
+    private String parseKeyword(CommandKeyword keyword, Session session) {
+        switch (keyword) {
+            case STATS:
+                return metricsRegistry.report();
+            case BEGIN:
+                if (session.transaction != null) {
+                    throw new CustomRuntimeException(CustomRuntimeExceptionCode.TRANSACTION_ALREADY_STARTED);
+                }
+                session.transaction = departmentService.begin();
+                return "트랜잭션을 시작합니다. COMMIT으로 반영하거나 ROLLBACK으로 취소할 수 있습니다.";
+            case COMMIT:
+                try {
+                    return session.currentTransaction().commit();
+                } finally {
+                    session.transaction = null;
+                }
+            case ROLLBACK:
+                session.currentTransaction().rollback();
+                session.transaction = null;
+                return "트랜잭션이 취소되었습니다.";
+            default:
+                throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
+        }
+    }
 
-            return departmentService.getDepartment(input);
+    /**
+     * 여러 줄의 명령을 한 번에 처리합니다. 부서 등록과 관계 설정만 사용할 수 있고, 빈 줄은 건너뜁니다.
+     * <p>
+     *     명령을 한 줄씩 적용하지 않고 {@link OrgChartBuilder}로 부서를 먼저 모두 연결한 뒤 총 인원수를 한 번에 계산하므로,
+     *     처리 시간이 명령의 수에 비례합니다. 인원수 제한과 최상위 부서 조건은 마지막에 한 번에 확인하고, 이름 중복은 등록할 때
+     *     확인합니다. 하나라도 실패하면 아무 부서도 등록되지 않습니다.
+     * </p>
+     * <p>
+     *     관계 설정에는 같은 명령 묶음에서 등록한 부서만 사용할 수 있습니다.
+     * </p>
+     * */
+    public String parseBatch(Iterable<String> inputs) {
+        OrgChartBuilder builder = new OrgChartBuilder();
+
+        for (String input : inputs) {
+            if (input.isBlank()) continue;
+
+            Command command = CommandTokenizer.tokenize(input);
+
+            if (command.getType() == Command.Type.POST) {
+                builder.department(command.getName(), command.getHeadCount());
+            } else if (command.getType() == Command.Type.RELATE) {
+                builder.relate(command.getSuperior(), command.getSubordinate());
+            } else {
+                throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
+            }
         }
 
-        throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
+        return departmentService.postAll(builder.buildValidated());
     }
 
-    private String[] segment(String input, String delimiter) {
-        return Arrays.stream(input.trim().split(delimiter)).map(String::trim).toArray(String[]::new);
-    }
+    /**
+     * 한 사용자의 진행 중인 트랜잭션을 담는 세션입니다. 한 스레드에서만 사용해야 합니다.
+     * */
+    public static final class Session {
 
-    private void validateLength(String[] segments) {
-        if (segments.length != 2)
-            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
-    }
+        private DepartmentTransaction transaction;
 
-    private String validateName(String name) {
-        if(name.equals("*")) return name;
-        if (!CommandRegex.UPPERCASE.matches(name))
-            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_NAME);
-        return name;
-    }
+        private Session() {
+        }
 
-    private int validateHeadCount(String headCount) {
-        try {
-            return Integer.parseInt(headCount);
-        } catch (IllegalArgumentException e) {
-            throw new CustomRuntimeException(new CustomNumberFormatException(), CustomRuntimeExceptionCode.NOT_VALID_COMMAND);
+        /**
+         * 진행 중인 트랜잭션이 있으면 취소합니다. 연결이 끊긴 사용자의 세션을 정리할 때 사용합니다.
+         * */
+        public void close() {
+            if (transaction == null) return;
+
+            DepartmentTransaction current = transaction;
+            transaction = null;
+            current.rollback();
         }
-    }
 
-    private Department toDepartmentFrom(String[] segments) {
-        validateLength(segments);
-        String name = validateName(segments[0]);
-        int headcount = validateHeadCount(segments[1]);
-        return Department.of(headcount, name);
+        private DepartmentTransaction currentTransaction() {
+            if (transaction == null) throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_TRANSACTION);
+            return transaction;
+        }
     }
 }
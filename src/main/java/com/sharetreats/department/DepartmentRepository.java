@@ -1,14 +1,71 @@
 package com.sharetreats.department;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface DepartmentRepository {
 
     Department save(Department department);
 
+    /**
+     * 여러 부서를 한 번에 저장합니다. 상위 부서가 바뀐 부서는 그 상위 부서보다 뒤에 와야 합니다.
+     * 저장소가 한꺼번에 기록할 수 있다면 한 번의 기록으로 모두 반영되거나 모두 반영되지 않아야 합니다.
+     * */
+    default void saveAll(Collection<Department> departments) {
+        for (Department department : departments) {
+            save(department);
+        }
+    }
+
+    /**
+     * 부서를 저장소에서 지웁니다. 부서 객체의 관계는 바꾸지 않으므로 서비스가 조직도에서 먼저 삭제한 뒤 호출합니다.
+     * */
+    void delete(Department department);
+
+    /**
+     * 부서 삭제로 상위 부서가 바뀐 부서들({@code changed})을 저장하고, 삭제된 부서들({@code removed})을 지웁니다.
+     * 저장소가 한꺼번에 기록할 수 있다면 {@link #saveAll(Collection)}처럼 한 번의 기록으로 모두 반영되어야 합니다.
+     * */
+    default void deleteAll(Collection<Department> removed, Collection<Department> changed) {
+        saveAll(changed);
+        for (Department department : removed) {
+            delete(department);
+        }
+    }
+
     List<Department> findAll();
 
+    /**
+     * 저장된 부서들을 목록으로 복사하지 않고 순서 없이 차례로 반환합니다. 조직도 순서로 방문하려면 상위 부서가 없는 부서들에서
+     * {@link Traversal}로 순회합니다.
+     * */
+    default Stream<Department> stream() {
+        return findAll().stream();
+    }
+
+    /**
+     * 상위 부서가 없는 부서마다 그 하위 조직 전체를 주어진 순서로 이어 붙여 하나씩 반환합니다. 하위 조직을 미리 모으지 않고
+     * 꺼낼 때마다 순회하므로 순회에 필요한 메모리만 사용합니다.
+     * */
+    default Iterator<Department> hierarchyIterator(Traversal traversal) {
+        return traversal.iterator(stream().filter(department -> department.getSuperior() == null).iterator());
+    }
+
+    /**
+     * {@link #hierarchyIterator(Traversal)}를 스트림으로 반환합니다. {@code flatMap}은 하위 조직 하나를 모두 모은 뒤에야
+     * 첫 부서를 넘겨주므로 사용하지 않습니다.
+     * */
+    default Stream<Department> streamHierarchy(Traversal traversal) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(hierarchyIterator(traversal),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
     Optional<Department> findBy(String name);
 
 }
@@ -1,33 +1,77 @@
 package com.sharetreats.department;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * 부서 이름을 {@link NameDictionary}의 번호로 바꾸고, 번호 순서의 배열에 부서를 저장하는 저장소입니다.
+ * 같은 이름으로 다시 저장하면 같은 번호의 부서를 교체합니다.
+ * <p>
+ *     삭제하면 이름을 사전에서 지우고 배열의 칸을 비우며, 다음에 저장하는 부서가 그 번호와 칸을 다시 사용합니다. 따라서 서로 다른
+ *     이름의 부서를 등록하고 삭제하기를 반복해도 사전과 배열은 동시에 저장된 부서 수만큼만 커집니다.
+ * </p>
+ * */
 public class DepartmentRepositoryImpl implements DepartmentRepository {
 
-    private final Map<String, Department> storage;
+    private NameDictionary names;
+    private Department[] storage;
+    private Supplier<? extends Collection<Department>> loader;
 
     public DepartmentRepositoryImpl() {
-        this.storage = new HashMap<>();
+        allocate(16);
         setup();
     }
 
+    /**
+     * 처음 조회하거나 저장할 때 {@code loader}가 반환하는 부서들로 저장소를 채웁니다. 기본 조직은 저장되지 않습니다.
+     * <p>
+     *     e.g. {@code new DepartmentRepositoryImpl(() -> chart.toDepartments())}
+     * </p>
+     * */
+    public DepartmentRepositoryImpl(Supplier<? extends Collection<Department>> loader) {
+        this.loader = loader;
+    }
+
     @Override
     public Department save(Department department) {
         put(department);
         return department;
     }
 
+    @Override
+    public void delete(Department department) {
+        load();
+        int id = names.idOf(department.getName());
+        if (id == NameDictionary.NONE || storage[id] != department) return;
+
+        storage[id] = null;
+        names.remove(department.getName());
+    }
+
     @Override
     public List<Department> findAll() {
-        return new ArrayList<>(storage.values());
+        return stream().collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Department> stream() {
+        load();
+        return Arrays.stream(storage, 0, names.idLimit()).filter(Objects::nonNull);
     }
 
     @Override
     public Optional<Department> findBy(String name) {
-        return Optional.ofNullable(storage.get(name));
+        load();
+        int id = names.idOf(name);
+        return id == NameDictionary.NONE ? Optional.empty() : Optional.ofNullable(storage[id]);
     }
 
-    private void setup() {
+    /**
+     * 애플리케이션 시작 시 기본으로 저장되는 조직입니다. *>DEV(10), DEV>BACKEND(20), DEV>FRONTEND(20), DEV>DEVOPS(30)
+     * */
+    public static List<Department> defaultOrganization() {
         Department dev = Department.of(10, "DEV", true);
         dev.setAsRoot();
         Department backend = Department.of(20, "BACKEND", false);
@@ -37,13 +81,35 @@ public class DepartmentRepositoryImpl implements DepartmentRepository {
         dev.add(frontend);
         dev.add(devops);
 
-        put(dev);
-        put(backend);
-        put(frontend);
-        put(devops);
+        return List.of(dev, backend, frontend, devops);
+    }
+
+    private void setup() {
+        for (Department department : defaultOrganization()) {
+            put(department);
+        }
     }
 
     private void put(Department department) {
-        storage.put(department.getName(), department);
+        load();
+        int id = names.intern(department.getName());
+        if (id == storage.length) storage = Arrays.copyOf(storage, storage.length * 2);
+        storage[id] = department;
+    }
+
+    private void load() {
+        if (loader == null) return;
+
+        Collection<Department> departments = loader.get();
+        loader = null;
+        allocate(departments.size());
+        for (Department department : departments) {
+            put(department);
+        }
+    }
+
+    private void allocate(int expectedSize) {
+        names = new NameDictionary(expectedSize);
+        storage = new Department[Math.max(16, expectedSize)];
     }
 }
@@ -1,15 +1,51 @@
 package com.sharetreats.department;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface DepartmentService {
 
     String getDepartment(String name);
 
+    /**
+     * 부서를 최상위로 하는 하위 조직의 총 인원수, 하위 부서 수, 깊이, 최대 인원수를 반환합니다.
+     * 부서가 유지하고 있는 값을 반환하므로 하위 부서를 방문하지 않습니다.
+     * */
+    SubtreeSummary getSubtreeSummary(String name);
+
     String post(Department department);
 
-    void delete(String departmentName);
+    /**
+     * 이미 서로 연결되고 총 인원수가 계산된 부서들을 한 번에 등록합니다. 하나라도 이미 있는 부서나 목록 안의 다른 부서와 이름이
+     * 중복되면 아무것도 등록하지 않습니다.
+     * */
+    String postAll(List<Department> departments);
+
+    /**
+     * 부서를 삭제하고 바로 아래 하위 부서들은 삭제된 부서의 상위 부서 아래로 옮깁니다.
+     * */
+    default void delete(String departmentName) {
+        delete(departmentName, DeleteMode.RE_HOME);
+    }
+
+    /**
+     * 부서를 삭제합니다. 최상위 부서이거나, 하위 조직 전체를 삭제할 때 그 안에 최상위 부서가 있으면 아무것도 삭제하지 않고 예외가 발생합니다.
+     * */
+    void delete(String departmentName, DeleteMode mode);
+
+    /**
+     * 여러 부서를 한 번에 삭제합니다. 모든 부서를 먼저 확인하므로 하나라도 없거나 삭제할 수 없으면 아무것도 삭제하지 않고,
+     * 저장소에는 한 번에 반영합니다. 하위 조직 전체를 삭제할 때 다른 부서의 하위 조직에 포함된 부서는 한 번만 삭제됩니다.
+     * */
+    String deleteAll(Collection<String> departmentNames, DeleteMode mode);
 
     String update(Department department);
 
     String relate(String superior, String subordinate);
 
+    /**
+     * 여러 명령을 묶어 한 번에 반영하는 트랜잭션을 시작합니다. 트랜잭션이 끝나기 전의 변경이 조회에 보이는지는 서비스마다 다릅니다.
+     * */
+    DepartmentTransaction begin();
+
 }
@@ -3,12 +3,39 @@ package com.sharetreats.department;
 import com.sharetreats.exception.CustomRuntimeException;
 import com.sharetreats.exception.CustomRuntimeExceptionCode;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 저장소의 부서 객체를 직접 변경하는 서비스입니다.
+ * <p>
+ *     인원수 제한은 {@link HeadCountPolicy}로 정하며, 등록, 관계 설정, 인원수 변경마다 부서들이 유지하는 총 인원수로 확인하므로
+ *     하위 부서를 방문하지 않습니다.
+ * </p>
+ * */
 public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final HeadCountPolicy policy;
 
     public DepartmentServiceImpl(DepartmentRepository departmentRepository) {
+        this(departmentRepository, HeadCountPolicy.DEFAULT);
+    }
+
+    public DepartmentServiceImpl(DepartmentRepository departmentRepository, HeadCountPolicy policy) {
         this.departmentRepository = departmentRepository;
+        this.policy = policy;
     }
 
     @Override
@@ -18,8 +45,14 @@ public class DepartmentServiceImpl implements DepartmentService {
         return d.relationToString();
     }
 
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        return findBy(name).getSubtreeSummary();
+    }
+
     @Override
     public String post(Department department) {
+        policy.validateHeadCount(department.getHeadCount());
         String name = department.getName();
         departmentRepository.findBy(name).ifPresent(Department::throwDuplicatedNameException);
 
@@ -27,15 +60,91 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
-    public void delete(String departmentName) {
-        Department d = findBy(departmentName);
-        if (d.isThisRoot()) throw new CustomRuntimeException(CustomRuntimeExceptionCode.ROOT_CANNOT_BE_DELETE);
+    public String postAll(List<Department> departments) {
+        Set<String> seen = new HashSet<>(departments.size() * 2);
+        for (Department department : departments) {
+            if (!seen.add(department.getName())) department.throwDuplicatedNameException();
+            departmentRepository.findBy(department.getName()).ifPresent(Department::throwDuplicatedNameException);
+            policy.validateHeadCount(department.getHeadCount());
+            policy.validate(department);
+        }
+
+        departmentRepository.saveAll(topDownOrder(departments));
+        return postAllResult(departments.size());
+    }
+
+    /**
+     * 등록할 부서들을 상위 부서가 하위 부서보다 먼저 오도록 너비 우선으로 나열합니다. 저장소가 로그를 순서대로 다시 적용할 때
+     * 하위 부서를 만나기 전에 상위 부서가 있어야 하므로, 목록에 함께 있는 상위 부서가 없는 부서들부터 시작합니다.
+     * 비용은 부서 수에 비례합니다.
+     * */
+    static List<Department> topDownOrder(List<Department> departments) {
+        Set<Department> included = Collections.newSetFromMap(new IdentityHashMap<>(departments.size() * 2));
+        included.addAll(departments);
+
+        List<Department> ordered = new ArrayList<>(departments.size());
+        Deque<Department> queue = new ArrayDeque<>();
+        for (Department department : departments) {
+            if (included.contains(department.getSuperior())) continue;
+
+            queue.add(department);
+            while (!queue.isEmpty()) {
+                Department d = queue.poll();
+                ordered.add(d);
+                for (Department subordinate : d.getSubordinates()) {
+                    if (included.contains(subordinate)) queue.add(subordinate);
+                }
+            }
+        }
+        return ordered;
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        deleteAll(List.of(departmentName), mode);
+    }
+
+    /**
+     * 삭제할 부서들을 상위 부서부터 확인해 삭제될 부서들을 모두 모은 뒤 조직도에서 뺍니다.
+     * <p>
+     *     상위 부서부터 처리하므로 하위 조직 전체를 삭제할 때 이미 다른 부서의 하위 조직으로 모은 부서는 다시 방문하지 않고, 상위 부서가
+     *     함께 삭제되는 부서는 관계를 끊지 않습니다. 하위 부서를 옮기는 경우 옮겨진 부서들만 다시 저장하며, 옮겨진 뒤 함께 삭제된
+     *     부서는 저장하지 않습니다.
+     * </p>
+     * */
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        List<Department> targets = new ArrayList<>(departmentNames.size());
+        for (String name : departmentNames) {
+            targets.add(findBy(name));
+        }
+        targets = Reorganization.topDown(targets);
+
+        Set<Department> removed = new LinkedHashSet<>();
+        for (Department department : targets) {
+            if (!removed.contains(department)) removed.addAll(department.deletionOf(mode));
+        }
+
+        Set<Department> changed = new LinkedHashSet<>();
+        for (Department department : targets) {
+            if (mode == DeleteMode.RE_HOME) {
+                changed.addAll(department.getSubordinates());
+                department.unlink(mode);
+            } else if (!removed.contains(department.getSuperior())) {
+                department.unlink(mode);
+            }
+        }
+        changed.removeAll(removed);
+
+        departmentRepository.deleteAll(removed, Reorganization.topDown(changed));
+        return deleteAllResult(removed.size());
     }
 
     @Override
     public String update(Department department) {
         Department d = findBy(department.getName());
-        d.updateHeadcount(department.getHeadCount());
+        d.updateHeadcount(department.getHeadCount(), policy);
+        departmentRepository.save(d);
         return d.toString();
     }
 
@@ -48,15 +157,135 @@ public class DepartmentServiceImpl implements DepartmentService {
             sub.setAsRoot();
         } else {
             Department sup = findBy(superior);
-            sup.add(sub);
+            sup.add(sub, policy);
         }
+        departmentRepository.save(sub);
         return sub.relationToString();
     }
 
+    /**
+     * 관계 설정과 인원수 변경을 {@link Reorganization} 하나로 부서 객체에 바로 적용하는 트랜잭션을 시작합니다.
+     * <p>
+     *     명령마다 한 번씩만 적용하므로 비용은 명령마다 조직도의 깊이에 비례하고, 인원수 제한은 커밋할 때 변경된 조직만 한 번
+     *     확인합니다. 실패한 명령은 부서 객체를 바꾸지 않으므로 앞의 명령은 그대로 남습니다. 커밋이 실패하거나 취소하면 실행 취소 로그로
+     *     한 번에 되돌립니다. 등록한 부서는 커밋할 때까지 저장소에 넣지 않고, 변경된 부서마다 한 번씩만
+     *     {@link DepartmentRepository#saveAll(java.util.Collection)}로 저장하므로 같은 부서를 여러 번 바꾸더라도 저장은 한 번입니다.
+     * </p>
+     * <p>
+     *     커밋 전의 변경은 이 서비스를 직접 사용하는 다른 호출에도 보이므로, 트랜잭션이 끝날 때까지 다른 변경을 하지 않아야 합니다.
+     *     여러 사용자가 함께 쓸 때는 커밋된 변경만 스냅샷으로 게시하는 {@link ConcurrentDepartmentService}나
+     *     {@link SingleWriterDepartmentService}로 감싸 사용합니다.
+     * </p>
+     * */
+    @Override
+    public DepartmentTransaction begin() {
+        return new Transaction();
+    }
+
+    static String postAllResult(int count) {
+        return "등록된 부서 수: [ " + count + " ]";
+    }
+
+    static String deleteAllResult(int count) {
+        return "삭제된 부서 수: [ " + count + " ]";
+    }
+
+    static String commitResult(int count) {
+        return "트랜잭션이 반영되었습니다. 변경된 부서 수: [ " + count + " ]";
+    }
+
     private Department findBy(String name) {
         return departmentRepository.findBy(name)
                 .orElseThrow(
                         () -> new CustomRuntimeException(CustomRuntimeExceptionCode.NO_SUCH_DEPARTMENT)
                 );
     }
+
+    private final class Transaction implements DepartmentTransaction {
+
+        private final Map<String, Department> posted = new LinkedHashMap<>();
+        private final Reorganization reorganization = new Reorganization(policy);
+        private boolean closed;
+
+        @Override
+        public String post(Department department) {
+            ensureOpen();
+            policy.validateHeadCount(department.getHeadCount());
+            if (find(department.getName()).isPresent()) department.throwDuplicatedNameException();
+
+            posted.put(department.getName(), department);
+            return department.toString();
+        }
+
+        @Override
+        public String update(Department department) {
+            ensureOpen();
+            Department d = findInTransaction(department.getName());
+            reorganization.updateHeadcount(d, department.getHeadCount());
+            return d.toString();
+        }
+
+        @Override
+        public String relate(String superior, String subordinate) {
+            ensureOpen();
+            Department sub = findInTransaction(subordinate);
+
+            if (superior.equals("*")) {
+                reorganization.setAsRoot(sub);
+            } else {
+                reorganization.relate(findInTransaction(superior), sub);
+            }
+            return sub.relationToString();
+        }
+
+        @Override
+        public String commit() {
+            ensureOpen();
+            try {
+                reorganization.validate();
+            } catch (CustomRuntimeException e) {
+                rollback();
+                throw e;
+            }
+            closed = true;
+
+            // 상위 부서가 없는 새 부서들을 먼저, 관계가 바뀐 부서들은 상위 부서부터 저장
+            List<Department> changed = reorganization.changed();
+            List<Department> departments = new ArrayList<>(posted.size() + changed.size());
+            for (Department department : posted.values()) {
+                if (department.getSuperior() == null) departments.add(department);
+            }
+            for (Department department : changed) {
+                if (department.getSuperior() != null || !posted.containsKey(department.getName())) {
+                    departments.add(department);
+                }
+            }
+            departmentRepository.saveAll(departments);
+            return commitResult(departments.size());
+        }
+
+        @Override
+        public void rollback() {
+            if (closed) return;
+
+            closed = true;
+            reorganization.rollback();
+            posted.clear();
+        }
+
+        private Optional<Department> find(String name) {
+            Department department = posted.get(name);
+            return department != null ? Optional.of(department) : departmentRepository.findBy(name);
+        }
+
+        private Department findInTransaction(String name) {
+            return find(name).orElseThrow(
+                    () -> new CustomRuntimeException(CustomRuntimeExceptionCode.NO_SUCH_DEPARTMENT)
+            );
+        }
+
+        private void ensureOpen() {
+            if (closed) throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_TRANSACTION);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.sharetreats.department;
+
+/**
+ * 여러 개의 부서 등록, 관계 설정, 인원수 변경을 하나로 묶어 모두 반영하거나 모두 취소하는 트랜잭션입니다.
+ * <p>
+ *     {@link DepartmentService#begin()}으로 시작하고, {@link #commit()}이나 {@link #rollback()} 후에는 다시 사용할 수 없습니다.
+ *     각 명령의 이름 중복, 순환 관계, 최상위 부서 조건은 명령마다 확인하고, 실패한 명령은 아무것도 바꾸지 않으며 트랜잭션은 계속
+ *     진행됩니다. 총 인원수가 {@link HeadCountPolicy}의 제한을 넘는지는 커밋할 때 한 번만 확인하고, 넘는 경우 모든 명령을 취소한 뒤
+ *     예외가 발생합니다.
+ * </p>
+ * */
+public interface DepartmentTransaction {
+
+    String post(Department department);
+
+    String update(Department department);
+
+    String relate(String superior, String subordinate);
+
+    /**
+     * 인원수 제한을 확인한 뒤 변경된 부서들을 한 번에 저장하고, 변경된 부서 수를 포함한 결과를 반환합니다.
+     * */
+    String commit();
+
+    /**
+     * 트랜잭션에서 적용한 모든 명령을 되돌립니다. 이미 끝난 트랜잭션에서는 아무것도 하지 않습니다.
+     * */
+    void rollback();
+}
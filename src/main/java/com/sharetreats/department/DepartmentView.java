@@ -0,0 +1,60 @@
+package com.sharetreats.department;
+
+/**
+ * 특정 시점의 부서 상태를 담는 불변 객체입니다.
+ * <p>
+ *     상위 부서는 객체 참조 대신 이름으로 가리킵니다. 그래서 상위 부서의 인원수가 바뀌어도 하위 부서의 상태는 다시 만들 필요가 없고,
+ *     부서 하나가 이동하더라도 그 하위 부서들의 상태는 이전 스냅샷과 그대로 공유됩니다.
+ * </p>
+ * */
+public final class DepartmentView {
+
+    private final String name;
+    private final int headCount;
+    private final SubtreeSummary subtree;
+    private final String superiorName;
+    private final boolean isRoot;
+
+    private DepartmentView(String name, int headCount, SubtreeSummary subtree, String superiorName, boolean isRoot) {
+        this.name = name;
+        this.headCount = headCount;
+        this.subtree = subtree;
+        this.superiorName = superiorName;
+        this.isRoot = isRoot;
+    }
+
+    static DepartmentView of(Department department) {
+        Department superior = department.getSuperior();
+        return new DepartmentView(
+                department.getName(),
+                department.getHeadCount(),
+                department.getSubtreeSummary(),
+                superior == null ? null : superior.getName(),
+                department.isThisRoot()
+        );
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getHeadCount() {
+        return headCount;
+    }
+
+    public int getCombinedHeadCount() {
+        return subtree.getCombinedHeadCount();
+    }
+
+    public SubtreeSummary getSubtreeSummary() {
+        return subtree;
+    }
+
+    public String getSuperiorName() {
+        return superiorName;
+    }
+
+    public boolean isThisRoot() {
+        return isRoot;
+    }
+}
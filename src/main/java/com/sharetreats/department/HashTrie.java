@@ -0,0 +1,270 @@
+package com.sharetreats.department;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 변경할 때마다 새 인스턴스를 반환하는 불변 해시 맵입니다. (Hash Array Mapped Trie)
+ * <p>
+ *     키의 해시값을 5비트씩 나누어 32갈래의 트라이로 저장합니다. 값을 추가하거나 삭제하면 루트에서 해당 키까지의
+ *     경로에 있는 노드만 복사하고 나머지 노드는 이전 버전과 공유하므로, 변경 비용과 추가 메모리는 O(log32 N)입니다.
+ *     이전 버전은 그대로 남아 있기 때문에 잠금 없이 여러 스레드에서 읽을 수 있습니다.
+ * </p>
+ * */
+final class HashTrie<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final HashTrie<?, ?> EMPTY = new HashTrie<>(BitmapNode.EMPTY);
+
+    private final Node root;
+
+    private HashTrie(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> HashTrie<K, V> empty() {
+        return (HashTrie<K, V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        Entry entry = root.find(key, key.hashCode(), 0);
+        return entry == null ? null : (V) entry.value;
+    }
+
+    HashTrie<K, V> put(K key, V value) {
+        Node newRoot = root.put(new Entry(key, key.hashCode(), value), 0);
+        return newRoot == root ? this : new HashTrie<>(newRoot);
+    }
+
+    /**
+     * 모든 값을 순서 없이 한 번씩 방문합니다.
+     * */
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        root.forEach(entry -> action.accept((V) entry.value));
+    }
+
+    HashTrie<K, V> remove(K key) {
+        Node newRoot = root.remove(key, key.hashCode(), 0);
+        if (newRoot == root) return this;
+        return new HashTrie<>(newRoot == null ? BitmapNode.EMPTY : newRoot);
+    }
+
+    private static final class Entry {
+
+        final Object key;
+        final int hash;
+        final Object value;
+
+        Entry(Object key, int hash, Object value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private interface Node {
+
+        Entry find(Object key, int hash, int shift);
+
+        Node put(Entry entry, int shift);
+
+        /** 키가 없으면 {@code this}를, 마지막 항목이 삭제되면 {@code null}을 반환합니다. */
+        Node remove(Object key, int hash, int shift);
+
+        void forEach(Consumer<Entry> action);
+    }
+
+    /**
+     * 비트맵으로 사용 중인 갈래를 표시하고, 사용 중인 갈래만 배열에 저장하는 노드입니다.
+     * 배열의 각 칸은 {@link Entry} 또는 하위 {@link Node} 입니다.
+     * */
+    private static final class BitmapNode implements Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        public Entry find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+
+            Object slot = slots[index(bit)];
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                return entry.key.equals(key) ? entry : null;
+            }
+            return ((Node) slot).find(key, hash, shift + BITS);
+        }
+
+        @Override
+        public Node put(Entry entry, int shift) {
+            int bit = bit(entry.hash, shift);
+            int index = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = entry;
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+
+            Object slot = slots[index];
+            Object newSlot;
+            if (slot instanceof Entry) {
+                Entry existing = (Entry) slot;
+                newSlot = existing.key.equals(entry.key) ? entry : merge(existing, entry, shift + BITS);
+            } else {
+                Node child = (Node) slot;
+                Node newChild = child.put(entry, shift + BITS);
+                if (newChild == child) return this;
+                newSlot = newChild;
+            }
+            return new BitmapNode(bitmap, replace(index, newSlot));
+        }
+
+        @Override
+        public Node remove(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+
+            int index = index(bit);
+            Object slot = slots[index];
+
+            if (slot instanceof Entry) {
+                if (!((Entry) slot).key.equals(key)) return this;
+                return without(bit, index);
+            }
+
+            Node child = (Node) slot;
+            Node newChild = child.remove(key, hash, shift + BITS);
+            if (newChild == child) return this;
+            if (newChild == null) return without(bit, index);
+
+            // 항목이 하나만 남은 하위 노드는 항목으로 바꿔 트라이의 깊이를 줄임
+            if (newChild instanceof BitmapNode) {
+                BitmapNode node = (BitmapNode) newChild;
+                if (node.slots.length == 1 && node.slots[0] instanceof Entry) {
+                    return new BitmapNode(bitmap, replace(index, node.slots[0]));
+                }
+            }
+            return new BitmapNode(bitmap, replace(index, newChild));
+        }
+
+        @Override
+        public void forEach(Consumer<Entry> action) {
+            for (Object slot : slots) {
+                if (slot instanceof Entry) action.accept((Entry) slot);
+                else ((Node) slot).forEach(action);
+            }
+        }
+
+        private Node without(int bit, int index) {
+            if (slots.length == 1) return null;
+
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, newSlots);
+        }
+
+        private Object[] replace(int index, Object slot) {
+            Object[] newSlots = slots.clone();
+            newSlots[index] = slot;
+            return newSlots;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private static Node merge(Entry e1, Entry e2, int shift) {
+            if (shift >= Integer.SIZE) {
+                return new CollisionNode(new Entry[]{e1, e2});
+            }
+
+            int bit1 = bit(e1.hash, shift);
+            int bit2 = bit(e2.hash, shift);
+
+            if (bit1 == bit2) {
+                return new BitmapNode(bit1, new Object[]{merge(e1, e2, shift + BITS)});
+            }
+            Object[] slots = Integer.compareUnsigned(bit1, bit2) < 0 ? new Object[]{e1, e2} : new Object[]{e2, e1};
+            return new BitmapNode(bit1 | bit2, slots);
+        }
+    }
+
+    /**
+     * 해시값 32비트가 모두 같은 항목들을 모아 두는 노드입니다.
+     * */
+    private static final class CollisionNode implements Node {
+
+        final Entry[] entries;
+
+        CollisionNode(Entry[] entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Entry find(Object key, int hash, int shift) {
+            int index = indexOf(key);
+            return index < 0 ? null : entries[index];
+        }
+
+        @Override
+        public Node put(Entry entry, int shift) {
+            int index = indexOf(entry.key);
+            Entry[] newEntries;
+            if (index < 0) {
+                newEntries = Arrays.copyOf(entries, entries.length + 1);
+                newEntries[entries.length] = entry;
+            } else {
+                newEntries = entries.clone();
+                newEntries[index] = entry;
+            }
+            return new CollisionNode(newEntries);
+        }
+
+        @Override
+        public Node remove(Object key, int hash, int shift) {
+            int index = indexOf(key);
+            if (index < 0) return this;
+            if (entries.length == 1) return null;
+
+            Entry[] newEntries = new Entry[entries.length - 1];
+            System.arraycopy(entries, 0, newEntries, 0, index);
+            System.arraycopy(entries, index + 1, newEntries, index, entries.length - index - 1);
+            return new CollisionNode(newEntries);
+        }
+
+        @Override
+        public void forEach(Consumer<Entry> action) {
+            for (Entry entry : entries) {
+                action.accept(entry);
+            }
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+/**
+ * 부서 인원수의 제한을 정의하는 정책입니다.
+ * <p>
+ *     부서 한 개의 인원수({@code maxHeadCount}), 상위 부서가 있는 부서의 하위 조직 총 인원수({@code maxSubtreeHeadCount}),
+ *     상위 부서가 없는 가장 상위 부서의 조직 전체 총 인원수({@code maxTreeHeadCount})를 따로 제한합니다.
+ *     기본 정책은 세 값이 모두 1000명이고, 부서 한 개의 인원수는 1000명보다 크게 정할 수 없습니다.
+ * </p>
+ * <p>
+ *     총 인원수는 상위 부서로 갈수록 커지므로, 인원수가 늘어나는 변경은 조직 전체와 가장 상위 부서 바로 아래의 하위 조직만 확인하면
+ *     그 사이의 모든 하위 조직도 확인한 것과 같습니다. 두 부서는 상위 부서로 한 번 올라가며 찾고, 각 부서가 유지하는
+ *     {@code combinedHeadCount}를 사용하므로 하위 부서를 방문하지 않고 조직도의 깊이에 비례하는 비용으로 확인합니다.
+ * </p>
+ * */
+public final class HeadCountPolicy {
+
+    public static final int DEFAULT_LIMIT = 1000;
+
+    public static final HeadCountPolicy DEFAULT = new HeadCountPolicy(DEFAULT_LIMIT, DEFAULT_LIMIT, DEFAULT_LIMIT);
+
+    /** 인원수 제한을 확인하지 않는 정책. 변경을 모두 적용한 뒤 한 번에 확인할 때 사용합니다. */
+    public static final HeadCountPolicy UNLIMITED = new HeadCountPolicy(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final int maxHeadCount;
+    private final int maxSubtreeHeadCount;
+    private final int maxTreeHeadCount;
+
+    private HeadCountPolicy(int maxHeadCount, int maxSubtreeHeadCount, int maxTreeHeadCount) {
+        this.maxHeadCount = maxHeadCount;
+        this.maxSubtreeHeadCount = maxSubtreeHeadCount;
+        this.maxTreeHeadCount = maxTreeHeadCount;
+    }
+
+    /**
+     * 부서 한 개의 인원수는 {@link Department#of(int, String)}가 부서를 만들 때 {@link #DEFAULT_LIMIT} 이하로 확인하므로,
+     * 정책은 그보다 좁게만 정할 수 있고 더 큰 {@code maxHeadCount}는 예외가 발생합니다. 하위 조직과 조직 전체의 제한은
+     * 제한 없이 정할 수 있습니다.
+     * */
+    public static HeadCountPolicy of(int maxHeadCount, int maxSubtreeHeadCount, int maxTreeHeadCount) {
+        if (maxHeadCount < 0 || maxSubtreeHeadCount < 0 || maxTreeHeadCount < 0) {
+            throw new IllegalArgumentException("인원수 제한은 0 이상이어야 합니다.");
+        }
+        if (maxHeadCount > DEFAULT_LIMIT) {
+            throw new IllegalArgumentException("부서 한 개의 인원수 제한은 " + DEFAULT_LIMIT + " 이하여야 합니다.");
+        }
+        return new HeadCountPolicy(maxHeadCount, maxSubtreeHeadCount, maxTreeHeadCount);
+    }
+
+    public int getMaxHeadCount() {
+        return maxHeadCount;
+    }
+
+    public int getMaxSubtreeHeadCount() {
+        return maxSubtreeHeadCount;
+    }
+
+    public int getMaxTreeHeadCount() {
+        return maxTreeHeadCount;
+    }
+
+    public void validateHeadCount(int headCount) {
+        if (headCount < 0 || headCount > maxHeadCount) throw notValidHeadCount();
+    }
+
+    /**
+     * 부서의 현재 총 인원수가 제한을 넘으면 예외가 발생합니다. 상위 부서가 없으면 조직 전체의 제한을, 있으면 하위 조직의 제한을 적용합니다.
+     * */
+    public void validate(Department department) {
+        int limit = department.getSuperior() == null ? maxTreeHeadCount : maxSubtreeHeadCount;
+        if (department.getCombinedHeadCount() > limit) throw notValidHeadCount();
+    }
+
+    /**
+     * 부서와 그 상위 부서들의 총 인원수가 {@code delta}만큼 늘어났을 때 제한을 넘는지 확인합니다.
+     * */
+    void validateIncrease(Department department, int delta) {
+        if (delta <= 0 || this == UNLIMITED) return;
+
+        Department top = department;
+        Department belowTop = null;
+        while (top.getSuperior() != null) {
+            belowTop = top;
+            top = top.getSuperior();
+        }
+
+        if (top.getCombinedHeadCount() + delta > maxTreeHeadCount) throw notValidHeadCount();
+        if (belowTop != null && belowTop.getCombinedHeadCount() + delta > maxSubtreeHeadCount) throw notValidHeadCount();
+    }
+
+    /**
+     * 하위 부서를 그 하위 조직과 함께 상위 부서 아래로 옮겼을 때 제한을 넘는지 확인합니다.
+     * <p>
+     *     같은 조직 안에서 옮기는 경우 두 부서의 공통 상위 부서들은 총 인원수가 바뀌지 않으므로 더하지 않습니다.
+     *     상위 부서가 가장 상위 부서이면 옮겨지는 하위 부서 자신이 가장 상위 부서 바로 아래의 하위 조직이 됩니다.
+     * </p>
+     * */
+    void validateAddition(Department superior, Department subordinate) {
+        if (this == UNLIMITED) return;
+
+        int delta = subordinate.getCombinedHeadCount();
+
+        Department top = superior;
+        Department belowTop = null;
+        while (top.getSuperior() != null) {
+            belowTop = top;
+            top = top.getSuperior();
+        }
+
+        if (belowTop == null) {
+            if (delta > maxSubtreeHeadCount) throw notValidHeadCount();
+        } else if (!belowTop.isAncestorOf(subordinate)) {
+            if (belowTop.getCombinedHeadCount() + delta > maxSubtreeHeadCount) throw notValidHeadCount();
+        }
+
+        if (!top.isAncestorOf(subordinate) && top.getCombinedHeadCount() + delta > maxTreeHeadCount) {
+            throw notValidHeadCount();
+        }
+    }
+
+    /**
+     * 부서가 속한 조직 전체와, 가장 상위 부서 바로 아래에서 부서를 포함하는 하위 조직의 현재 총 인원수를 확인합니다.
+     * 여러 변경을 적용한 뒤 한 번에 확인할 때 사용합니다.
+     * */
+    void validateChainOf(Department department) {
+        Department top = department;
+        Department belowTop = null;
+        while (top.getSuperior() != null) {
+            belowTop = top;
+            top = top.getSuperior();
+        }
+
+        validate(top);
+        if (belowTop != null) validate(belowTop);
+    }
+
+    @Override
+    public String toString() {
+        return "부서 인원: [ " + maxHeadCount + " ], 하위 조직 인원: [ " + maxSubtreeHeadCount + " ], 조직 전체 인원: [ " + maxTreeHeadCount + " ]";
+    }
+
+    private static CustomRuntimeException notValidHeadCount() {
+        return new CustomRuntimeException(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT);
+    }
+}
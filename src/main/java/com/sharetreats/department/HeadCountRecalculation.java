@@ -0,0 +1,187 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 이미 연결된 조직도의 총 인원수와 하위 조직의 집계 값을 처음부터 다시 계산하는 작업입니다.
+ * <p>
+ *     부서마다 하위 부서들의 계산이 끝난 뒤 자신의 값을 계산하고, 같은 순회에서 상위 부서로부터 내려받은 정보로 최상위 부서 조건을
+ *     확인하고 가장 상위 부서의 캐시를 채웁니다. 서로 다른 하위 부서의 계산은 독립적이므로, 부서가 많으면 하위 부서들을
+ *     {@link ForkJoinPool#commonPool()}에 나누어 맡기고, 작업 큐에 남는 작업이 충분하거나 나누는 깊이가 {@link #MAX_FORK_DEPTH}를
+ *     넘으면 더 나누지 않고 스택을 직접 관리하는 순회로 계산합니다. 그래서 한 줄로 깊게 이어진 조직도에서도 호출 스택이 넘치지 않습니다.
+ * </p>
+ * <p>
+ *     {@code policy}가 주어지면 {@link HeadCountPolicy}의 제한을 넘는 부서와 다른 최상위 부서 아래에 있는 최상위 부서를 예외로
+ *     처리합니다. {@code null}이면 확인하지 않습니다.
+ * </p>
+ * */
+final class HeadCountRecalculation extends RecursiveTask<Integer> {
+
+    /** 부서 수가 이보다 적으면 나누지 않고 호출한 스레드에서 계산합니다. */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final int MAX_FORK_DEPTH = 64;
+    private static final int MAX_SURPLUS_TASKS = 3;
+
+    private final Department department;
+    private final Department top;
+    private final boolean rootAbove;
+    private final HeadCountPolicy policy;
+    private final int forkDepth;
+
+    private HeadCountRecalculation(Department department, Department top, boolean rootAbove, HeadCountPolicy policy,
+                                   int forkDepth) {
+        this.department = department;
+        this.top = top;
+        this.rootAbove = rootAbove;
+        this.policy = policy;
+        this.forkDepth = forkDepth;
+    }
+
+    /**
+     * 상위 부서가 없는 부서들로부터 모든 하위 조직을 다시 계산하고, 계산한 부서 수를 반환합니다.
+     * 순환하는 관계에 있는 부서는 가장 상위의 부서들로부터 닿을 수 없으므로 계산한 부서 수에 포함되지 않습니다.
+     * */
+    static int recalculate(Collection<Department> departments, HeadCountPolicy policy) {
+        List<Department> tops = new ArrayList<>();
+        for (Department department : departments) {
+            if (department.getSuperior() == null) tops.add(department);
+        }
+
+        if (departments.size() < PARALLEL_THRESHOLD) {
+            int count = 0;
+            for (Department top : tops) {
+                count += sequential(top, top, false, policy);
+            }
+            return count;
+        }
+
+        List<HeadCountRecalculation> tasks = new ArrayList<>(tops.size());
+        for (Department top : tops) {
+            tasks.add(new HeadCountRecalculation(top, top, false, policy, 0));
+        }
+        return ForkJoinPool.commonPool().invoke(new Forest(tasks));
+    }
+
+    @Override
+    protected Integer compute() {
+        if (forkDepth >= MAX_FORK_DEPTH || getSurplusQueuedTaskCount() > MAX_SURPLUS_TASKS) {
+            return sequential(department, top, rootAbove, policy);
+        }
+
+        enter(department, top, rootAbove, policy);
+        Department subordinateTop = department.isThisRoot() ? department : top;
+        boolean subordinateRootAbove = rootAbove || department.isThisRoot();
+
+        // 말단 부서는 바로 계산하고, 하위 조직이 있는 부서는 마지막 하나를 빼고 나누어 맡긴 뒤 마지막 하나는 직접 계산
+        int count = 1;
+        HeadCountRecalculation last = null;
+        Deque<HeadCountRecalculation> forked = new ArrayDeque<>();
+        for (Department subordinate : department.getSubordinates()) {
+            if (subordinate.getSubordinates().isEmpty()) {
+                enter(subordinate, subordinateTop, subordinateRootAbove, policy);
+                leave(subordinate, policy);
+                count++;
+                continue;
+            }
+
+            if (last != null) forked.push((HeadCountRecalculation) last.fork());
+            last = new HeadCountRecalculation(subordinate, subordinateTop, subordinateRootAbove, policy, forkDepth + 1);
+        }
+
+        if (last != null) count += last.compute();
+        while (!forked.isEmpty()) {
+            count += forked.pop().join();
+        }
+
+        leave(department, policy);
+        return count;
+    }
+
+    /**
+     * 재귀 호출 없이 후위 순회하며 계산합니다. 부서에 처음 들어갈 때 최상위 부서 조건을 확인하고, 하위 부서를 모두 계산한 뒤 나올 때
+     * 자신의 값을 계산합니다.
+     * */
+    private static int sequential(Department from, Department top, boolean rootAbove, HeadCountPolicy policy) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        enter(from, top, rootAbove, policy);
+        stack.push(new Frame(from, top, rootAbove));
+        int count = 0;
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.subordinates.hasNext()) {
+                Department subordinate = frame.subordinates.next();
+                enter(subordinate, frame.subordinateTop, frame.subordinateRootAbove, policy);
+                stack.push(new Frame(subordinate, frame.subordinateTop, frame.subordinateRootAbove));
+            } else {
+                stack.pop();
+                leave(frame.department, policy);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void enter(Department department, Department top, boolean rootAbove, HeadCountPolicy policy) {
+        if (policy != null && department.isThisRoot() && rootAbove) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.ROOT_IS_ALREADY_SET);
+        }
+        if (department != top) department.cacheTop(top);
+    }
+
+    private static void leave(Department department, HeadCountPolicy policy) {
+        department.recalculateCombinedHeadCount();
+        if (policy != null) {
+            policy.validateHeadCount(department.getHeadCount());
+            policy.validate(department);
+        }
+    }
+
+    private static final class Frame {
+
+        private final Department department;
+        private final Iterator<Department> subordinates;
+        private final Department subordinateTop;
+        private final boolean subordinateRootAbove;
+
+        private Frame(Department department, Department top, boolean rootAbove) {
+            this.department = department;
+            this.subordinates = department.getSubordinates().iterator();
+            this.subordinateTop = department.isThisRoot() ? department : top;
+            this.subordinateRootAbove = rootAbove || department.isThisRoot();
+        }
+    }
+
+    /**
+     * 서로 떨어진 조직들을 한 번에 맡기기 위한 작업입니다.
+     * */
+    private static final class Forest extends RecursiveTask<Integer> {
+
+        private final List<HeadCountRecalculation> tasks;
+
+        private Forest(List<HeadCountRecalculation> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected Integer compute() {
+            invokeAll(tasks);
+
+            int count = 0;
+            for (HeadCountRecalculation task : tasks) {
+                count += task.join();
+            }
+            return count;
+        }
+    }
+}
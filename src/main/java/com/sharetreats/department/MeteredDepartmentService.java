@@ -0,0 +1,161 @@
+package com.sharetreats.department;
+
+import com.sharetreats.metrics.Counter;
+import com.sharetreats.metrics.Histogram;
+import com.sharetreats.metrics.MetricsRegistry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 다른 {@link DepartmentService}를 감싸 메서드마다 호출 수, 실패 수, 지연 시간(나노초)을 기록하는 서비스입니다.
+ * <p>
+ *     지표의 이름은 {@code service.[메서드].calls}, {@code service.[메서드].failures}, {@code service.[메서드].nanos}이고,
+ *     저장소의 조직도 통계({@link TreeStats})를 {@code tree} 게이지로 등록합니다. 저장소가 꺼져 있으면 시간을 재지 않고 바로 호출합니다.
+ * </p>
+ * <p>
+ *     조직도 통계는 게이지를 읽는 스레드가 아니라 변경을 요청한 스레드가 변경을 마친 뒤에 계산해 두고, 게이지는 마지막으로 계산한
+ *     값을 반환합니다. 따라서 지표를 주기적으로 기록하는 스레드가 동기화하지 않는 부서 객체를 읽지 않습니다. 통계를 구하려면 모든
+ *     부서를 방문해야 하므로, 마지막 계산 이후의 변경 수가 그때의 부서 수의 1/{@value #REFRESH_RATIO} 이상일 때만 다시 계산합니다.
+ *     변경 한 번에 드는 비용은 평균 부서 {@value #REFRESH_RATIO}개를 방문하는 정도이고, 작은 조직도는 변경마다 다시 계산합니다.
+ *     트랜잭션의 명령은 세지 않습니다. 저장소가 처음 접근할 때 조직도를 불러올 수 있으므로, 생성할 때는 통계를 구하지 않고
+ *     첫 변경 뒤에 처음 계산합니다. 그 전까지 게이지는 비어 있습니다.
+ * </p>
+ * */
+public class MeteredDepartmentService implements DepartmentService {
+
+    private static final int REFRESH_RATIO = 64;
+
+    private final DepartmentService departmentService;
+    private final DepartmentRepository departmentRepository;
+    private final MetricsRegistry registry;
+    private final Operation getDepartment;
+    private final Operation getSubtreeSummary;
+    private final Operation post;
+    private final Operation postAll;
+    private final Operation delete;
+    private final Operation deleteAll;
+    private final Operation update;
+    private final Operation relate;
+    private final Operation begin;
+    private volatile TreeStats treeStats;
+    private long changesSinceTreeStats;
+
+    public MeteredDepartmentService(DepartmentService departmentService, DepartmentRepository departmentRepository,
+                                    MetricsRegistry registry) {
+        this.departmentService = departmentService;
+        this.departmentRepository = departmentRepository;
+        this.registry = registry;
+        this.getDepartment = new Operation(registry, "getDepartment");
+        this.getSubtreeSummary = new Operation(registry, "getSubtreeSummary");
+        this.post = new Operation(registry, "post");
+        this.postAll = new Operation(registry, "postAll");
+        this.delete = new Operation(registry, "delete");
+        this.deleteAll = new Operation(registry, "deleteAll");
+        this.update = new Operation(registry, "update");
+        this.relate = new Operation(registry, "relate");
+        this.begin = new Operation(registry, "begin");
+
+        registry.gauges("tree", () -> {
+            TreeStats stats = treeStats;
+            return stats == null ? Map.of() : stats.toMap();
+        });
+    }
+
+    @Override
+    public String getDepartment(String name) {
+        return measure(getDepartment, () -> departmentService.getDepartment(name));
+    }
+
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        return measure(getSubtreeSummary, () -> departmentService.getSubtreeSummary(name));
+    }
+
+    @Override
+    public String post(Department department) {
+        return change(post, 1, () -> departmentService.post(department));
+    }
+
+    @Override
+    public String postAll(List<Department> departments) {
+        return change(postAll, departments.size(), () -> departmentService.postAll(departments));
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        change(delete, 1, () -> {
+            departmentService.delete(departmentName, mode);
+            return null;
+        });
+    }
+
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        return change(deleteAll, departmentNames.size(), () -> departmentService.deleteAll(departmentNames, mode));
+    }
+
+    @Override
+    public String update(Department department) {
+        return change(update, 1, () -> departmentService.update(department));
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        return change(relate, 1, () -> departmentService.relate(superior, subordinate));
+    }
+
+    @Override
+    public DepartmentTransaction begin() {
+        return measure(begin, departmentService::begin);
+    }
+
+    /**
+     * 변경을 기록하고, 쌓인 변경이 충분하면 변경을 요청한 스레드에서 조직도 통계를 다시 계산합니다.
+     * */
+    private <T> T change(Operation operation, int changes, Supplier<T> action) {
+        try {
+            return measure(operation, action);
+        } finally {
+            if (registry.isEnabled()) refreshTreeStats(changes);
+        }
+    }
+
+    private synchronized void refreshTreeStats(int changes) {
+        changesSinceTreeStats += changes;
+        if (treeStats != null && changesSinceTreeStats * REFRESH_RATIO < treeStats.getDepartments()) return;
+
+        changesSinceTreeStats = 0;
+        treeStats = TreeStats.of(departmentRepository.findAll());
+    }
+
+    private <T> T measure(Operation operation, Supplier<T> action) {
+        if (!registry.isEnabled()) return action.get();
+
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            operation.failures.increment();
+            throw e;
+        } finally {
+            operation.calls.increment();
+            operation.nanos.record(System.nanoTime() - start);
+        }
+    }
+
+    private static final class Operation {
+
+        private final Counter calls;
+        private final Counter failures;
+        private final Histogram nanos;
+
+        private Operation(MetricsRegistry registry, String method) {
+            this.calls = registry.counter("service." + method + ".calls");
+            this.failures = registry.counter("service." + method + ".failures");
+            this.nanos = registry.histogram("service." + method + ".nanos");
+        }
+    }
+}
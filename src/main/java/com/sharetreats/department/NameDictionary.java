@@ -0,0 +1,207 @@
+package com.sharetreats.department;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 부서 이름마다 0부터 차례로 번호(id)를 매기는 사전입니다.
+ * <p>
+ *     부서 이름은 영어 대문자로만 이루어지므로, 13글자 이하의 이름은 글자마다 1~26의 값을 주어 27진수 한 자리로 보고
+ *     {@code long} 하나에 담습니다. (27^13 &lt; 2^63) 담은 값은 기본형 배열로 된 개방 주소 해시 테이블에서 찾으므로, 이름을 찾을 때
+ *     {@link String#hashCode()}를 새로 계산하거나 {@link String#equals(Object)}로 비교하지 않고 객체도 만들지 않습니다.
+ *     명령에서 잘라낸 이름은 매번 새 문자열이라 해시값이 캐싱되어 있지 않으므로, 조회마다 이름을 한 번만 훑는 셈입니다.
+ * </p>
+ * <p>
+ *     14글자 이상이거나 영어 대문자가 아닌 글자가 있는 이름({@code *} 등)은 {@link HashMap}에 따로 저장합니다.
+ *     {@link #remove(String)}로 지운 이름의 번호는 다음에 추가하는 이름에 다시 매기므로, 이름을 추가하고 지우기를 반복해도 번호는
+ *     동시에 사전에 있는 이름 수를 넘지 않습니다. 동기화하지 않으므로 여러 스레드에서 사용하려면 외부에서 잠가야 합니다.
+ * </p>
+ * */
+public final class NameDictionary {
+
+    public static final int NONE = -1;
+
+    private static final int MAX_PACKED_LENGTH = 13;
+    private static final long NOT_PACKED = 0L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] ids;
+    private int mask;
+    private int packed;
+    private final Map<String, Integer> unpacked = new HashMap<>();
+
+    private String[] names;
+    private int size;
+    private int[] free = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    public NameDictionary() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public NameDictionary(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize);
+        this.keys = new long[capacity];
+        this.ids = new int[capacity];
+        this.mask = capacity - 1;
+        this.names = new String[Math.max(INITIAL_CAPACITY, expectedSize)];
+    }
+
+    /**
+     * 이름의 번호를 반환합니다. 사전에 없으면 {@link #NONE}을 반환합니다.
+     * */
+    public int idOf(String name) {
+        long key = pack(name);
+        if (key == NOT_PACKED) {
+            Integer id = unpacked.get(name);
+            return id == null ? NONE : id;
+        }
+
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return ids[slot];
+            if (k == NOT_PACKED) return NONE;
+        }
+    }
+
+    /**
+     * 이름의 번호를 반환하고, 사전에 없으면 다음 번호를 매겨 추가합니다.
+     * */
+    public int intern(String name) {
+        long key = pack(name);
+        if (key == NOT_PACKED) {
+            return unpacked.computeIfAbsent(name, this::append);
+        }
+
+        int slot = slotOf(key);
+        for (long k; (k = keys[slot]) != NOT_PACKED; slot = (slot + 1) & mask) {
+            if (k == key) return ids[slot];
+        }
+
+        int id = append(name);
+        keys[slot] = key;
+        ids[slot] = id;
+        if (++packed * 2 > keys.length) rehash();
+        return id;
+    }
+
+    /**
+     * 이름을 사전에서 지우고 그 번호를 반환합니다. 사전에 없으면 {@link #NONE}을 반환합니다.
+     * 지운 번호는 다음에 {@link #intern(String)}으로 추가하는 이름에 다시 매깁니다.
+     * */
+    public int remove(String name) {
+        long key = pack(name);
+        int id;
+        if (key == NOT_PACKED) {
+            Integer removed = unpacked.remove(name);
+            if (removed == null) return NONE;
+            id = removed;
+        } else {
+            int slot = slotOf(key);
+            for (long k; (k = keys[slot]) != key; slot = (slot + 1) & mask) {
+                if (k == NOT_PACKED) return NONE;
+            }
+            id = ids[slot];
+            removeSlot(slot);
+            packed--;
+        }
+
+        names[id] = null;
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = id;
+        return id;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * 사전에 있는 이름 수를 반환합니다.
+     * */
+    public int size() {
+        return size - freeCount;
+    }
+
+    /**
+     * 지금까지 매긴 가장 큰 번호보다 1 큰 값을 반환합니다. 모든 번호는 이 값보다 작습니다.
+     * */
+    public int idLimit() {
+        return size;
+    }
+
+    /**
+     * 13글자 이하의 영어 대문자 이름을 27진수로 담은 값을 반환하고, 담을 수 없으면 0을 반환합니다.
+     * */
+    static long pack(String name) {
+        int length = name.length();
+        if (length == 0 || length > MAX_PACKED_LENGTH) return NOT_PACKED;
+
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c < 'A' || c > 'Z') return NOT_PACKED;
+            key = key * 27 + (c - 'A' + 1);
+        }
+        return key;
+    }
+
+    private int append(String name) {
+        if (freeCount > 0) {
+            int id = free[--freeCount];
+            names[id] = name;
+            return id;
+        }
+        if (size == names.length) names = Arrays.copyOf(names, size * 2);
+        names[size] = name;
+        return size++;
+    }
+
+    /**
+     * 선형 탐사 테이블에서 칸을 비우고, 뒤따르는 항목 중 비운 칸을 지나 저장된 항목을 앞으로 당겨 탐사가 끊기지 않게 합니다.
+     * */
+    private void removeSlot(int slot) {
+        for (int next = (slot + 1) & mask; keys[next] != NOT_PACKED; next = (next + 1) & mask) {
+            int home = slotOf(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                ids[slot] = ids[next];
+                slot = next;
+            }
+        }
+        keys[slot] = NOT_PACKED;
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldIds = ids;
+        keys = new long[oldKeys.length * 2];
+        ids = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == NOT_PACKED) continue;
+
+            int slot = slotOf(oldKeys[i]);
+            while (keys[slot] != NOT_PACKED) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            ids[slot] = oldIds[i];
+        }
+    }
+
+    /**
+     * 항목 수의 두 배 이상인 2의 거듭제곱을 반환합니다.
+     * */
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        return capacity;
+    }
+}
@@ -0,0 +1,89 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 많은 부서로 이루어진 조직을 한 번에 만드는 클래스입니다.
+ * <p>
+ *     {@link Department#add(Department)}는 부서를 연결할 때마다 상위 부서들의 인원수를 갱신하므로, 부서 N개를 차례로 연결하면
+ *     조직의 깊이만큼 비용이 더 듭니다. 이 클래스는 부서 간의 관계를 먼저 모두 연결한 뒤, {@link #build()}에서 하위 부서부터
+ *     상위 부서 순서로 한 번만 인원수를 계산하므로 전체 비용이 부서 수에 비례합니다. 부서가 많으면 {@link HeadCountRecalculation}이
+ *     하위 조직들을 여러 스레드에 나누어 계산합니다.
+ * </p>
+ * <p>
+ *     연결 과정에서는 인원수 제한이나 최상위 부서 조건을 확인하지 않습니다. 저장해 두었던 조직을 다시 불러올 때처럼 이미 검증된
+ *     조직은 {@link #build()}로 만들고, 외부에서 받은 명령으로 만든 조직은 {@link #buildValidated()}로 마지막에 한 번에 검증합니다.
+ * </p>
+ * */
+public class OrgChartBuilder {
+
+    private final Map<String, Department> departments = new LinkedHashMap<>();
+
+    public OrgChartBuilder department(String name, int headCount) {
+        if (departments.containsKey(name)) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.DUPLICATED_NAME);
+        }
+        departments.put(name, Department.of(headCount, name));
+        return this;
+    }
+
+    /**
+     * 두 부서를 상위-하위 관계로 연결합니다. 상위 부서가 {@code *}이면 하위 부서를 최상위 부서로 표시합니다.
+     * */
+    public OrgChartBuilder relate(String superior, String subordinate) {
+        Department sub = findBy(subordinate);
+
+        if (superior.equals("*")) {
+            sub.markAsRoot();
+        } else {
+            findBy(superior).link(sub);
+        }
+        return this;
+    }
+
+    /**
+     * 연결된 모든 부서의 총 인원수를 계산하고, 추가된 순서대로 부서 목록을 반환합니다.
+     * */
+    public List<Department> build() {
+        HeadCountRecalculation.recalculate(departments.values(), null);
+        return new ArrayList<>(departments.values());
+    }
+
+    /**
+     * {@link #build()}와 같이 총 인원수를 계산한 뒤, 부서를 하나씩 연결했을 때와 같은 조건을 확인합니다.
+     * <p>
+     *     모든 부서의 인원수와 총 인원수는 기본 {@link HeadCountPolicy}의 제한 이하여야 하고, 최상위 부서의 상위 부서들 중에는
+     *     다른 최상위 부서가 없어야 합니다.
+     *     두 조건은 총 인원수를 계산하는 순회에서 함께 확인합니다. 순환하는 관계가 있으면 가장 상위의 부서들로부터 닿을 수 없는
+     *     부서가 생기므로 {@link Department#add(Department)}와 같이 순환 관계로 처리합니다.
+     * </p>
+     * */
+    public List<Department> buildValidated() {
+        return buildValidated(HeadCountPolicy.DEFAULT);
+    }
+
+    /**
+     * {@link #buildValidated()}와 같지만 주어진 정책의 인원수 제한을 확인합니다.
+     * */
+    public List<Department> buildValidated(HeadCountPolicy policy) {
+        int reached = HeadCountRecalculation.recalculate(departments.values(), policy);
+        if (reached != departments.size()) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.CYCLIC_RELATION);
+        }
+        return new ArrayList<>(departments.values());
+    }
+
+    private Department findBy(String name) {
+        Department department = departments.get(name);
+        if (department == null) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_SUCH_DEPARTMENT);
+        }
+        return department;
+    }
+}
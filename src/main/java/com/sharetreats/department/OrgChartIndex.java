@@ -0,0 +1,111 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 고정된 조직도의 부서들에 전위 순회(오일러 투어) 순번을 매긴 색인입니다.
+ * <p>
+ *     전위 순회에서는 한 부서의 하위 조직이 항상 그 부서 바로 뒤에 연속해서 나옵니다. 그래서 부서마다 순번({@code enter})과
+ *     하위 조직이 끝나는 순번({@code exit} = 순번 + 하위 부서 수 + 1)만 저장하면, 한 부서가 다른 부서의 상위 부서인지는 두 구간을
+ *     비교해 상수 시간에 확인하고, 하위 조직 전체는 순회 결과의 연속된 구간으로 꺼낼 수 있습니다.
+ * </p>
+ * <p>
+ *     부서 이동이 있을 때마다 순번을 다시 매기면 옮겨진 하위 조직의 크기만큼 비용이 들기 때문에, 순번은 변경되지 않는 조직도에만
+ *     매깁니다. {@link OrgChartSnapshot#index()}는 스냅샷마다 처음 필요할 때 한 번 만들어 재사용합니다.
+ * </p>
+ * */
+public final class OrgChartIndex {
+
+    private final Map<String, Integer> enter;
+    private final String[] order;
+    private final int[] exit;
+
+    private OrgChartIndex(Map<String, Integer> enter, String[] order, int[] exit) {
+        this.enter = enter;
+        this.order = order;
+        this.exit = exit;
+    }
+
+    public static OrgChartIndex of(Collection<Department> departments) {
+        List<DepartmentView> views = new ArrayList<>(departments.size());
+        for (Department department : departments) {
+            views.add(DepartmentView.of(department));
+        }
+        return ofViews(views);
+    }
+
+    /**
+     * 상위 부서의 이름으로 하위 부서 목록을 만든 뒤, 가장 상위의 부서들로부터 전위 순회하며 순번을 매깁니다.
+     * */
+    static OrgChartIndex ofViews(List<DepartmentView> views) {
+        int size = views.size();
+        Map<String, List<DepartmentView>> subordinates = new HashMap<>(size * 2);
+        List<DepartmentView> tops = new ArrayList<>();
+        for (DepartmentView view : views) {
+            if (view.getSuperiorName() == null) tops.add(view);
+            else subordinates.computeIfAbsent(view.getSuperiorName(), name -> new ArrayList<>()).add(view);
+        }
+
+        Map<String, Integer> enter = new HashMap<>(size * 2);
+        String[] order = new String[size];
+        int[] exit = new int[size];
+        Deque<DepartmentView> stack = new ArrayDeque<>();
+        int position = 0;
+
+        for (DepartmentView top : tops) {
+            stack.push(top);
+            while (!stack.isEmpty()) {
+                DepartmentView view = stack.pop();
+                enter.put(view.getName(), position);
+                order[position] = view.getName();
+                exit[position] = position + view.getSubtreeSummary().getDescendantCount() + 1;
+                position++;
+
+                for (DepartmentView subordinate : subordinates.getOrDefault(view.getName(), Collections.emptyList())) {
+                    stack.push(subordinate);
+                }
+            }
+        }
+        return new OrgChartIndex(enter, position == size ? order : Arrays.copyOf(order, position), exit);
+    }
+
+    /**
+     * {@code ancestor}가 {@code descendant}의 상위 부서 중 하나인지 상수 시간에 확인합니다. 같은 부서는 상위 부서가 아닙니다.
+     * */
+    public boolean isAncestorOf(String ancestor, String descendant) {
+        int a = positionOf(ancestor);
+        int d = positionOf(descendant);
+        return a < d && d < exit[a];
+    }
+
+    /**
+     * 부서와 그 모든 하위 부서의 이름을 전위 순회 순서로 반환합니다. 첫 번째 이름은 주어진 부서입니다.
+     * */
+    public List<String> subtreeOf(String name) {
+        int position = positionOf(name);
+        return Collections.unmodifiableList(Arrays.asList(order).subList(position, exit[position]));
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    private int positionOf(String name) {
+        Integer position = enter.get(name);
+        if (position == null) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_SUCH_DEPARTMENT);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 특정 시점의 전체 조직도를 표현하는 불변 스냅샷입니다.
+ * <p>
+ *     부서 이름을 키로 하는 {@link HashTrie}에 {@link DepartmentView}를 저장합니다. 조직도가 바뀌면 바뀐 부서의 상태만
+ *     교체한 새 스냅샷을 만들고, 나머지는 이전 스냅샷과 공유합니다. 스냅샷은 변경되지 않으므로 잠금 없이 조회할 수 있고,
+ *     한 스냅샷에서 읽은 인원수들은 항상 같은 시점의 값입니다.
+ * </p>
+ * <p>
+ *     스냅샷의 조직도는 바뀌지 않으므로 상위 부서 확인과 하위 조직 조회에 쓰는 {@link OrgChartIndex}는 처음 필요할 때 한 번만 만듭니다.
+ *     여러 스레드가 동시에 만들더라도 결과가 같으므로 잠그지 않습니다.
+ * </p>
+ * */
+public final class OrgChartSnapshot {
+
+    private static final OrgChartSnapshot EMPTY = new OrgChartSnapshot(HashTrie.empty());
+
+    private final HashTrie<String, DepartmentView> departments;
+    private volatile OrgChartIndex index;
+
+    private OrgChartSnapshot(HashTrie<String, DepartmentView> departments) {
+        this.departments = departments;
+    }
+
+    static OrgChartSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 스냅샷의 조직도에 전위 순회 순번을 매긴 색인을 반환합니다.
+     * */
+    public OrgChartIndex index() {
+        OrgChartIndex current = index;
+        if (current == null) {
+            List<DepartmentView> views = new ArrayList<>();
+            departments.forEachValue(views::add);
+            current = OrgChartIndex.ofViews(views);
+            index = current;
+        }
+        return current;
+    }
+
+    public Optional<DepartmentView> findBy(String name) {
+        return Optional.ofNullable(departments.get(name));
+    }
+
+    /**
+     * {@link Department#relationToString()}과 같은 형식으로 부서의 조직 관계와 총 인원수를 반환합니다.
+     * */
+    public String relationToString(String name) {
+        DepartmentView view = viewOf(name);
+
+        DepartmentView top = view;
+        while (!top.isThisRoot() && top.getSuperiorName() != null) {
+            top = departments.get(top.getSuperiorName());
+        }
+
+        return Department.relationToString(
+                view.getName(), view.isThisRoot(), top.getName(), top.isThisRoot(), top.getCombinedHeadCount());
+    }
+
+    /**
+     * {@link Department#getSubtreeSummary()}와 같이 부서의 하위 조직 집계 값을 반환합니다.
+     * */
+    public SubtreeSummary subtreeSummaryOf(String name) {
+        return viewOf(name).getSubtreeSummary();
+    }
+
+    private DepartmentView viewOf(String name) {
+        DepartmentView view = departments.get(name);
+        if (view == null) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_SUCH_DEPARTMENT);
+        }
+        return view;
+    }
+
+    /**
+     * 주어진 부서들의 현재 상태를 반영한 새 스냅샷을 반환합니다.
+     * */
+    OrgChartSnapshot withAll(Iterable<Department> departments) {
+        HashTrie<String, DepartmentView> updated = this.departments;
+        for (Department d : departments) {
+            updated = updated.put(d.getName(), DepartmentView.of(d));
+        }
+        return new OrgChartSnapshot(updated);
+    }
+
+    /**
+     * 주어진 이름의 부서들을 뺀 새 스냅샷을 반환합니다.
+     * */
+    OrgChartSnapshot without(Iterable<String> names) {
+        HashTrie<String, DepartmentView> updated = departments;
+        for (String name : names) {
+            updated = updated.remove(name);
+        }
+        return new OrgChartSnapshot(updated);
+    }
+
+    /**
+     * 주어진 부서와 그 상위 부서들의 현재 상태를 반영한 새 스냅샷을 반환합니다.
+     * */
+    OrgChartSnapshot withChainOf(Department department) {
+        HashTrie<String, DepartmentView> updated = departments;
+        for (Department d = department; d != null; d = d.getSuperior()) {
+            updated = updated.put(d.getName(), DepartmentView.of(d));
+        }
+        return new OrgChartSnapshot(updated);
+    }
+}
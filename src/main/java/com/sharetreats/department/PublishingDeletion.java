@@ -0,0 +1,58 @@
+package com.sharetreats.department;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 부서를 삭제하기 전에 삭제될 부서들과 인원수나 상위 부서가 바뀔 부서들을 기록해 두었다가, 삭제가 끝난 뒤 스냅샷에 반영하는 클래스입니다.
+ * <p>
+ *     {@link ConcurrentDepartmentService}와 {@link SingleWriterDepartmentService}가 부서 삭제를 스냅샷 하나로 게시할 때 사용합니다.
+ *     삭제가 실패해 저장소에 남아 있는 부서는 스냅샷에서 빼지 않으므로, 실패한 경우에도 그대로 적용하면 됩니다.
+ * </p>
+ * */
+final class PublishingDeletion {
+
+    private final DepartmentRepository departmentRepository;
+    private final Set<String> removedNames = new LinkedHashSet<>();
+    private final List<Department> changed = new ArrayList<>();
+
+    private PublishingDeletion(DepartmentRepository departmentRepository) {
+        this.departmentRepository = departmentRepository;
+    }
+
+    /**
+     * 삭제될 부서들의 이름과, 삭제된 부서의 상위 부서와 옮겨질 하위 부서들을 기록합니다. 없는 부서는 건너뜁니다.
+     * */
+    static PublishingDeletion of(DepartmentRepository departmentRepository, Collection<String> names, DeleteMode mode) {
+        PublishingDeletion deletion = new PublishingDeletion(departmentRepository);
+        for (String name : names) {
+            Department department = departmentRepository.findBy(name).orElse(null);
+            if (department == null) continue;
+
+            if (department.getSuperior() != null) deletion.changed.add(department.getSuperior());
+            if (mode == DeleteMode.CASCADE) {
+                Traversal.PRE_ORDER.stream(department).forEach(d -> deletion.removedNames.add(d.getName()));
+            } else {
+                deletion.removedNames.add(name);
+                deletion.changed.addAll(department.getSubordinates());
+            }
+        }
+        return deletion;
+    }
+
+    OrgChartSnapshot applyTo(OrgChartSnapshot snapshot) {
+        Set<String> removed = new LinkedHashSet<>();
+        for (String name : removedNames) {
+            if (departmentRepository.findBy(name).isEmpty()) removed.add(name);
+        }
+
+        OrgChartSnapshot next = snapshot.without(removed);
+        for (Department department : changed) {
+            if (!removed.contains(department.getName())) next = next.withChainOf(department);
+        }
+        return next;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sharetreats.department;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 다른 트랜잭션을 감싸 변경된 부서를 기록하고, 트랜잭션이 끝날 때 한 번에 넘겨주는 트랜잭션입니다.
+ * <p>
+ *     {@link ConcurrentDepartmentService}와 {@link SingleWriterDepartmentService}가 트랜잭션의 모든 변경을 스냅샷 하나로
+ *     게시할 때 사용합니다. 커밋하면 등록, 관계 설정, 인원수 변경의 대상 부서와 관계 설정 전의 상위 부서들을, 취소하면 빈 목록을
+ *     {@code onClose}에 넘깁니다. 커밋이 실패해 모든 명령이 취소된 경우에도 부서들은 원래 상태이므로 그대로 넘깁니다.
+ * </p>
+ * */
+final class PublishingTransaction implements DepartmentTransaction {
+
+    private final DepartmentTransaction transaction;
+    private final DepartmentRepository departmentRepository;
+    private final Consumer<List<Department>> onClose;
+    private final Set<String> changedNames = new LinkedHashSet<>();
+    private final List<Department> oldSuperiors = new ArrayList<>();
+    private boolean closed;
+
+    PublishingTransaction(DepartmentTransaction transaction, DepartmentRepository departmentRepository,
+                          Consumer<List<Department>> onClose) {
+        this.transaction = transaction;
+        this.departmentRepository = departmentRepository;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public String post(Department department) {
+        String result = transaction.post(department);
+        changedNames.add(department.getName());
+        return result;
+    }
+
+    @Override
+    public String update(Department department) {
+        String result = transaction.update(department);
+        changedNames.add(department.getName());
+        return result;
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        // 저장소에 있는 부서가 옮겨지면 이동하기 전의 상위 부서들도 인원수가 바뀌므로 함께 게시
+        Department sub = departmentRepository.findBy(subordinate).orElse(null);
+        Department oldSuperior = sub == null ? null : sub.getSuperior();
+
+        String result = transaction.relate(superior, subordinate);
+        changedNames.add(subordinate);
+        if (oldSuperior != null) oldSuperiors.add(oldSuperior);
+        return result;
+    }
+
+    @Override
+    public String commit() {
+        try {
+            return transaction.commit();
+        } finally {
+            close(changed());
+        }
+    }
+
+    @Override
+    public void rollback() {
+        try {
+            transaction.rollback();
+        } finally {
+            close(Collections.emptyList());
+        }
+    }
+
+    private List<Department> changed() {
+        List<Department> changed = new ArrayList<>(oldSuperiors);
+        for (String name : changedNames) {
+            departmentRepository.findBy(name).ifPresent(changed::add);
+        }
+        return changed;
+    }
+
+    private void close(List<Department> changed) {
+        if (closed) return;
+        closed = true;
+        onClose.accept(changed);
+    }
+}
@@ -0,0 +1,133 @@
+package com.sharetreats.department;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 여러 개의 관계 설정과 인원수 변경을 부서 객체에 바로 적용하면서, 되돌리는 방법을 실행 취소 로그에 쌓아 두는 클래스입니다.
+ * <p>
+ *     관계 설정은 {@link Department#add(Department)}와 같이 순환 관계와 최상위 부서 조건을 바로 확인하지만, 총 인원수가
+ *     {@link HeadCountPolicy}의 제한을 넘는지는 확인하지 않습니다. 중간 단계에서 잠시 제한을 넘더라도 모든 변경을 마친 뒤의 조직도가
+ *     조건을 만족하면 되므로, {@link #validate()}가 변경된 부서들이 속한 조직만 한 번씩 확인합니다. 부서 한 개의 인원수 제한은
+ *     변경할 때 바로 확인합니다.
+ * </p>
+ * <p>
+ *     {@link #rollback()}은 실행 취소 로그를 역순으로 적용해 인원수, 하위 조직의 집계 값, 최상위 부서 여부를 처음 상태로 돌립니다.
+ *     하위 부서의 순서는 원래와 달라질 수 있습니다. 동기화하지 않으므로 한 스레드에서만 사용해야 합니다.
+ * </p>
+ * */
+public final class Reorganization {
+
+    private final HeadCountPolicy policy;
+    private final Deque<Runnable> undoLog = new ArrayDeque<>();
+    private final Set<Department> changed = new LinkedHashSet<>();
+
+    public Reorganization() {
+        this(HeadCountPolicy.DEFAULT);
+    }
+
+    public Reorganization(HeadCountPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * {@link Department#add(Department)}와 같지만 인원수 제한은 {@link #validate()}에서 확인합니다.
+     * */
+    public void relate(Department superior, Department subordinate) {
+        Department oldSup = subordinate.getSuperior();
+        if (oldSup == superior) return;
+
+        superior.add(subordinate, HeadCountPolicy.UNLIMITED);
+        undoLog.push(oldSup == null ? subordinate::detach : () -> oldSup.add(subordinate, HeadCountPolicy.UNLIMITED));
+        changed.add(subordinate);
+    }
+
+    /**
+     * 상위 부서와의 관계를 끊어 부서를 가장 상위 부서로 만듭니다.
+     * */
+    public void detach(Department department) {
+        Department oldSup = department.getSuperior();
+        if (oldSup == null) return;
+
+        department.detach();
+        undoLog.push(() -> oldSup.add(department, HeadCountPolicy.UNLIMITED));
+        changed.add(department);
+    }
+
+    public void setAsRoot(Department department) {
+        if (department.isThisRoot()) return;
+
+        department.setAsRoot();
+        undoLog.push(department::unmarkRoot);
+        changed.add(department);
+    }
+
+    public void updateHeadcount(Department department, int headCount) {
+        int old = department.getHeadCount();
+        if (old == headCount) return;
+
+        policy.validateHeadCount(headCount);
+        department.updateHeadcount(headCount, HeadCountPolicy.UNLIMITED);
+        undoLog.push(() -> department.updateHeadcount(old, HeadCountPolicy.UNLIMITED));
+        changed.add(department);
+    }
+
+    /**
+     * 변경된 부서들이 속한 조직이 {@link HeadCountPolicy}의 제한을 넘으면 예외가 발생합니다.
+     * 총 인원수는 상위 부서로 갈수록 커지므로 부서마다 조직 전체와 가장 상위 부서 바로 아래의 하위 조직만 확인하면 됩니다.
+     * 다른 부서로 옮겨지면서 원래 조직에서 빠진 부서는 인원수가 줄었으므로 확인하지 않습니다.
+     * */
+    public void validate() {
+        for (Department department : changed) {
+            policy.validateChainOf(department);
+        }
+    }
+
+    public void rollback() {
+        while (!undoLog.isEmpty()) {
+            undoLog.pop().run();
+        }
+        changed.clear();
+    }
+
+    /**
+     * 관계나 인원수, 최상위 부서 여부가 바뀐 부서들을 상위 부서가 하위 부서보다 먼저 오도록 반환합니다.
+     * <p>
+     *     이 순서대로 다시 적용하면 바뀐 상위 부서는 이미 최종 위치에 있으므로, 중간 단계에서 순환하는 조직도가 생기지 않습니다.
+     * </p>
+     * */
+    public List<Department> changed() {
+        return topDown(changed);
+    }
+
+    public boolean isEmpty() {
+        return undoLog.isEmpty();
+    }
+
+    /**
+     * 부서들을 조직도의 깊이가 얕은 순서로 정렬해 반환합니다. 비용은 부서 수와 조직도의 깊이의 곱에 비례합니다.
+     * */
+    static List<Department> topDown(Collection<Department> changed) {
+        List<Department> departments = new ArrayList<>(changed);
+        Map<Department, Integer> levels = new IdentityHashMap<>();
+        for (Department department : departments) {
+            levels.put(department, levelOf(department));
+        }
+        departments.sort((a, b) -> Integer.compare(levels.get(a), levels.get(b)));
+        return Collections.unmodifiableList(departments);
+    }
+
+    private static int levelOf(Department department) {
+        int level = 0;
+        for (Department d = department.getSuperior(); d != null; d = d.getSuperior()) level++;
+        return level;
+    }
+}
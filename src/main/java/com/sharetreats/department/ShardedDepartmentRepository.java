@@ -0,0 +1,288 @@
+package com.sharetreats.department;
+
+import com.sharetreats.metrics.Counter;
+import com.sharetreats.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 여러 조직도를 한 프로세스에서 관리할 때, 부서들을 조직도나 테넌트 단위로 나눠 여러 샤드에 저장하는 저장소입니다.
+ * <p>
+ *     부서마다 샤드 키를 구하고, 키의 해시로 정해진 개수의 샤드 중 하나에 저장합니다. 기본 샤드 키는 부서가 속한 최상위 부서
+ *     (없으면 가장 상위 부서)의 이름이므로 한 조직도의 부서들은 모두 같은 샤드에 있고, {@link #byTenant(Function, int, MetricsRegistry)}로
+ *     테넌트 키를 직접 정할 수도 있습니다. 샤드마다 저장소, 읽기-쓰기 잠금, 지표를 따로 가지므로 서로 다른 샤드의 조직도에 대한
+ *     저장과 조회는 서로 기다리지 않습니다.
+ * </p>
+ * <p>
+ *     {@link DepartmentRepository}는 이름으로 부서를 찾으므로 부서 이름은 모든 샤드에 걸쳐 하나의 이름 공간을 씁니다. 이름으로 샤드를
+ *     찾는 색인은 {@link ConcurrentHashMap}이라 잠금 없이 조회됩니다.
+ * </p>
+ * <p>
+ *     관계 설정으로 다른 조직도에 합쳐지거나 최상위 부서가 바뀌어 저장하는 부서의 샤드가 바뀌면, 두 샤드를 순번 순서로 함께 잠그고
+ *     그 부서와 하위 조직 중 같은 샤드로 가야 하는 부서들을 옮깁니다. 샤드가 바뀌는 경우에만 하위 조직을 방문하므로 같은 조직도 안의
+ *     변경은 부서 한 개만 저장합니다. 지표는 조회 수({@code repository.shard.[순번].reads}), 저장과 삭제 수({@code .writes}),
+ *     다른 샤드로 옮겨 간 부서 수({@code .moves}) 카운터와 부서 수를 나타내는 {@code repository.shard.[순번]} 게이지로 기록합니다.
+ * </p>
+ * <p>
+ *     저장소는 부서의 이름과 객체만 관리하며, 부서 객체 자체의 변경은 서비스가 동기화합니다. {@link ShardedDepartmentService}는 변경하는
+ *     부서들이 저장된 샤드의 잠금을 잡고 변경하므로, 서로 다른 샤드의 조직도에 대한 변경도 동시에 처리됩니다.
+ * </p>
+ * */
+public class ShardedDepartmentRepository implements DepartmentRepository {
+
+    public static final int DEFAULT_SHARD_COUNT = 16;
+
+    private final Shard[] shards;
+    private final Function<Department, String> shardKey;
+    private final ConcurrentMap<String, Shard> directory = new ConcurrentHashMap<>();
+
+    private ShardedDepartmentRepository(Function<Department, String> shardKey, int shardCount, MetricsRegistry registry) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("샤드 수는 1 이상이어야 합니다.");
+        }
+
+        this.shardKey = shardKey;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, registry);
+        }
+        setup();
+    }
+
+    /**
+     * 부서가 속한 최상위 부서(없으면 가장 상위 부서)의 이름으로 샤드를 나눕니다.
+     * */
+    public static ShardedDepartmentRepository byTopDepartment() {
+        return byTopDepartment(DEFAULT_SHARD_COUNT, MetricsRegistry.global());
+    }
+
+    public static ShardedDepartmentRepository byTopDepartment(int shardCount, MetricsRegistry registry) {
+        return new ShardedDepartmentRepository(department -> department.top().getName(), shardCount, registry);
+    }
+
+    /**
+     * 주어진 함수가 반환하는 테넌트 키로 샤드를 나눕니다. 부서의 테넌트 키가 바뀌면 저장할 때 다른 샤드로 옮깁니다.
+     * {@link ShardedDepartmentService}와 함께 쓰려면 부서 이름처럼 관계 설정으로 바뀌지 않는 값을 키로 사용해야 합니다.
+     * <p>
+     *     e.g. {@code ShardedDepartmentRepository.byTenant(d -> d.getName().substring(0, 2), 8, registry)}
+     * </p>
+     * */
+    public static ShardedDepartmentRepository byTenant(Function<Department, String> tenantKey, int shardCount,
+                                                       MetricsRegistry registry) {
+        return new ShardedDepartmentRepository(tenantKey, shardCount, registry);
+    }
+
+    @Override
+    public Department save(Department department) {
+        String name = department.getName();
+        Shard target = shardOf(department);
+        Shard current = directory.get(name);
+
+        if (current == null || current == target) {
+            target.lock.writeLock().lock();
+            try {
+                target.departments.put(name, department);
+                target.writes.increment();
+                directory.put(name, target);
+            } finally {
+                target.lock.writeLock().unlock();
+            }
+            return department;
+        }
+
+        move(department, current, target);
+        return department;
+    }
+
+    @Override
+    public void delete(Department department) {
+        String name = department.getName();
+        Shard shard = directory.get(name);
+        if (shard == null) return;
+
+        shard.lock.writeLock().lock();
+        try {
+            if (shard.departments.remove(name, department)) {
+                shard.writes.increment();
+                directory.remove(name, shard);
+            }
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Department> findAll() {
+        List<Department> departments = new ArrayList<>(directory.size());
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                departments.addAll(shard.departments.values());
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        return departments;
+    }
+
+    /**
+     * 샤드를 하나씩 읽기 잠금을 잡고 복사해 이어 붙이므로, 모든 부서를 한 번에 복사하지 않고 가장 큰 샤드만큼만 복사합니다.
+     * */
+    @Override
+    public Stream<Department> stream() {
+        return Arrays.stream(shards).flatMap(Shard::copy);
+    }
+
+    /**
+     * 색인에서 찾은 샤드를 읽는 사이에 부서가 다른 샤드로 옮겨졌다면 색인을 다시 확인합니다.
+     * */
+    @Override
+    public Optional<Department> findBy(String name) {
+        while (true) {
+            Shard shard = directory.get(name);
+            if (shard == null) return Optional.empty();
+
+            Department department;
+            shard.lock.readLock().lock();
+            try {
+                department = shard.departments.get(name);
+                shard.reads.increment();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+
+            if (department != null || directory.get(name) == shard) return Optional.ofNullable(department);
+        }
+    }
+
+    /**
+     * 부서 이름이 저장된 샤드의 순번을 반환합니다. 저장되지 않은 부서이면 {@code -1}을 반환합니다.
+     * */
+    public int shardIndexOf(String name) {
+        Shard shard = directory.get(name);
+        return shard == null ? -1 : shard.index;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 부서를 지금 저장하면 들어갈 샤드의 순번을 반환합니다.
+     * */
+    int shardIndexFor(Department department) {
+        return shardOf(department).index;
+    }
+
+    /**
+     * 주어진 순번의 샤드들을 순번 순서로 쓰기 잠금합니다. 잠금을 잡은 스레드는 그 샤드들에 대한 저장, 삭제, 이동을 그대로 할 수 있습니다.
+     * */
+    void lockShards(BitSet indexes) {
+        for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+            shards[i].lock.writeLock().lock();
+        }
+    }
+
+    void unlockShards(BitSet indexes) {
+        for (int i = indexes.previousSetBit(shards.length - 1); i >= 0; i = indexes.previousSetBit(i - 1)) {
+            shards[i].lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 부서와 그 하위 조직 중 원래 샤드에 있고 새 샤드로 가야 하는 부서들을 옮깁니다. 두 샤드를 순번 순서로 잠그므로 반대 방향의
+     * 이동이 동시에 일어나도 교착 상태가 되지 않습니다. 옮겨지는 동안 다른 샤드는 잠그지 않습니다.
+     * */
+    private void move(Department department, Shard from, Shard to) {
+        Shard first = from.index < to.index ? from : to;
+        Shard second = first == from ? to : from;
+
+        first.lock.writeLock().lock();
+        second.lock.writeLock().lock();
+        try {
+            to.departments.put(department.getName(), department);
+            directory.put(department.getName(), to);
+            from.departments.remove(department.getName(), department);
+
+            int moved = 1;
+            Iterator<Department> it = Traversal.PRE_ORDER.iterator(department);
+            it.next();
+            while (it.hasNext()) {
+                Department d = it.next();
+                String name = d.getName();
+                if (directory.get(name) != from || shardOf(d) != to) continue;
+
+                to.departments.put(name, d);
+                directory.put(name, to);
+                from.departments.remove(name, d);
+                moved++;
+            }
+
+            from.writes.increment();
+            to.writes.increment();
+            from.moves.add(moved);
+        } finally {
+            second.lock.writeLock().unlock();
+            first.lock.writeLock().unlock();
+        }
+    }
+
+    private Shard shardOf(Department department) {
+        return shards[Math.floorMod(shardKey.apply(department).hashCode(), shards.length)];
+    }
+
+    private void setup() {
+        for (Department department : DepartmentRepositoryImpl.defaultOrganization()) {
+            save(department);
+        }
+    }
+
+    private static final class Shard {
+
+        private final int index;
+        private final Map<String, Department> departments = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Counter reads;
+        private final Counter writes;
+        private final Counter moves;
+
+        private Shard(int index, MetricsRegistry registry) {
+            String prefix = "repository.shard." + index;
+            this.index = index;
+            this.reads = registry.counter(prefix + ".reads");
+            this.writes = registry.counter(prefix + ".writes");
+            this.moves = registry.counter(prefix + ".moves");
+
+            registry.gauges(prefix, () -> {
+                lock.readLock().lock();
+                try {
+                    return Map.of("departments", (long) departments.size());
+                } finally {
+                    lock.readLock().unlock();
+                }
+            });
+        }
+
+        private Stream<Department> copy() {
+            lock.readLock().lock();
+            try {
+                return new ArrayList<>(departments.values()).stream();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sharetreats.department;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link ShardedDepartmentRepository}의 샤드 잠금으로 부서 객체의 변경을 동기화하는 서비스입니다.
+ * <p>
+ *     명령마다 대상 부서들과 그 상위 부서들이 저장된 샤드를 순번 순서로 쓰기 잠금한 뒤 다른 {@link DepartmentService}에 전달합니다.
+ *     최상위 부서로 샤드를 나누면 한 조직도는 한 샤드에 있으므로, 서로 다른 샤드의 조직도에 대한 등록, 관계 설정, 인원수 변경, 조회는
+ *     서로 기다리지 않고 동시에 처리됩니다. 다른 조직도의 부서를 하위 부서로 옮기는 관계 설정은 두 샤드를 함께 잠그고, 저장소가 그 하위
+ *     조직을 새 샤드로 옮깁니다. 조회도 가장 상위 부서의 캐시를 갱신하므로 같은 잠금을 잡습니다.
+ * </p>
+ * <p>
+ *     잠글 샤드는 잠그기 전에 한 번 구하고, 잠근 뒤 다시 구해 그 사이에 부서가 옮겨져 잠그지 않은 샤드가 필요해졌다면 잠금을 풀고
+ *     늘어난 샤드들로 다시 잠급니다. 상위 부서를 따라가다 잠그지 않은 샤드의 부서를 만나면 그 샤드를 추가하고 멈추므로, 잠그지 않은
+ *     부서 객체는 읽지 않습니다.
+ * </p>
+ * <p>
+ *     최상위 부서 설정, 삭제, 트랜잭션은 새로 가장 상위 부서가 되는 부서들이 옮겨 갈 샤드를 미리 알 수 없으므로 모든 샤드를 잠급니다.
+ *     트랜잭션은 커밋하거나 취소할 때까지 잠금을 잡고 있으므로 같은 스레드에서 끝내야 합니다.
+ * </p>
+ * */
+public class ShardedDepartmentService implements DepartmentService {
+
+    private final DepartmentService departmentService;
+    private final ShardedDepartmentRepository departmentRepository;
+    private final BitSet allShards = new BitSet();
+
+    public ShardedDepartmentService(DepartmentService departmentService, ShardedDepartmentRepository departmentRepository) {
+        this.departmentService = departmentService;
+        this.departmentRepository = departmentRepository;
+        allShards.set(0, departmentRepository.shardCount());
+    }
+
+    @Override
+    public String getDepartment(String name) {
+        return locked(locked -> chainsOf(locked, name), () -> departmentService.getDepartment(name));
+    }
+
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        return locked(locked -> chainsOf(locked, name), () -> departmentService.getSubtreeSummary(name));
+    }
+
+    @Override
+    public String post(Department department) {
+        return locked(locked -> targetsOf(List.of(department)), () -> departmentService.post(department));
+    }
+
+    @Override
+    public String postAll(List<Department> departments) {
+        return locked(locked -> targetsOf(departments), () -> departmentService.postAll(departments));
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        deleteAll(List.of(departmentName), mode);
+    }
+
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        return locked(locked -> allShards, () -> departmentService.deleteAll(departmentNames, mode));
+    }
+
+    @Override
+    public String update(Department department) {
+        return locked(locked -> chainsOf(locked, department.getName()), () -> departmentService.update(department));
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        if (superior.equals("*")) {
+            return locked(locked -> allShards, () -> departmentService.relate(superior, subordinate));
+        }
+        return locked(locked -> chainsOf(locked, superior, subordinate),
+                () -> departmentService.relate(superior, subordinate));
+    }
+
+    @Override
+    public DepartmentTransaction begin() {
+        departmentRepository.lockShards(allShards);
+        try {
+            return new PublishingTransaction(departmentService.begin(), departmentRepository,
+                    changed -> departmentRepository.unlockShards(allShards));
+        } catch (RuntimeException e) {
+            departmentRepository.unlockShards(allShards);
+            throw e;
+        }
+    }
+
+    /**
+     * {@code shards}가 반환하는 샤드들을 잠그고 {@code action}을 실행합니다. {@code shards}는 지금 잠근 샤드들을 받아 필요한 샤드들을
+     * 반환하며, 잠근 뒤에 다시 구한 샤드가 모두 잠겨 있을 때까지 반복합니다.
+     * */
+    private <T> T locked(Function<BitSet, BitSet> shards, Supplier<T> action) {
+        BitSet locked = (BitSet) shards.apply(new BitSet()).clone();
+
+        while (true) {
+            departmentRepository.lockShards(locked);
+            BitSet missing;
+            try {
+                missing = (BitSet) shards.apply(locked).clone();
+            } catch (RuntimeException e) {
+                departmentRepository.unlockShards(locked);
+                throw e;
+            }
+
+            missing.andNot(locked);
+            if (missing.isEmpty()) break;
+
+            departmentRepository.unlockShards(locked);
+            locked.or(missing);
+        }
+
+        try {
+            return action.get();
+        } finally {
+            departmentRepository.unlockShards(locked);
+        }
+    }
+
+    /**
+     * 부서들과, 잠긴 샤드에 있는 부서부터 시작해 그 상위 부서들이 저장된 샤드를 반환합니다. 잠기지 않은 샤드의 부서를 만나면
+     * 그 샤드를 추가하고 더 올라가지 않습니다.
+     * */
+    private BitSet chainsOf(BitSet locked, String... names) {
+        BitSet shards = new BitSet();
+
+        for (String name : names) {
+            int index = departmentRepository.shardIndexOf(name);
+            if (index < 0) continue;
+
+            shards.set(index);
+            if (!locked.get(index)) continue;
+
+            Department department = departmentRepository.findBy(name).orElse(null);
+            for (Department d = department == null ? null : department.getSuperior(); d != null; d = d.getSuperior()) {
+                index = departmentRepository.shardIndexOf(d.getName());
+                if (index < 0) break;
+
+                shards.set(index);
+                if (!locked.get(index)) break;
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * 새로 등록할 부서들이 들어갈 샤드와, 같은 이름의 부서가 이미 있다면 그 부서의 샤드를 반환합니다.
+     * */
+    private BitSet targetsOf(List<Department> departments) {
+        BitSet shards = new BitSet();
+
+        for (Department department : departments) {
+            shards.set(departmentRepository.shardIndexFor(department));
+            int index = departmentRepository.shardIndexOf(department.getName());
+            if (index >= 0) shards.set(index);
+        }
+        return shards;
+    }
+}
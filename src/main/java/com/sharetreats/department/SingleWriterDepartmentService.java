@@ -0,0 +1,394 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 하나의 쓰기 스레드가 모든 변경을 순서대로 처리하고, 조회는 여러 스레드에서 동시에 처리하는 서비스입니다.
+ * <p>
+ *     등록, 관계 설정, 인원수 변경, 삭제는 크기가 정해진 큐에 넣고, 쓰기 스레드가 큐에 쌓인 변경을 한 번에 꺼내 다른
+ *     {@link DepartmentService}에 차례로 적용합니다. 부서 객체는 쓰기 스레드만 변경하므로 잠금이 필요 없고, 변경은 큐에 들어온
+ *     순서대로 적용됩니다. 큐가 가득 차면 변경을 요청한 스레드가 기다립니다.
+ * </p>
+ * <p>
+ *     쓰기 스레드는 꺼낸 변경을 모두 적용한 뒤 변경된 부서들을 반영한 {@link OrgChartSnapshot}을 한 번만 게시하고, 그 다음에
+ *     요청한 스레드들에게 결과를 알립니다. 따라서 변경의 결과를 받은 스레드는 이후의 조회에서 항상 그 변경을 볼 수 있습니다.
+ *     조회는 게시된 스냅샷에서 처리하며, {@link #getDepartmentAsync(String)}는 JDK 21 이상에서는 가상 스레드에서,
+ *     그 외에는 스레드 풀에서 실행됩니다.
+ * </p>
+ * <p>
+ *     트랜잭션의 명령은 요청한 스레드에 모아 두었다가 커밋할 때 변경 하나로 큐에 넣습니다. 쓰기 스레드는 다른 변경을 끼워 넣지 않고
+ *     모든 명령을 적용하며, 스냅샷도 커밋이 끝난 뒤 한 번만 게시합니다. 따라서 트랜잭션은 사용자마다 따로 열 수 있고, 커밋 전의
+ *     명령은 다른 사용자의 조회나 변경에 영향을 주지 않습니다.
+ * </p>
+ * <p>
+ *     첫 스냅샷은 만들 때가 아니라 쓰기 스레드가 첫 변경을 처리하기 전에 저장소의 부서들로 만듭니다. 그 전에 조회하면 빈 변경을
+ *     넣어 스냅샷이 게시되기를 기다리므로, 처음 접근할 때 조직도를 불러오는 저장소도 필요할 때까지 불러오지 않습니다.
+ * </p>
+ * */
+public class SingleWriterDepartmentService implements DepartmentService, Closeable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final Mutation STOP = new Mutation(() -> null);
+
+    private final DepartmentService departmentService;
+    private final DepartmentRepository departmentRepository;
+    private final BlockingQueue<Mutation> queue;
+    private final ExecutorService readers;
+    private final Thread writer;
+    private volatile OrgChartSnapshot snapshot;
+    private volatile boolean closed;
+
+    /** 쓰기 스레드만 사용하는, 게시되기 전의 스냅샷 */
+    private OrgChartSnapshot pending;
+
+    public SingleWriterDepartmentService(DepartmentService departmentService, DepartmentRepository departmentRepository) {
+        this(departmentService, departmentRepository, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public SingleWriterDepartmentService(DepartmentService departmentService, DepartmentRepository departmentRepository,
+                                         int queueCapacity) {
+        this.departmentService = departmentService;
+        this.departmentRepository = departmentRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.readers = newReaderExecutor();
+        this.writer = new Thread(this::drainLoop, "department-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public OrgChartSnapshot snapshot() {
+        OrgChartSnapshot current = snapshot;
+        if (current != null) return current;
+
+        join(submit(() -> null));
+        return snapshot;
+    }
+
+    @Override
+    public String getDepartment(String name) {
+        return snapshot().relationToString(name);
+    }
+
+    public CompletableFuture<String> getDepartmentAsync(String name) {
+        return CompletableFuture.supplyAsync(() -> getDepartment(name), readers);
+    }
+
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        return snapshot().subtreeSummaryOf(name);
+    }
+
+    @Override
+    public String post(Department department) {
+        return join(postAsync(department));
+    }
+
+    public CompletableFuture<String> postAsync(Department department) {
+        return submit(() -> {
+            String result = departmentService.post(department);
+            pending = pending.withChainOf(department);
+            return result;
+        });
+    }
+
+    @Override
+    public String postAll(List<Department> departments) {
+        return join(submit(() -> {
+            String result = departmentService.postAll(departments);
+            pending = pending.withAll(departments);
+            return result;
+        }));
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        deleteAll(List.of(departmentName), mode);
+    }
+
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        return join(submit(() -> {
+            PublishingDeletion deletion = PublishingDeletion.of(departmentRepository, departmentNames, mode);
+            try {
+                return departmentService.deleteAll(departmentNames, mode);
+            } finally {
+                pending = deletion.applyTo(pending);
+            }
+        }));
+    }
+
+    @Override
+    public String update(Department department) {
+        return join(updateAsync(department));
+    }
+
+    public CompletableFuture<String> updateAsync(Department department) {
+        return submit(() -> {
+            Department target = departmentRepository.findBy(department.getName()).orElse(null);
+            try {
+                return departmentService.update(department);
+            } finally {
+                publishChainOf(target);
+            }
+        });
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        return join(relateAsync(superior, subordinate));
+    }
+
+    public CompletableFuture<String> relateAsync(String superior, String subordinate) {
+        return submit(() -> {
+            // 이동하기 전의 상위 부서들도 인원수가 바뀌므로 함께 게시
+            Department sub = departmentRepository.findBy(subordinate).orElse(null);
+            Department oldSuperior = sub == null ? null : sub.getSuperior();
+            try {
+                return departmentService.relate(superior, subordinate);
+            } finally {
+                publishChainOf(oldSuperior);
+                publishChainOf(sub);
+            }
+        });
+    }
+
+    @Override
+    public DepartmentTransaction begin() {
+        return new BufferedTransaction();
+    }
+
+    /**
+     * 더 이상 변경을 받지 않고, 큐에 남은 변경을 모두 적용한 뒤 쓰기 스레드를 종료합니다.
+     * */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        try {
+            queue.put(STOP);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectRemaining();
+        readers.shutdown();
+    }
+
+    private CompletableFuture<String> submit(Supplier<String> action) {
+        if (closed) {
+            throw new RejectedExecutionException("서비스가 종료되었습니다.");
+        }
+
+        Mutation mutation = new Mutation(action);
+        try {
+            queue.put(mutation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+
+        // 종료되는 도중에 들어온 변경은 쓰기 스레드가 처리하지 않으므로 실패로 알림
+        if (closed && !writer.isAlive()) rejectRemaining();
+        return mutation.future;
+    }
+
+    private void drainLoop() {
+        List<Mutation> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        boolean stopping = false;
+
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+            if (!loadSnapshot(batch)) {
+                stopping = batch.contains(STOP);
+                batch.clear();
+                continue;
+            }
+
+            for (Mutation mutation : batch) {
+                if (mutation == STOP) stopping = true;
+                else mutation.apply();
+            }
+
+            snapshot = pending;
+            for (Mutation mutation : batch) {
+                mutation.complete();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 첫 변경을 처리하기 전에 저장소의 부서들로 첫 스냅샷을 만듭니다. 저장소를 불러오지 못하면 꺼낸 변경을 모두 그 예외로 실패시키고,
+     * 다음 변경 때 다시 시도합니다.
+     * */
+    private boolean loadSnapshot(List<Mutation> batch) {
+        if (pending != null) return true;
+
+        try {
+            pending = OrgChartSnapshot.empty().withAll(departmentRepository.findAll());
+            return true;
+        } catch (RuntimeException e) {
+            for (Mutation mutation : batch) {
+                if (mutation != STOP) mutation.future.completeExceptionally(e);
+            }
+            return false;
+        }
+    }
+
+    private void rejectRemaining() {
+        Mutation mutation;
+        while ((mutation = queue.poll()) != null) {
+            mutation.future.completeExceptionally(new RejectedExecutionException("서비스가 종료되었습니다."));
+        }
+    }
+
+    private void publishChainOf(Department department) {
+        if (department != null) pending = pending.withChainOf(department);
+    }
+
+    /**
+     * 비동기 결과를 기다리고, 변경 중에 발생한 예외는 감싸지 않고 그대로 던집니다.
+     * */
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * JDK 21 이상이면 작업마다 가상 스레드를 만드는 실행기를, 그 외에는 필요한 만큼 스레드를 만드는 스레드 풀을 반환합니다.
+     * 기본 빌드 대상이 Java 11 이므로 리플렉션으로 찾습니다.
+     * */
+    private static ExecutorService newReaderExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "department-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 명령을 모아 두었다가 커밋할 때 쓰기 스레드에서 다른 서비스의 트랜잭션으로 한 번에 적용하는 트랜잭션입니다.
+     * <p>
+     *     명령의 결과는 커밋할 때 정해지므로 명령마다 입력받은 내용만 반환합니다. 적용하다가 실패한 명령이 있으면 그 전의 명령도
+     *     모두 취소되고, 커밋이 그 명령의 예외로 실패합니다.
+     * </p>
+     * */
+    private final class BufferedTransaction implements DepartmentTransaction {
+
+        private final List<Function<DepartmentTransaction, String>> commands = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public String post(Department department) {
+            ensureOpen();
+            commands.add(transaction -> transaction.post(department));
+            return department.toString();
+        }
+
+        @Override
+        public String update(Department department) {
+            ensureOpen();
+            commands.add(transaction -> transaction.update(department));
+            return department.toString();
+        }
+
+        @Override
+        public String relate(String superior, String subordinate) {
+            ensureOpen();
+            commands.add(transaction -> transaction.relate(superior, subordinate));
+            return "상위부서: [ " + superior + " ], 하위부서: [ " + subordinate + " ] 관계는 커밋할 때 설정됩니다.";
+        }
+
+        @Override
+        public String commit() {
+            ensureOpen();
+            closed = true;
+
+            return join(submit(() -> {
+                DepartmentTransaction transaction = new PublishingTransaction(departmentService.begin(),
+                        departmentRepository, changed -> changed.forEach(SingleWriterDepartmentService.this::publishChainOf));
+                try {
+                    for (Function<DepartmentTransaction, String> command : commands) {
+                        command.apply(transaction);
+                    }
+                } catch (RuntimeException e) {
+                    transaction.rollback();
+                    throw e;
+                }
+                return transaction.commit();
+            }));
+        }
+
+        @Override
+        public void rollback() {
+            closed = true;
+            commands.clear();
+        }
+
+        private void ensureOpen() {
+            if (closed) throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_TRANSACTION);
+        }
+    }
+
+    private static final class Mutation {
+
+        private final Supplier<String> action;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+        private String result;
+        private Throwable failure;
+
+        private Mutation(Supplier<String> action) {
+            this.action = action;
+        }
+
+        /**
+         * {@link StackOverflowError}처럼 {@link Error}가 발생해도 쓰기 스레드가 끝나면 이후의 모든 변경이 기다리기만 하므로,
+         * 모든 예외를 이 변경의 실패로 알립니다.
+         * */
+        private void apply() {
+            try {
+                result = action.get();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        private void complete() {
+            if (failure != null) future.completeExceptionally(failure);
+            else future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.sharetreats.department;
+
+/**
+ * 한 부서와 그 모든 하위 부서로 이루어진 하위 조직의 집계 값을 담는 불변 객체입니다.
+ * <p>
+ *     {@link Department}가 총 인원수와 함께 유지하고 있는 값을 그대로 옮겨 담으므로, 만드는 데 하위 부서를 방문하지 않습니다.
+ * </p>
+ * */
+public final class SubtreeSummary {
+
+    private final String name;
+    private final int combinedHeadCount;
+    private final int descendantCount;
+    private final int depth;
+    private final int maxHeadCount;
+
+    private SubtreeSummary(String name, int combinedHeadCount, int descendantCount, int depth, int maxHeadCount) {
+        this.name = name;
+        this.combinedHeadCount = combinedHeadCount;
+        this.descendantCount = descendantCount;
+        this.depth = depth;
+        this.maxHeadCount = maxHeadCount;
+    }
+
+    public static SubtreeSummary of(String name, int combinedHeadCount, int descendantCount, int depth, int maxHeadCount) {
+        return new SubtreeSummary(name, combinedHeadCount, descendantCount, depth, maxHeadCount);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 현재 부서와 모든 하위 부서의 인원수 합
+     * */
+    public int getCombinedHeadCount() {
+        return combinedHeadCount;
+    }
+
+    /**
+     * 현재 부서를 제외한 모든 하위 부서의 수
+     * */
+    public int getDescendantCount() {
+        return descendantCount;
+    }
+
+    /**
+     * 현재 부서에서 가장 깊은 하위 부서까지의 단계 수. 하위 부서가 없으면 0입니다.
+     * */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * 현재 부서와 모든 하위 부서 중 가장 많은 인원수
+     * */
+    public int getMaxHeadCount() {
+        return maxHeadCount;
+    }
+
+    public String toString() {
+        return "현재부서: [ " + name + " ], " +
+                "총 인원: [ " + combinedHeadCount + " ], " +
+                "하위 부서 수: [ " + descendantCount + " ], " +
+                "하위 조직 깊이: [ " + depth + " ], " +
+                "최대 인원: [ " + maxHeadCount + " ]";
+    }
+}
@@ -0,0 +1,182 @@
+package com.sharetreats.department;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 한 부서와 그 모든 하위 부서를 차례로 방문하는 순서입니다.
+ * <p>
+ *     재귀 호출 대신 직접 관리하는 스택과 큐로 순회하므로 조직도가 아무리 깊어도 호출 스택이 넘치지 않고, 방문할 부서를 미리
+ *     목록으로 만들지 않습니다. 전위와 후위 순회는 조직도의 깊이만큼, 너비 우선 순회는 한 깊이에 있는 부서 수만큼의 메모리를 씁니다.
+ * </p>
+ * <p>
+ *     방문할 부서 수는 {@link Department#getDescendantCount()}로 미리 알 수 있으므로 {@link #spliterator(Department)}는
+ *     크기를 알려 줍니다. 순회하는 동안 조직도가 바뀌면 결과는 정의되지 않으므로, 여러 스레드에서 사용할 때는 변경과 함께 잠가야 합니다.
+ * </p>
+ * */
+public enum Traversal {
+
+    /** 상위 부서를 하위 부서들보다 먼저 방문합니다. */
+    PRE_ORDER {
+        @Override
+        public Iterator<Department> iterator(Department from) {
+            return new PreOrder(from);
+        }
+    },
+    /** 하위 부서들을 모두 방문한 뒤 상위 부서를 방문합니다. */
+    POST_ORDER {
+        @Override
+        public Iterator<Department> iterator(Department from) {
+            return new PostOrder(from);
+        }
+    },
+    /** 깊이가 얕은 부서부터 같은 깊이의 부서들을 차례로 방문합니다. */
+    LEVEL_ORDER {
+        @Override
+        public Iterator<Department> iterator(Department from) {
+            return new LevelOrder(from);
+        }
+    };
+
+    public abstract Iterator<Department> iterator(Department from);
+
+    /**
+     * 주어진 부서들마다 그 하위 조직을 이 순서로 차례로 방문합니다. 다음 부서의 순회는 앞 부서의 순회가 끝난 뒤에 시작하므로
+     * 한 부서의 순회에 필요한 메모리만 사용합니다.
+     * */
+    public Iterator<Department> iterator(Iterator<Department> froms) {
+        return new Chained(this, froms);
+    }
+
+    public Spliterator<Department> spliterator(Department from) {
+        return Spliterators.spliterator(iterator(from), from.getDescendantCount() + 1L,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    public Stream<Department> stream(Department from) {
+        return StreamSupport.stream(spliterator(from), false);
+    }
+
+    private static final class Chained implements Iterator<Department> {
+
+        private final Traversal traversal;
+        private final Iterator<Department> froms;
+        private Iterator<Department> current = Collections.emptyIterator();
+
+        private Chained(Traversal traversal, Iterator<Department> froms) {
+            this.traversal = traversal;
+            this.froms = froms;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (!froms.hasNext()) return false;
+                current = traversal.iterator(froms.next());
+            }
+            return true;
+        }
+
+        @Override
+        public Department next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+    }
+
+    private static final class PreOrder implements Iterator<Department> {
+
+        private final Deque<Iterator<Department>> stack = new ArrayDeque<>();
+        private Department next;
+
+        private PreOrder(Department from) {
+            this.next = from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Department next() {
+            Department current = next;
+            if (current == null) throw new NoSuchElementException();
+
+            if (!current.getSubordinates().isEmpty()) stack.push(current.getSubordinates().iterator());
+            next = advance();
+            return current;
+        }
+
+        private Department advance() {
+            while (!stack.isEmpty()) {
+                Iterator<Department> subordinates = stack.peek();
+                if (subordinates.hasNext()) return subordinates.next();
+                stack.pop();
+            }
+            return null;
+        }
+    }
+
+    private static final class PostOrder implements Iterator<Department> {
+
+        private final Deque<Department> departments = new ArrayDeque<>();
+        private final Deque<Iterator<Department>> subordinates = new ArrayDeque<>();
+
+        private PostOrder(Department from) {
+            push(from);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !departments.isEmpty();
+        }
+
+        @Override
+        public Department next() {
+            if (departments.isEmpty()) throw new NoSuchElementException();
+
+            // 하위 부서가 남아 있으면 더 내려가고, 모두 방문했으면 현재 부서를 반환
+            while (subordinates.peek().hasNext()) {
+                push(subordinates.peek().next());
+            }
+            subordinates.pop();
+            return departments.pop();
+        }
+
+        private void push(Department department) {
+            departments.push(department);
+            subordinates.push(department.getSubordinates().iterator());
+        }
+    }
+
+    private static final class LevelOrder implements Iterator<Department> {
+
+        private final Deque<Department> queue = new ArrayDeque<>();
+
+        private LevelOrder(Department from) {
+            queue.add(from);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public Department next() {
+            Department current = queue.poll();
+            if (current == null) throw new NoSuchElementException();
+
+            queue.addAll(current.getSubordinates());
+            return current;
+        }
+    }
+}
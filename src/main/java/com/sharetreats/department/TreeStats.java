@@ -0,0 +1,96 @@
+package com.sharetreats.department;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 조직도의 모양을 요약한 통계입니다. 가장 상위의 부서들부터 너비 우선으로 한 번 순회하여 계산합니다.
+ * <ul>
+ *     <li>{@code departments}: 부서 수</li>
+ *     <li>{@code trees}: 상위 부서가 없는 부서의 수, 즉 서로 떨어진 조직의 수</li>
+ *     <li>{@code depth.max}: 가장 깊은 부서의 깊이. 상위 부서가 없는 부서의 깊이가 1입니다.</li>
+ *     <li>{@code width.max}: 한 조직에서 같은 깊이에 있는 부서 수의 최댓값</li>
+ *     <li>{@code subordinates.max}: 한 부서가 가진 하위 부서 수의 최댓값</li>
+ * </ul>
+ * */
+public final class TreeStats {
+
+    private final long departments;
+    private final long trees;
+    private final long maxDepth;
+    private final long maxWidth;
+    private final long maxSubordinates;
+
+    private TreeStats(long departments, long trees, long maxDepth, long maxWidth, long maxSubordinates) {
+        this.departments = departments;
+        this.trees = trees;
+        this.maxDepth = maxDepth;
+        this.maxWidth = maxWidth;
+        this.maxSubordinates = maxSubordinates;
+    }
+
+    public static TreeStats of(Collection<Department> all) {
+        long trees = 0;
+        long maxDepth = 0;
+        long maxWidth = 0;
+        long maxSubordinates = 0;
+
+        Deque<Department> level = new ArrayDeque<>();
+        List<Department> next = new ArrayList<>();
+
+        for (Department top : all) {
+            if (top.getSuperior() != null) continue;
+            trees++;
+
+            level.add(top);
+            for (long depth = 1; !level.isEmpty(); depth++) {
+                maxDepth = Math.max(maxDepth, depth);
+                maxWidth = Math.max(maxWidth, level.size());
+
+                for (Department department : level) {
+                    maxSubordinates = Math.max(maxSubordinates, department.getSubordinates().size());
+                    next.addAll(department.getSubordinates());
+                }
+                level.clear();
+                level.addAll(next);
+                next.clear();
+            }
+        }
+        return new TreeStats(all.size(), trees, maxDepth, maxWidth, maxSubordinates);
+    }
+
+    public long getDepartments() {
+        return departments;
+    }
+
+    public long getTrees() {
+        return trees;
+    }
+
+    public long getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMaxWidth() {
+        return maxWidth;
+    }
+
+    public long getMaxSubordinates() {
+        return maxSubordinates;
+    }
+
+    public Map<String, Long> toMap() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("departments", departments);
+        values.put("trees", trees);
+        values.put("depth.max", maxDepth);
+        values.put("width.max", maxWidth);
+        values.put("subordinates.max", maxSubordinates);
+        return values;
+    }
+}
@@ -1,5 +1,11 @@
 package com.sharetreats.exception;
 
+import com.sharetreats.metrics.MetricsRegistry;
+
+/**
+ * 애플리케이션에서 발생하는 예외입니다. 예외가 만들어질 때마다 {@link MetricsRegistry#global()}의
+ * {@code exception.[예외 코드]} 카운터를 하나씩 올립니다.
+ * */
 public class CustomRuntimeException extends RuntimeException {
 
     private final CustomRuntimeExceptionCode customRuntimeExceptionCode;
@@ -7,15 +13,26 @@ public class CustomRuntimeException extends RuntimeException {
     public CustomRuntimeException(CustomRuntimeExceptionCode customRuntimeExceptionCode) {
         super(customRuntimeExceptionCode.getMessage());
         this.customRuntimeExceptionCode = customRuntimeExceptionCode;
+        count(customRuntimeExceptionCode);
     }
 
     public CustomRuntimeException(Throwable throwable, CustomRuntimeExceptionCode customRuntimeExceptionCode) {
         super(throwable);
         this.customRuntimeExceptionCode = customRuntimeExceptionCode;
+        count(customRuntimeExceptionCode);
     }
 
 
     public String getMessage() {
         return customRuntimeExceptionCode.getMessage();
     }
-}
+
+    public CustomRuntimeExceptionCode getCode() {
+        return customRuntimeExceptionCode;
+    }
+
+    private static void count(CustomRuntimeExceptionCode code) {
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (registry.isEnabled()) registry.counter("exception." + code.name()).increment();
+    }
+}
\ No newline at end of file
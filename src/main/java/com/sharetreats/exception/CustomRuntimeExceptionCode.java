@@ -8,11 +8,17 @@ public enum CustomRuntimeExceptionCode {
     ROOT_IS_ALREADY_SET("이미 최상위 부서가 있는 부서입니다. "),
     NO_SUPERIOR_IS_SET("상위 부서 또는 최상위 부서가 설정되어 있지 않습니다"),
     NO_SUCH_DEPARTMENT("존재하지 않는 부서입니다. 부서명을 확인해주세요."),
+    CYCLIC_RELATION("부서 자신이나 그 하위 부서를 상위 부서로 설정할 수 없습니다."),
 
     NOT_VALID_NAME("부서 이름은 영어 대문자만 입력가능합니다."),
     NOT_VALID_HEADCOUNT("부서 인원은 0 이상 1000이하의 정수여야 합니다."),
 
     NOT_VALID_COMMAND("명령어 입력이 잘못되었습니다. 매뉴얼을 확인해주세요."),
+    COMMAND_FAILED("명령을 처리하지 못했습니다."),
+
+    TRANSACTION_NOT_SUPPORTED("트랜잭션을 지원하지 않는 서비스입니다."),
+    TRANSACTION_ALREADY_STARTED("이미 진행 중인 트랜잭션이 있습니다. COMMIT 또는 ROLLBACK 후 시작해주세요."),
+    NO_TRANSACTION("진행 중인 트랜잭션이 없습니다. BEGIN으로 시작해주세요."),
     ;
 
     final String message;
@@ -0,0 +1,29 @@
+package com.sharetreats.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 스레드에서 동시에 더해도 경합이 적은 {@link LongAdder} 기반의 카운터입니다.
+ * 카운터를 만든 {@link MetricsRegistry}가 꺼져 있으면 아무것도 기록하지 않습니다.
+ * */
+public final class Counter {
+
+    private final MetricsRegistry registry;
+    private final LongAdder adder = new LongAdder();
+
+    Counter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void increment() {
+        if (registry.isEnabled()) adder.increment();
+    }
+
+    public void add(long value) {
+        if (registry.isEnabled()) adder.add(value);
+    }
+
+    public long get() {
+        return adder.sum();
+    }
+}
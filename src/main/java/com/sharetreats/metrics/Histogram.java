@@ -0,0 +1,89 @@
+package com.sharetreats.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 0 이상의 값의 분포를 기록하는 히스토그램입니다. 지연 시간(나노초)이나 방문한 부서 수를 기록합니다.
+ * <p>
+ *     HdrHistogram처럼 값의 크기를 2의 거듭제곱 단위로 나누고, 각 단위를 다시 {@value #SUB_BUCKETS}개로 나누어 셉니다.
+ *     {@value #SUB_BUCKETS} 미만의 값은 정확히 세고, 그 이상의 값은 상대 오차 1/{@value #SUB_BUCKETS} 이내로 기록됩니다.
+ *     구간마다 {@link LongAdder}로 세므로 여러 스레드가 같은 구간에 기록해도 한 칸을 두고 경쟁하지 않으며, 경쟁이 생긴 구간에
+ *     스레드별 칸을 처음 만들 때 외에는 메모리를 새로 할당하지 않습니다. 히스토그램을 만든 {@link MetricsRegistry}가 꺼져 있으면
+ *     아무것도 기록하지 않습니다.
+ * </p>
+ * */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final MetricsRegistry registry;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram(MetricsRegistry registry) {
+        this.registry = registry;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        if (!registry.isEnabled()) return;
+
+        long v = Math.max(0, value);
+        buckets[indexOf(v)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * 주어진 백분위(0~100)에 해당하는 값을 반환합니다. 값이 속한 구간의 하한이므로 실제 값보다 최대 1/8 작을 수 있습니다.
+     * */
+    public long percentile(double percentile) {
+        long n = count.sum();
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) return lowerBoundOf(i);
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+}
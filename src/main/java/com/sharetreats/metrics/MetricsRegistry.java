@@ -0,0 +1,109 @@
+package com.sharetreats.metrics;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 이름으로 카운터, 히스토그램, 게이지를 관리하는 저장소입니다.
+ * <p>
+ *     부서 객체처럼 저장소를 전달받기 어려운 곳은 {@link #global()}을 사용하고, 서비스마다 따로 집계하려면 저장소를 새로 만들어
+ *     전달합니다. 같은 이름으로 다시 요청하면 같은 카운터나 히스토그램을 반환하므로, 자주 호출되는 곳에서는 필드에 저장해 두고 사용합니다.
+ * </p>
+ * <p>
+ *     저장소를 끄면 카운터와 히스토그램은 {@code volatile} 필드 하나만 읽고 돌아가므로 기록 비용이 거의 없습니다.
+ *     전역 저장소는 {@code -Dsharetreats.metrics=false}로 꺼진 상태로 시작할 수 있습니다.
+ * </p>
+ * */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry(!"false".equals(System.getProperty("sharetreats.metrics")));
+
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, Supplier<Map<String, Long>>> gauges = new ConcurrentSkipListMap<>();
+    private volatile boolean enabled;
+
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter(this));
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram(this));
+    }
+
+    /**
+     * 보고서를 만들 때마다 호출되어 현재 값을 계산하는 게이지들을 등록합니다. 여러 값을 한 번의 계산으로 얻을 수 있도록
+     * 이름과 값의 목록을 반환하며, 각 값은 {@code prefix.이름}으로 표시됩니다.
+     * */
+    public void gauges(String prefix, Supplier<Map<String, Long>> supplier) {
+        gauges.put(prefix, supplier);
+    }
+
+    /**
+     * 모든 값을 이름 순으로 한 줄에 하나씩 나열합니다. 히스토그램은 개수, 평균, 50/99 백분위, 최댓값을 표시합니다.
+     * */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+
+        counters.forEach((name, counter) -> line(sb, name).append(counter.get()));
+        histograms.forEach((name, histogram) -> line(sb, name)
+                .append("count=").append(histogram.getCount())
+                .append(" mean=").append(Math.round(histogram.getMean()))
+                .append(" p50=").append(histogram.percentile(50))
+                .append(" p99=").append(histogram.percentile(99))
+                .append(" max=").append(histogram.getMax()));
+        gauges.forEach((prefix, supplier) ->
+                supplier.get().forEach((name, value) -> line(sb, prefix + "." + name).append(value)));
+
+        if (sb.length() == 0) sb.append("기록된 지표가 없습니다.");
+        return sb.toString();
+    }
+
+    /**
+     * 주기적으로 {@link #report()}를 {@code sink}에 전달합니다. 반환된 객체를 닫으면 멈춥니다.
+     * 보고서를 만들거나 전달하다가 예외가 발생하면 예외를 {@code sink}에 전달하고 다음 주기에 다시 시도합니다.
+     * */
+    public Closeable startDump(long period, TimeUnit unit, Consumer<String> sink) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 예외가 작업 밖으로 나가면 이후의 주기가 모두 취소되므로 작업 안에서 처리
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                sink.accept(report());
+            } catch (RuntimeException e) {
+                sink.accept("지표를 기록하지 못했습니다. " + e);
+            }
+        }, period, period, unit);
+        return scheduler::shutdownNow;
+    }
+
+    private static StringBuilder line(StringBuilder sb, String name) {
+        if (sb.length() > 0) sb.append('\n');
+        return sb.append(name).append(' ');
+    }
+}
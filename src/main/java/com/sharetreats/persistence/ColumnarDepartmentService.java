@@ -0,0 +1,86 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.DeleteMode;
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentService;
+import com.sharetreats.department.DepartmentTransaction;
+import com.sharetreats.department.SubtreeSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link ColumnarOrgChart} 파일로 시작한 조직도를 첫 변경 전까지 매핑된 파일에서 조회하는 서비스입니다.
+ * <p>
+ *     부서 조회는 파일의 이름 검색과 저장된 총 인원수 열로 처리하므로 부서 객체를 만들지 않습니다. 등록, 관계 설정, 인원수 변경,
+ *     삭제나 트랜잭션이 한 번이라도 시작되면 그때부터는 모든 요청을 다른 {@link DepartmentService}에 전달하며, 그 서비스의 저장소가
+ *     {@link ColumnarOrgChart#toDepartments()}로 부서 객체를 만듭니다. 하위 조직 요약은 파일에 저장되지 않으므로 항상 전달합니다.
+ * </p>
+ * <p>
+ *     다른 서비스의 저장소는 파일과 같은 조직도로 시작해야 하며, 변경은 모두 이 서비스를 거쳐야 합니다.
+ * </p>
+ * */
+public class ColumnarDepartmentService implements DepartmentService {
+
+    private final ColumnarOrgChart chart;
+    private final DepartmentService departmentService;
+    private volatile boolean changed;
+
+    public ColumnarDepartmentService(ColumnarOrgChart chart, DepartmentService departmentService) {
+        this.chart = chart;
+        this.departmentService = departmentService;
+    }
+
+    @Override
+    public String getDepartment(String name) {
+        if (!changed) return chart.relationToString(name);
+        return departmentService.getDepartment(name);
+    }
+
+    @Override
+    public SubtreeSummary getSubtreeSummary(String name) {
+        return departmentService.getSubtreeSummary(name);
+    }
+
+    @Override
+    public String post(Department department) {
+        changed = true;
+        return departmentService.post(department);
+    }
+
+    @Override
+    public String postAll(List<Department> departments) {
+        changed = true;
+        return departmentService.postAll(departments);
+    }
+
+    @Override
+    public void delete(String departmentName, DeleteMode mode) {
+        changed = true;
+        departmentService.delete(departmentName, mode);
+    }
+
+    @Override
+    public String deleteAll(Collection<String> departmentNames, DeleteMode mode) {
+        changed = true;
+        return departmentService.deleteAll(departmentNames, mode);
+    }
+
+    @Override
+    public String update(Department department) {
+        changed = true;
+        return departmentService.update(department);
+    }
+
+    @Override
+    public String relate(String superior, String subordinate) {
+        changed = true;
+        return departmentService.relate(superior, subordinate);
+    }
+
+    @Override
+    public DepartmentTransaction begin() {
+        changed = true;
+        return departmentService.begin();
+    }
+}
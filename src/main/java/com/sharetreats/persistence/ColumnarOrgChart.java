@@ -0,0 +1,236 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.Department;
+import com.sharetreats.department.OrgChartBuilder;
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 조직도 전체를 열(column) 단위로 저장하는 바이너리 파일입니다.
+ * <p>
+ *     부서마다 레코드를 두지 않고, 같은 종류의 값을 배열로 모아 저장합니다. 부서는 파일 안에서의 순번으로 구분하며,
+ *     상위 부서가 항상 하위 부서보다 앞 순번입니다.
+ * </p>
+ * <pre>
+ *     [int MAGIC][int 부서 수 N][int 이름 바이트 수][int 예약]
+ *     int[N + 1]  이름 시작 위치 (이름 사전)
+ *     int[N]      상위 부서 순번, 없으면 -1
+ *     int[N]      인원수
+ *     int[N]      하위 부서를 포함한 총 인원수
+ *     int[N]      이름 순으로 정렬한 부서 순번 (이름 검색용)
+ *     byte[N]     최상위 부서 여부
+ *     byte[]      이름 (영어 대문자, 1글자 1바이트)
+ * </pre>
+ * <p>
+ *     {@link #open(Path)}은 파일을 {@link MappedByteBuffer}로 매핑만 하고 내용을 해석하지 않습니다. 이름 검색, 인원수 조회,
+ *     조직 관계 조회는 매핑된 버퍼에서 바로 처리되므로 부서 객체를 만들지 않고도 큰 조직도를 조회할 수 있습니다.
+ *     {@link ColumnarDepartmentService}가 첫 변경 전까지의 부서 조회를 {@link #relationToString(String)}으로 처리하고,
+ *     변경이 필요할 때만 저장소가 {@link #toDepartments()}로 부서 객체를 만듭니다. 하나의 매핑으로 다루므로 파일 크기는 2GB 이하여야 합니다.
+ * </p>
+ * */
+public final class ColumnarOrgChart {
+
+    /** {@code --export}가 이 형식으로 기록하는 파일 이름의 확장자 */
+    public static final String EXTENSION = ".chart";
+
+    private static final int MAGIC = 0x44434F31;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int nameOffsetsAt;
+    private final int parentsAt;
+    private final int headCountsAt;
+    private final int combinedHeadCountsAt;
+    private final int sortedAt;
+    private final int rootsAt;
+    private final int namesAt;
+
+    private ColumnarOrgChart(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("조직도 파일 형식이 올바르지 않습니다.");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(Integer.BYTES);
+        this.nameOffsetsAt = HEADER_SIZE;
+        this.parentsAt = nameOffsetsAt + (count + 1) * Integer.BYTES;
+        this.headCountsAt = parentsAt + count * Integer.BYTES;
+        this.combinedHeadCountsAt = headCountsAt + count * Integer.BYTES;
+        this.sortedAt = combinedHeadCountsAt + count * Integer.BYTES;
+        this.rootsAt = sortedAt + count * Integer.BYTES;
+        this.namesAt = rootsAt + count;
+    }
+
+    public static ColumnarOrgChart open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ColumnarOrgChart(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 주어진 부서들을 파일에 기록합니다. 부서들의 상위 부서와 하위 부서도 모두 주어진 부서에 포함되어 있어야 합니다.
+     * */
+    public static void write(Collection<Department> departments, Path file) throws IOException {
+        List<Department> ordered = DurableDepartmentRepository.topDownOrder(departments);
+        int count = ordered.size();
+
+        Map<Department, Integer> indexes = new HashMap<>(count * 2);
+        int nameBytes = 0;
+        for (int i = 0; i < count; i++) {
+            indexes.put(ordered.get(i), i);
+            nameBytes += ordered.get(i).getName().length();
+        }
+
+        Integer[] sorted = new Integer[count];
+        for (int i = 0; i < count; i++) sorted[i] = i;
+        Arrays.sort(sorted, (a, b) -> ordered.get(a).getName().compareTo(ordered.get(b).getName()));
+
+        long size = HEADER_SIZE + (long) (count + 1) * Integer.BYTES + 4L * count * Integer.BYTES + count + nameBytes;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(count).putInt(nameBytes).putInt(0);
+
+            int offset = 0;
+            for (Department department : ordered) {
+                out.putInt(offset);
+                offset += department.getName().length();
+            }
+            out.putInt(offset);
+
+            for (Department department : ordered) {
+                Department superior = department.getSuperior();
+                out.putInt(superior == null ? -1 : indexes.get(superior));
+            }
+            for (Department department : ordered) out.putInt(department.getHeadCount());
+            for (Department department : ordered) out.putInt(department.getCombinedHeadCount());
+            for (Integer index : sorted) out.putInt(index);
+            for (Department department : ordered) out.put((byte) (department.isThisRoot() ? 1 : 0));
+            for (Department department : ordered) {
+                String name = department.getName();
+                for (int i = 0; i < name.length(); i++) out.put((byte) name.charAt(i));
+            }
+            out.force();
+        }
+    }
+
+    /**
+     * 파일 이름이 {@value #EXTENSION}로 끝나는지 확인합니다.
+     * */
+    public static boolean isColumnar(String fileName) {
+        return fileName.endsWith(EXTENSION);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 이름으로 부서의 순번을 찾습니다. 정렬된 순번 배열에서 이진 탐색하며, 없으면 -1을 반환합니다.
+     * */
+    public int indexOf(String name) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int index = buffer.getInt(sortedAt + mid * Integer.BYTES);
+            int compared = compareName(index, name);
+
+            if (compared < 0) low = mid + 1;
+            else if (compared > 0) high = mid - 1;
+            else return index;
+        }
+        return -1;
+    }
+
+    public String nameOf(int index) {
+        int from = nameOffset(index);
+        int to = nameOffset(index + 1);
+        char[] chars = new char[to - from];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) buffer.get(namesAt + from + i);
+        }
+        return new String(chars);
+    }
+
+    public int parentOf(int index) {
+        return buffer.getInt(parentsAt + index * Integer.BYTES);
+    }
+
+    public int headCountOf(int index) {
+        return buffer.getInt(headCountsAt + index * Integer.BYTES);
+    }
+
+    public int combinedHeadCountOf(int index) {
+        return buffer.getInt(combinedHeadCountsAt + index * Integer.BYTES);
+    }
+
+    public boolean isRoot(int index) {
+        return buffer.get(rootsAt + index) == 1;
+    }
+
+    /**
+     * {@link Department#relationToString()}과 같은 형식으로 부서의 조직 관계와 총 인원수를 반환합니다.
+     * */
+    public String relationToString(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            throw new CustomRuntimeException(CustomRuntimeExceptionCode.NO_SUCH_DEPARTMENT);
+        }
+
+        int top = index;
+        while (!isRoot(top) && parentOf(top) >= 0) {
+            top = parentOf(top);
+        }
+        return Department.relationToString(name, isRoot(index), nameOf(top), isRoot(top), combinedHeadCountOf(top));
+    }
+
+    /**
+     * 파일에 기록된 조직도를 부서 객체로 만듭니다. 파일의 순서가 상위 부서부터이므로 한 번의 순회로 연결됩니다.
+     * */
+    public List<Department> toDepartments() {
+        OrgChartBuilder builder = new OrgChartBuilder();
+        String[] names = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            names[i] = nameOf(i);
+            builder.department(names[i], headCountOf(i));
+
+            int parent = parentOf(i);
+            if (parent >= 0) builder.relate(names[parent], names[i]);
+            if (isRoot(i)) builder.relate("*", names[i]);
+        }
+        return builder.build();
+    }
+
+    private int nameOffset(int index) {
+        return buffer.getInt(nameOffsetsAt + index * Integer.BYTES);
+    }
+
+    private int compareName(int index, String name) {
+        int from = namesAt + nameOffset(index);
+        int length = nameOffset(index + 1) - nameOffset(index);
+        int limit = Math.min(length, name.length());
+
+        for (int i = 0; i < limit; i++) {
+            int diff = (buffer.get(from + i) & 0xFF) - name.charAt(i);
+            if (diff != 0) return diff;
+        }
+        return length - name.length();
+    }
+}
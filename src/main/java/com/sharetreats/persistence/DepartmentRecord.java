@@ -0,0 +1,80 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.Department;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 로그와 스냅샷 파일에 기록되는 부서 한 개의 상태입니다.
+ * <p>
+ *     부서 이름, 인원수, 상위 부서 이름, 최상위 부서 여부만 기록합니다. 총 인원수와 최상위 부서 캐시는 부서를 다시
+ *     연결하면서 계산되므로 기록하지 않습니다. 부서 이름은 영어 대문자만 허용되므로 한 글자를 1바이트로 저장합니다.
+ * </p>
+ * <pre>
+ *     [short 이름 길이][이름][int 인원수][byte 최상위 부서 여부][short 상위 부서 이름 길이, 없으면 0][상위 부서 이름]
+ * </pre>
+ * */
+final class DepartmentRecord {
+
+    final String name;
+    final int headCount;
+    final String superiorName;
+    final boolean isRoot;
+
+    DepartmentRecord(String name, int headCount, String superiorName, boolean isRoot) {
+        this.name = name;
+        this.headCount = headCount;
+        this.superiorName = superiorName;
+        this.isRoot = isRoot;
+    }
+
+    static DepartmentRecord of(Department department) {
+        Department superior = department.getSuperior();
+        return new DepartmentRecord(
+                department.getName(),
+                department.getHeadCount(),
+                superior == null ? null : superior.getName(),
+                department.isThisRoot()
+        );
+    }
+
+    int size() {
+        return Short.BYTES + name.length() + Integer.BYTES + 1 + Short.BYTES + (superiorName == null ? 0 : superiorName.length());
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        writeName(buffer, name);
+        buffer.putInt(headCount);
+        buffer.put((byte) (isRoot ? 1 : 0));
+        writeName(buffer, superiorName);
+    }
+
+    static DepartmentRecord readFrom(ByteBuffer buffer) {
+        String name = readName(buffer);
+        int headCount = buffer.getInt();
+        boolean isRoot = buffer.get() == 1;
+        String superiorName = readName(buffer);
+        return new DepartmentRecord(name, headCount, superiorName, isRoot);
+    }
+
+    private static void writeName(ByteBuffer buffer, String name) {
+        if (name == null) {
+            buffer.putShort((short) 0);
+            return;
+        }
+        buffer.putShort((short) name.length());
+        for (int i = 0; i < name.length(); i++) {
+            buffer.put((byte) name.charAt(i));
+        }
+    }
+
+    private static String readName(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length == 0) return null;
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,479 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentRepository;
+import com.sharetreats.department.DepartmentRepositoryImpl;
+import com.sharetreats.department.HeadCountPolicy;
+import com.sharetreats.department.OrgChartBuilder;
+import com.sharetreats.department.Reorganization;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 재시작해도 조직도가 유지되는 저장소입니다.
+ * <p>
+ *     부서가 저장될 때마다 그 부서의 현재 상태(이름, 인원수, 상위 부서, 최상위 부서 여부)를 {@link WriteAheadLog}에 기록하고,
+ *     기록이 디스크에 반영된 뒤에 반환합니다. 서비스는 부서를 등록할 때뿐 아니라 관계나 인원수를 바꾼 뒤에도 부서를 다시 저장하므로,
+ *     로그를 순서대로 다시 적용하면 같은 조직도가 만들어집니다.
+ * </p>
+ * <p>
+ *     로그가 {@code compactionThreshold}개 쌓이면 전체 조직도를 바이너리 스냅샷 파일로 기록하고 로그를 비웁니다.
+ *     시작할 때는 스냅샷을 {@link OrgChartBuilder}로 한 번에 불러온 뒤, 스냅샷 이후의 로그만 다시 적용합니다.
+ *     처음 시작하는 경우에는 기본 조직을 저장합니다.
+ * </p>
+ * <p>
+ *     {@link #saveAll(Collection)}은 여러 부서의 상태를 레코드 하나에 담아 한 번만 디스크에 반영합니다. 레코드 전체가 체크섬으로
+ *     보호되므로 기록 도중에 종료되면 일부 부서만 반영되지 않고 모두 버려집니다. 트랜잭션은 중간 단계에서 인원수 제한을 넘을 수
+ *     있으므로, 이 레코드는 {@link Reorganization}으로 다시 적용하고 인원수 제한은 확인하지 않습니다.
+ * </p>
+ * <p>
+ *     {@link #deleteAll(Collection, Collection)}도 상위 부서가 바뀐 부서들과 삭제된 부서들을 레코드 하나에 담습니다. 다시 적용할 때는
+ *     바뀐 부서들을 먼저 옮긴 뒤, 삭제된 부서 중 상위 부서가 함께 삭제되지 않은 부서만 관계를 끊고 모두 저장소에서 지웁니다.
+ *     하위 조직 전체를 삭제한 경우에도 상위 부서들의 인원수는 가장 위의 삭제된 부서에서 한 번만 빠집니다.
+ * </p>
+ * <p>
+ *     저장은 읽기 잠금을, 스냅샷 기록은 쓰기 잠금을 잡으므로 여러 스레드의 저장은 함께 진행되어 한 번의 fsync로 기록되고,
+ *     스냅샷을 만드는 동안에는 저장이 끼어들지 않습니다. 따라서 로그를 비울 때 스냅샷에 없는 레코드가 함께 지워지지 않습니다.
+ * </p>
+ * */
+public class DurableDepartmentRepository implements DepartmentRepository, Closeable {
+
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 100_000;
+
+    static final String SNAPSHOT_FILE = "departments.snapshot";
+    static final String LOG_FILE = "departments.wal";
+
+    private static final byte UPSERT = 1;
+    private static final byte UPSERT_ALL = 2;
+    private static final byte DELETE_ALL = 3;
+    private static final int SNAPSHOT_MAGIC = 0x44534E31;
+    private static final int SNAPSHOT_HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Map<String, Department> storage;
+    private final Path directory;
+    private final int compactionThreshold;
+    private final WriteAheadLog log;
+    private final ReadWriteLock compaction = new ReentrantReadWriteLock();
+    private final AtomicInteger recordsSinceSnapshot = new AtomicInteger();
+    private long generation;
+
+    private DurableDepartmentRepository(Path directory, int compactionThreshold) throws IOException {
+        this.storage = new ConcurrentHashMap<>();
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+
+        Files.createDirectories(directory);
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        Path logFile = directory.resolve(LOG_FILE);
+        boolean fresh = !Files.exists(snapshotFile) && !Files.exists(logFile);
+
+        this.generation = loadSnapshot(snapshotFile);
+        long validLength = WriteAheadLog.replay(logFile, generation, this::replay);
+        this.log = WriteAheadLog.open(logFile, generation, validLength);
+
+        if (fresh) {
+            for (Department department : DepartmentRepositoryImpl.defaultOrganization()) {
+                storage.put(department.getName(), department);
+            }
+            compact();
+        }
+    }
+
+    public static DurableDepartmentRepository open(Path directory) throws IOException {
+        return new DurableDepartmentRepository(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public static DurableDepartmentRepository open(Path directory, int compactionThreshold) throws IOException {
+        return new DurableDepartmentRepository(directory, compactionThreshold);
+    }
+
+    @Override
+    public Department save(Department department) {
+        DepartmentRecord record = DepartmentRecord.of(department);
+        ByteBuffer payload = ByteBuffer.allocate(record.size());
+        record.writeTo(payload);
+        payload.flip();
+
+        append(UPSERT, payload, 1, () -> storage.put(department.getName(), department));
+        return department;
+    }
+
+    /**
+     * 부서들의 상태를 {@code [int 부서 수][레코드...]} 형식의 로그 레코드 하나로 기록하고, 한 번만 디스크에 반영될 때까지 기다립니다.
+     * */
+    @Override
+    public void saveAll(Collection<Department> departments) {
+        if (departments.isEmpty()) return;
+
+        List<DepartmentRecord> records = recordsOf(departments);
+        ByteBuffer payload = ByteBuffer.allocate(sizeOf(records));
+        writeRecords(payload, records);
+        payload.flip();
+
+        append(UPSERT_ALL, payload, records.size(), () -> {
+            for (Department department : departments) {
+                storage.put(department.getName(), department);
+            }
+        });
+    }
+
+    @Override
+    public void delete(Department department) {
+        deleteAll(List.of(department), List.of());
+    }
+
+    /**
+     * 부서들의 상태와 삭제된 부서들을 {@code [int 부서 수][레코드...][int 삭제된 부서 수][레코드...]} 형식의 로그 레코드 하나로
+     * 기록하고, 한 번만 디스크에 반영될 때까지 기다립니다. 삭제된 부서의 레코드는 이름만 사용합니다.
+     * */
+    @Override
+    public void deleteAll(Collection<Department> removed, Collection<Department> changed) {
+        if (removed.isEmpty() && changed.isEmpty()) return;
+
+        List<DepartmentRecord> changedRecords = recordsOf(changed);
+        List<DepartmentRecord> removedRecords = recordsOf(removed);
+        ByteBuffer payload = ByteBuffer.allocate(sizeOf(changedRecords) + sizeOf(removedRecords));
+        writeRecords(payload, changedRecords);
+        writeRecords(payload, removedRecords);
+        payload.flip();
+
+        append(DELETE_ALL, payload, changedRecords.size() + removedRecords.size(), () -> {
+            for (Department department : changed) {
+                storage.put(department.getName(), department);
+            }
+            for (Department department : removed) {
+                storage.remove(department.getName(), department);
+            }
+        });
+    }
+
+    @Override
+    public List<Department> findAll() {
+        return new ArrayList<>(storage.values());
+    }
+
+    @Override
+    public Stream<Department> stream() {
+        return storage.values().stream();
+    }
+
+    @Override
+    public Optional<Department> findBy(String name) {
+        return Optional.ofNullable(storage.get(name));
+    }
+
+    /**
+     * 현재 조직도를 새 세대의 스냅샷으로 기록하고 로그를 비웁니다.
+     * <p>
+     *     스냅샷은 임시 파일에 기록하고 디스크에 반영한 뒤 이름을 바꾸므로, 기록 도중에 종료되어도 이전 스냅샷과 로그가 남습니다.
+     *     새 스냅샷으로 바뀐 뒤 로그를 비우기 전에 종료되면, 다음 시작 때 세대가 맞지 않는 이전 로그는 무시됩니다.
+     *     진행 중인 저장이 모두 디스크에 반영될 때까지 기다린 뒤 시작하고, 끝날 때까지 새 저장은 기다립니다.
+     * </p>
+     * */
+    public void compact() {
+        compaction.writeLock().lock();
+        try {
+            long next = generation + 1;
+            Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+            Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+
+            try {
+                writeSnapshot(temporary, next);
+                Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            log.reset(next);
+            generation = next;
+            recordsSinceSnapshot.set(0);
+        } finally {
+            compaction.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * 저장소를 바꾸고 레코드를 로그에 추가한 뒤 디스크에 반영될 때까지 기다립니다. 스냅샷을 만드는 동안에는 시작하지 않으며,
+     * 레코드가 충분히 쌓였으면 잠금을 놓은 뒤 스냅샷을 만듭니다.
+     * */
+    private void append(byte type, ByteBuffer payload, int records, Runnable update) {
+        compaction.readLock().lock();
+        try {
+            update.run();
+            log.awaitDurable(log.append(type, payload));
+        } finally {
+            compaction.readLock().unlock();
+        }
+
+        if (recordsSinceSnapshot.addAndGet(records) >= compactionThreshold) {
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * 여러 스레드가 함께 기준을 넘긴 경우 먼저 잠근 스레드만 스냅샷을 만듭니다.
+     * */
+    private void compactIfNeeded() {
+        compaction.writeLock().lock();
+        try {
+            if (recordsSinceSnapshot.get() >= compactionThreshold) compact();
+        } finally {
+            compaction.writeLock().unlock();
+        }
+    }
+
+    private static List<DepartmentRecord> recordsOf(Collection<Department> departments) {
+        List<DepartmentRecord> records = new ArrayList<>(departments.size());
+        for (Department department : departments) {
+            records.add(DepartmentRecord.of(department));
+        }
+        return records;
+    }
+
+    private static int sizeOf(List<DepartmentRecord> records) {
+        int size = Integer.BYTES;
+        for (DepartmentRecord record : records) {
+            size += record.size();
+        }
+        return size;
+    }
+
+    private static void writeRecords(ByteBuffer payload, List<DepartmentRecord> records) {
+        payload.putInt(records.size());
+        for (DepartmentRecord record : records) {
+            record.writeTo(payload);
+        }
+    }
+
+    private static List<DepartmentRecord> readRecords(ByteBuffer payload) {
+        int count = payload.getInt();
+        List<DepartmentRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(DepartmentRecord.readFrom(payload));
+        }
+        return records;
+    }
+
+    private void replay(byte type, ByteBuffer payload) {
+        if (type == UPSERT) {
+            apply(DepartmentRecord.readFrom(payload));
+            return;
+        }
+
+        // 트랜잭션의 부서들은 중간 단계에서 인원수 제한을 넘을 수 있으므로 마지막 상태만 보장됨
+        Reorganization reorganization = new Reorganization(HeadCountPolicy.UNLIMITED);
+        for (DepartmentRecord record : readRecords(payload)) {
+            apply(record, reorganization);
+        }
+        if (type == DELETE_ALL) {
+            remove(readRecords(payload), reorganization);
+        }
+    }
+
+    /**
+     * 삭제된 부서들을 저장소에서 지웁니다. 상위 부서가 함께 삭제된 부서는 그 상위 부서와 함께 조직도에서 빠지므로 관계를 끊지 않습니다.
+     * */
+    private void remove(List<DepartmentRecord> records, Reorganization reorganization) {
+        Set<String> removed = new HashSet<>();
+        for (DepartmentRecord record : records) {
+            removed.add(record.name);
+        }
+
+        for (DepartmentRecord record : records) {
+            Department department = storage.remove(record.name);
+            if (department == null) continue;
+
+            Department superior = department.getSuperior();
+            if (superior != null && !removed.contains(superior.getName())) {
+                reorganization.detach(department);
+            }
+        }
+    }
+
+    /**
+     * 로그에 기록된 부서의 상태를 현재 조직도에 적용합니다. 로그는 실제로 성공한 변경만 순서대로 담고 있으므로
+     * 같은 순서로 적용하면 최상위 부서 조건에 걸리지 않습니다. 인원수 제한은 서비스마다 다를 수 있으므로 확인하지 않습니다.
+     * */
+    private void apply(DepartmentRecord record) {
+        Department department = storage.get(record.name);
+
+        if (department == null) {
+            department = Department.of(record.headCount, record.name);
+            storage.put(record.name, department);
+        } else if (department.getHeadCount() != record.headCount) {
+            department.updateHeadcount(record.headCount, HeadCountPolicy.UNLIMITED);
+        }
+
+        if (record.superiorName != null) {
+            Department superior = superiorOf(record);
+            if (superior != department.getSuperior()) superior.add(department, HeadCountPolicy.UNLIMITED);
+        }
+
+        if (record.isRoot && !department.isThisRoot()) {
+            department.setAsRoot();
+        }
+    }
+
+    /**
+     * {@link #apply(DepartmentRecord)}와 같지만 {@link Reorganization}으로 적용하므로 인원수 제한을 확인하지 않습니다.
+     * 레코드는 상위 부서가 하위 부서보다 먼저 기록되어 있으므로 순환하는 조직도가 생기지 않습니다.
+     * */
+    private void apply(DepartmentRecord record, Reorganization reorganization) {
+        Department department = storage.get(record.name);
+
+        if (department == null) {
+            department = Department.of(record.headCount, record.name);
+            storage.put(record.name, department);
+        } else {
+            reorganization.updateHeadcount(department, record.headCount);
+        }
+
+        if (record.superiorName != null) {
+            reorganization.relate(superiorOf(record), department);
+        } else {
+            reorganization.detach(department);
+        }
+
+        if (record.isRoot) {
+            reorganization.setAsRoot(department);
+        }
+    }
+
+    /**
+     * 레코드의 상위 부서를 반환합니다. 상위 부서는 하위 부서보다 먼저 기록되므로, 없다면 로그가 잘못 기록된 것이고 관계를 건너뛰면
+     * 조직도가 조용히 달라지므로 예외가 발생합니다.
+     * */
+    private Department superiorOf(DepartmentRecord record) {
+        Department superior = storage.get(record.superiorName);
+        if (superior == null) {
+            throw new IllegalStateException(
+                    "로그에 기록된 상위 부서를 찾을 수 없습니다. 부서: [ " + record.name + " ], 상위부서: [ " + record.superiorName + " ]");
+        }
+        return superior;
+    }
+
+    private long loadSnapshot(Path file) throws IOException {
+        if (!Files.exists(file)) return 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            int magic = buffer.getInt();
+            long snapshotGeneration = buffer.getLong();
+            int count = buffer.getInt();
+            if (magic != SNAPSHOT_MAGIC) {
+                throw new IOException("스냅샷 파일 형식이 올바르지 않습니다: " + file);
+            }
+
+            ByteBuffer body = buffer.slice();
+            body.limit(body.remaining() - Integer.BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(buffer.limit() - Integer.BYTES)) {
+                throw new IOException("스냅샷 파일이 손상되었습니다: " + file);
+            }
+
+            // 스냅샷은 상위 부서가 하위 부서보다 먼저 기록되어 있음
+            OrgChartBuilder builder = new OrgChartBuilder();
+            for (int i = 0; i < count; i++) {
+                DepartmentRecord record = DepartmentRecord.readFrom(body);
+                builder.department(record.name, record.headCount);
+                if (record.superiorName != null) builder.relate(record.superiorName, record.name);
+                if (record.isRoot) builder.relate("*", record.name);
+            }
+
+            for (Department department : builder.build()) {
+                storage.put(department.getName(), department);
+            }
+            return snapshotGeneration;
+        }
+    }
+
+    private void writeSnapshot(Path file, long snapshotGeneration) throws IOException {
+        List<Department> ordered = topDownOrder(storage.values());
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            buffer.putInt(SNAPSHOT_MAGIC).putLong(snapshotGeneration).putInt(ordered.size());
+            CRC32 crc = new CRC32();
+            int bodyStart = SNAPSHOT_HEADER_SIZE;
+
+            for (Department department : ordered) {
+                DepartmentRecord record = DepartmentRecord.of(department);
+                if (buffer.remaining() < record.size() + Integer.BYTES) {
+                    bodyStart = flush(channel, buffer, crc, bodyStart);
+                }
+                record.writeTo(buffer);
+            }
+            flush(channel, buffer, crc, bodyStart);
+
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 버퍼의 내용을 파일에 쓰고, 헤더를 제외한 부분을 체크섬에 더합니다. 다음 번 체크섬 시작 위치를 반환합니다.
+     * */
+    private static int flush(FileChannel channel, ByteBuffer buffer, CRC32 crc, int bodyStart) throws IOException {
+        buffer.flip();
+        ByteBuffer body = buffer.duplicate();
+        body.position(bodyStart);
+        crc.update(body);
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+        return 0;
+    }
+
+    /**
+     * 가장 상위의 부서들부터 너비 우선으로 모든 부서를 나열합니다.
+     * */
+    static List<Department> topDownOrder(Collection<Department> departments) {
+        List<Department> ordered = new ArrayList<>(departments.size());
+        Deque<Department> queue = new ArrayDeque<>();
+
+        for (Department department : departments) {
+            if (department.getSuperior() != null) continue;
+
+            queue.add(department);
+            while (!queue.isEmpty()) {
+                Department d = queue.poll();
+                ordered.add(d);
+                queue.addAll(d.getSubordinates());
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentRepository;
+import com.sharetreats.department.Traversal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * 조직도를 한 줄에 한 부서씩 CSV 또는 JSON Lines 형식으로 내보냅니다.
+ * <p>
+ *     부서를 {@link Traversal}로 하나씩 꺼내 바로 기록하므로 부서 목록이나 출력 전체를 메모리에 만들지 않고, 조직도의 크기와
+ *     관계없이 순회에 필요한 메모리와 출력 버퍼만 사용합니다. 부서 이름은 영어 대문자 또는 {@code *}이므로 따옴표나 이스케이프 없이 기록합니다.
+ * </p>
+ * <pre>
+ *     CSV         name,superior,headCount,combinedHeadCount,root
+ *                 BACKEND,DEV,20,20,false
+ *     JSON_LINES  {"name":"BACKEND","superior":"DEV","headCount":20,"combinedHeadCount":20,"root":false}
+ * </pre>
+ * */
+public final class OrgChartExporter {
+
+    public enum Format {
+        CSV,
+        JSON_LINES;
+
+        /**
+         * 파일 이름이 {@code .jsonl}로 끝나면 JSON Lines, 그 외에는 CSV 형식을 반환합니다.
+         * */
+        public static Format of(String fileName) {
+            return fileName.endsWith(".jsonl") ? JSON_LINES : CSV;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private OrgChartExporter() {
+    }
+
+    /**
+     * 저장소의 조직들을 가장 상위의 부서부터 주어진 순서로 내보내고, 내보낸 부서 수를 반환합니다.
+     * 출력 스트림은 비우기만 하고 닫지 않습니다.
+     * */
+    public static long export(DepartmentRepository repository, Traversal traversal, OutputStream out, Format format)
+            throws IOException {
+        return export(repository.hierarchyIterator(traversal), out, format);
+    }
+
+    public static long export(Iterator<Department> departments, OutputStream out, Format format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+
+        if (format == Format.CSV) writer.write("name,superior,headCount,combinedHeadCount,root\n");
+        while (departments.hasNext()) {
+            Department department = departments.next();
+            if (format == Format.CSV) writeCsv(writer, department);
+            else writeJson(writer, department);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, Department department) throws IOException {
+        Department superior = department.getSuperior();
+        writer.write(department.getName());
+        writer.write(',');
+        if (superior != null) writer.write(superior.getName());
+        writer.write(',');
+        writer.write(Integer.toString(department.getHeadCount()));
+        writer.write(',');
+        writer.write(Integer.toString(department.getCombinedHeadCount()));
+        writer.write(',');
+        writer.write(department.isThisRoot() ? "true" : "false");
+        writer.write('\n');
+    }
+
+    private static void writeJson(Writer writer, Department department) throws IOException {
+        Department superior = department.getSuperior();
+        writer.write("{\"name\":\"");
+        writer.write(department.getName());
+        writer.write("\",\"superior\":");
+        if (superior == null) {
+            writer.write("null");
+        } else {
+            writer.write('"');
+            writer.write(superior.getName());
+            writer.write('"');
+        }
+        writer.write(",\"headCount\":");
+        writer.write(Integer.toString(department.getHeadCount()));
+        writer.write(",\"combinedHeadCount\":");
+        writer.write(Integer.toString(department.getCombinedHeadCount()));
+        writer.write(",\"root\":");
+        writer.write(department.isThisRoot() ? "true" : "false");
+        writer.write("}\n");
+    }
+}
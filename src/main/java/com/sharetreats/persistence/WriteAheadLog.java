@@ -0,0 +1,263 @@
+package com.sharetreats.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * 변경 내용을 파일 끝에 순서대로 덧붙이는 로그입니다.
+ * <p>
+ *     {@link #append(byte, ByteBuffer)}는 레코드를 메모리 버퍼에 넣고 번호를 돌려주며, 별도의 스레드가 버퍼에 모인
+ *     레코드를 한 번에 파일에 쓰고 {@link FileChannel#force(boolean)}를 호출합니다. 디스크에 쓰는 동안 들어온 레코드들은
+ *     다음 번에 함께 기록되므로(group commit), 여러 호출자가 fsync 한 번의 비용을 나누어 냅니다.
+ *     호출자는 {@link #awaitDurable(long)}로 자신의 레코드가 디스크에 기록될 때까지 기다립니다.
+ * </p>
+ * <pre>
+ *     파일 헤더: [int MAGIC][long 세대]
+ *     레코드:   [byte 종류][int 길이][int CRC32][내용]
+ * </pre>
+ * <p>
+ *     세대는 로그가 어떤 스냅샷 다음부터의 변경인지를 나타냅니다. 프로세스가 레코드를 쓰는 도중에 종료되어 마지막 레코드가
+ *     온전하지 않으면, 다시 열 때 그 레코드부터 잘라냅니다.
+ * </p>
+ * */
+final class WriteAheadLog implements Closeable {
+
+    private static final int MAGIC = 0x44574C31;
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 1 + Integer.BYTES + Integer.BYTES;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Thread flusher;
+    private final CRC32 crc = new CRC32();
+
+    private ByteBuffer pending = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private ByteBuffer flushing = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private long appended;
+    private long durable;
+    private IOException failure;
+    private boolean closed;
+
+    private WriteAheadLog(FileChannel channel) {
+        this.channel = channel;
+        this.flusher = new Thread(this::flushLoop, "wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 로그 파일을 읽어 온전한 레코드를 순서대로 전달하고, 마지막 레코드의 끝 위치를 반환합니다.
+     * 파일이 없거나 다른 세대의 로그라면 아무것도 전달하지 않고 -1을 반환합니다.
+     * */
+    static long replay(Path file, long generation, BiConsumer<Byte, ByteBuffer> consumer) throws IOException {
+        if (!Files.exists(file)) return -1;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) return -1;
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getLong() != generation) return -1;
+
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int start = buffer.position();
+                byte type = buffer.get();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+
+                if (length < 0 || length > buffer.remaining()) {
+                    return start;
+                }
+
+                ByteBuffer payload = buffer.slice();
+                payload.limit(length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+
+                consumer.accept(type, payload);
+                buffer.position(buffer.position() + length);
+            }
+            return buffer.position();
+        }
+    }
+
+    /**
+     * 로그 파일을 엽니다. {@code validLength}가 0보다 작으면 주어진 세대의 빈 로그로 새로 시작하고,
+     * 그렇지 않으면 그 위치 뒤의 온전하지 않은 내용을 잘라낸 뒤 이어서 기록합니다.
+     * */
+    static WriteAheadLog open(Path file, long generation, long validLength) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (validLength < 0) {
+            writeHeader(channel, generation);
+        } else {
+            channel.truncate(validLength);
+            channel.position(validLength);
+        }
+        return new WriteAheadLog(channel);
+    }
+
+    /**
+     * 레코드를 버퍼에 추가하고 레코드 번호를 반환합니다. 반환된 시점에는 아직 디스크에 기록되지 않았을 수 있습니다.
+     * */
+    synchronized long append(byte type, ByteBuffer payload) {
+        checkState();
+
+        int length = payload.remaining();
+        ensureCapacity(RECORD_HEADER_SIZE + length);
+
+        crc.reset();
+        crc.update(payload.duplicate());
+
+        pending.put(type);
+        pending.putInt(length);
+        pending.putInt((int) crc.getValue());
+        pending.put(payload);
+
+        appended++;
+        notifyAll();
+        return appended;
+    }
+
+    /**
+     * 주어진 번호까지의 레코드가 디스크에 기록될 때까지 기다립니다.
+     * */
+    synchronized void awaitDurable(long sequence) {
+        while (durable < sequence && failure == null) {
+            awaitSignal();
+        }
+        checkFailure();
+    }
+
+    /**
+     * 지금까지 추가된 레코드가 모두 기록되기를 기다린 뒤, 로그를 비우고 새 세대로 다시 시작합니다.
+     * 새 세대의 스냅샷이 디스크에 기록된 뒤에 호출해야 하며, 스냅샷에 반영되지 않은 레코드도 함께 지워지므로 호출하는 쪽이
+     * 스냅샷을 만드는 동안 레코드를 추가하지 않도록 막아야 합니다.
+     * */
+    synchronized void reset(long generation) {
+        // 기다리는 동안 잠금이 풀려 다른 레코드가 추가될 수 있으므로, 추가된 레코드가 모두 기록된 상태에서 잠금을 쥐고 비움
+        while (durable < appended) {
+            awaitDurable(appended);
+        }
+        try {
+            writeHeader(channel, generation);
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long target;
+
+            synchronized (this) {
+                while (pending.position() == 0 && !closed) {
+                    awaitSignal();
+                }
+                if (pending.position() == 0) return;
+
+                batch = pending;
+                pending = flushing;
+                flushing = batch;
+                target = appended;
+            }
+
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            batch.clear();
+
+            synchronized (this) {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = target;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (pending.remaining() >= size) return;
+
+        int capacity = pending.capacity();
+        while (capacity - pending.position() < size) {
+            capacity *= 2;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(capacity);
+        pending.flip();
+        larger.put(pending);
+        pending = larger;
+    }
+
+    private void checkState() {
+        checkFailure();
+        if (closed) {
+            throw new IllegalStateException("로그가 이미 닫혔습니다.");
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    private void awaitSignal() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, long generation) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putLong(generation).flip();
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+}
@@ -0,0 +1,259 @@
+package com.sharetreats.server;
+
+import com.sharetreats.department.DepartmentController;
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * {@link DepartmentController#parseCommand(String)}와 같은 명령을 TCP로 받는 서버입니다.
+ * <p>
+ *     명령 한 줄({@code \n}으로 끝남)마다 결과 한 줄을 UTF-8로 돌려줍니다. 결과 안의 줄바꿈은 공백으로 바꾸고, 예외가 발생하면
+ *     콘솔에 출력하던 예외 메시지를 돌려줍니다. 입출력 오류처럼 예상하지 못한 예외로 명령이 실패하면
+ *     {@link CustomRuntimeExceptionCode#COMMAND_FAILED} 메시지와 예외를 돌려주고, 연결과 서버는 계속 동작합니다. 클라이언트는 응답을 기다리지 않고 여러 명령을 이어서 보낼 수 있으며, 응답은 명령을
+ *     보낸 순서대로 옵니다.
+ * </p>
+ * <p>
+ *     하나의 스레드가 {@link Selector}로 모든 연결을 처리하고, 명령도 같은 스레드에서 실행하므로 서비스는 동기화하지 않아도 됩니다.
+ *     트랜잭션은 연결마다 {@link DepartmentController.Session}에 따로 두므로 한 클라이언트의 {@code BEGIN}이 다른 클라이언트의
+ *     명령을 가져가지 않으며, 연결이 끊기면 진행 중인 트랜잭션은 취소됩니다. 커밋 전의 변경을 다른 연결에 보이지 않게 하려면
+ *     {@link com.sharetreats.department.SingleWriterDepartmentService}처럼 커밋된 변경만 게시하는 서비스를 사용합니다.
+ *     연결마다 읽기와 쓰기용 direct 버퍼를 하나씩 두고 재사용하며, 응답은 문자열을 바이트 배열로 바꾸지 않고 쓰기 버퍼에 바로 인코딩합니다.
+ *     쓰기 버퍼를 다 비우지 못한 연결은 비워질 때까지 더 읽지 않으므로, 응답을 읽지 않는 클라이언트가 서버의 메모리를 늘리지 않습니다.
+ * </p>
+ * */
+public final class DepartmentServer implements Runnable, Closeable {
+
+    static final int MAX_LINE_LENGTH = 8 * 1024;
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
+    private final DepartmentController departmentController;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final byte[] line = new byte[MAX_LINE_LENGTH];
+    private volatile boolean closed;
+
+    private DepartmentServer(DepartmentController departmentController, InetSocketAddress address) throws IOException {
+        this.departmentController = departmentController;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static DepartmentServer open(DepartmentController departmentController, InetSocketAddress address) throws IOException {
+        return new DepartmentServer(departmentController, address);
+    }
+
+    public InetSocketAddress getLocalAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@link #close()}가 호출될 때까지 연결을 받고 명령을 처리합니다.
+     * */
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                selector.select();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) throw new UncheckedIOException(e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) return;
+
+        try {
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            if (key.isWritable()) {
+                flush(key);
+            }
+            if (key.isValid() && key.isReadable() && (key.interestOps() & SelectionKey.OP_READ) != 0) {
+                read(key);
+            }
+        } catch (IOException e) {
+            // 클라이언트가 연결을 끊은 경우
+            disconnect(key);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(departmentController.openSession()));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        if (channel.read(connection.in) < 0) {
+            disconnect(key);
+            return;
+        }
+
+        // 읽기 버퍼에 있는 완성된 명령들을 모두 처리하고, 남은 조각은 버퍼 앞으로 옮김
+        ByteBuffer in = connection.in;
+        in.flip();
+        int start = in.position();
+        for (int i = start; i < in.limit(); i++) {
+            if (in.get(i) != '\n') continue;
+
+            respond(connection, command(connection, in, start, i));
+            start = i + 1;
+        }
+        in.position(start);
+        in.compact();
+
+        if (!in.hasRemaining()) {
+            respond(connection, "명령이 너무 깁니다.");
+            flush(key);
+            disconnect(key);
+            return;
+        }
+        flush(key);
+    }
+
+    private String command(Connection connection, ByteBuffer in, int from, int to) {
+        if (to > from && in.get(to - 1) == '\r') to--;
+
+        int length = to - from;
+        for (int i = 0; i < length; i++) {
+            line[i] = in.get(from + i);
+        }
+        String input = new String(line, 0, length, StandardCharsets.UTF_8);
+
+        try {
+            return departmentController.parseCommand(input, connection.session);
+        } catch (CustomRuntimeException e) {
+            if (e.getCause() != null) return e.getCause().getMessage() + " " + e.getMessage();
+            return e.getMessage();
+        } catch (RuntimeException e) {
+            // 저장소의 입출력 오류나 서비스의 버그로 실패한 명령은 그 명령에만 오류를 돌려주고, 다른 연결은 계속 처리
+            return CustomRuntimeExceptionCode.COMMAND_FAILED.getMessage() + " " + e;
+        }
+    }
+
+    /**
+     * 결과를 한 줄로 만들어 쓰기 버퍼에 인코딩합니다. 버퍼가 부족하면 두 배 크기의 버퍼로 옮깁니다.
+     * */
+    private void respond(Connection connection, String result) {
+        CharBuffer chars = CharBuffer.wrap(result.indexOf('\n') < 0 ? result : result.replace('\n', ' '));
+        encoder.reset();
+
+        while (true) {
+            CoderResult coderResult = chars.hasRemaining()
+                    ? encoder.encode(chars, connection.out, true)
+                    : CoderResult.UNDERFLOW;
+
+            if (coderResult.isUnderflow() && connection.out.remaining() > 0) {
+                encoder.flush(connection.out);
+                connection.out.put((byte) '\n');
+                return;
+            }
+            connection.grow();
+        }
+    }
+
+    private void flush(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer out = connection.out;
+
+        out.flip();
+        channel.write(out);
+        out.compact();
+
+        // 다 보내지 못했다면 보낼 수 있을 때까지 읽기를 멈춤
+        key.interestOps(out.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void disconnect(SelectionKey key) {
+        // 연결이 끊긴 클라이언트의 진행 중인 트랜잭션은 취소
+        Object attachment = key.attach(null);
+        try {
+            if (attachment instanceof Connection) ((Connection) attachment).session.close();
+        } finally {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            disconnect(key);
+        }
+        try {
+            selector.close();
+            serverChannel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Connection {
+
+        private final DepartmentController.Session session;
+        private final ByteBuffer in = ByteBuffer.allocateDirect(MAX_LINE_LENGTH);
+        private ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+        private Connection(DepartmentController.Session session) {
+            this.session = session;
+        }
+
+        private void grow() {
+            ByteBuffer larger = ByteBuffer.allocateDirect(out.capacity() * 2);
+            out.flip();
+            larger.put(out);
+            out = larger;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.sharetreats.command;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CommandTokenizerTest {
+
+    @Test
+    void givenWellFormedCommands_whenTokenized_thenNamesAndHeadCountExtracted() {
+
+        //when
+        Command post = CommandTokenizer.tokenize("  BACKEND ,\t010 ");
+        Command relate = CommandTokenizer.tokenize("* > DEV");
+        Command query = CommandTokenizer.tokenize("DEV");
+
+        //then
+        assertEquals(Command.Type.POST, post.getType());
+        assertEquals("BACKEND", post.getName());
+        assertEquals(10, post.getHeadCount());
+
+        assertEquals(Command.Type.RELATE, relate.getType());
+        assertEquals("*", relate.getSuperior());
+        assertEquals("DEV", relate.getSubordinate());
+
+        assertEquals(Command.Type.QUERY, query.getType());
+        assertEquals("DEV", query.getName());
+    }
+
+    @Test
+    void givenMalformedCommands_whenTokenized_thenThrowsNotValidCommand() {
+
+        //given
+        // 허용되지 않는 문자, 값이 하나뿐인 명령, 구분자가 여러 개인 명령, 공백이 있는 조회, 인원수 변경
+        List<String> inputs = List.of("", "dev", "DEV,", "DEV>", ",", "DEV>>FE", "DEV ", "DEV@10", "12");
+
+        for (String input : inputs) {
+            //when
+            Throwable t = assertThrows(CustomRuntimeException.class, () -> CommandTokenizer.tokenize(input), input);
+
+            //then
+            assertEquals(CustomRuntimeExceptionCode.NOT_VALID_COMMAND.getMessage(), t.getMessage(), input);
+        }
+    }
+
+    @Test
+    void givenMalformedNames_whenTokenized_thenThrowsNotValidName() {
+
+        //given
+        List<String> inputs = List.of(", 10", ">DEV", "DE V, 10", "DEV1>FE", "A>B, 10", "DEV>**");
+
+        for (String input : inputs) {
+            //when
+            Throwable t = assertThrows(CustomRuntimeException.class, () -> CommandTokenizer.tokenize(input), input);
+
+            //then
+            assertEquals(CustomRuntimeExceptionCode.NOT_VALID_NAME.getMessage(), t.getMessage(), input);
+        }
+    }
+
+    @Test
+    void givenHeadCountThatIsNotAnInt_whenTokenized_thenThrowsWithNumberFormatCause() {
+
+        //given
+        List<String> inputs = List.of("DEV, 1 0", "DEV, 1A", "DEV, 2147483648");
+
+        for (String input : inputs) {
+            //when
+            Throwable t = assertThrows(CustomRuntimeException.class, () -> CommandTokenizer.tokenize(input), input);
+
+            //then
+            assertEquals(CustomRuntimeExceptionCode.NOT_VALID_COMMAND.getMessage(), t.getMessage(), input);
+            assertNotNull(t.getCause(), input);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ArrayDepartmentServiceTest {
+
+    private static final int DEPARTMENTS = 60;
+    private static final int OPERATIONS = 20_000;
+
+    DepartmentRepositoryImpl departmentRepository = new DepartmentRepositoryImpl();
+    DepartmentService expectedService = new DepartmentServiceImpl(departmentRepository);
+    DepartmentService arrayService = new ArrayDepartmentService();
+
+    @Test
+    void givenRandomOperations_whenAppliedToBothEngines_thenSameResultsAndExceptions() {
+        compareRandomOperations(new Random(7));
+    }
+
+    @Test
+    void givenTighterPolicy_whenRandomOperationsAppliedToBothEngines_thenSameResultsAndExceptions() {
+
+        //given
+        // 하위 조직과 조직 전체의 제한에 자주 걸리도록 낮춘 정책
+        HeadCountPolicy policy = HeadCountPolicy.of(35, 120, 200);
+        expectedService = new DepartmentServiceImpl(departmentRepository, policy);
+        arrayService = new ArrayDepartmentService(DepartmentRepositoryImpl.defaultOrganization(), policy);
+
+        //when and then
+        compareRandomOperations(new Random(13));
+    }
+
+    @Test
+    void givenBatchWithDuplicatedName_whenPostedToBothEngines_thenRejectedAndNothingIsRegistered() {
+
+        //given
+        // QA가 목록 안에 두 번 있는 묶음
+        Supplier<List<Department>> batch = () -> new OrgChartBuilder()
+                .department("QA", 1).department("QAAPI", 2).relate("QA", "QAAPI")
+                .build();
+        List<Department> duplicated = new ArrayList<>(batch.get());
+        duplicated.add(Department.of(3, "QA"));
+        List<Department> expectedDuplicated = new ArrayList<>(batch.get());
+        expectedDuplicated.add(Department.of(3, "QA"));
+        int size = ((ArrayDepartmentService) arrayService).size();
+
+        //when and then
+        assertSame(() -> expectedService.postAll(expectedDuplicated), () -> arrayService.postAll(duplicated));
+        assertEquals("exception: " + CustomRuntimeExceptionCode.DUPLICATED_NAME.getMessage(),
+                run(() -> arrayService.postAll(duplicated)));
+        assertEquals(size, ((ArrayDepartmentService) arrayService).size());
+        assertSame(() -> expectedService.getDepartment("QA"), () -> arrayService.getDepartment("QA"));
+    }
+
+    private void compareRandomOperations(Random random) {
+        // 부서 등록, 관계 설정, 인원수 변경, 삭제, 조회를 무작위로 섞어 두 서비스의 결과와 예외 메시지를 비교
+        for (int i = 0; i < OPERATIONS; i++) {
+            String name = nameOf(random.nextInt(DEPARTMENTS));
+            int headCount = random.nextInt(40);
+
+            switch (random.nextInt(6)) {
+                case 0:
+                    assertSame(() -> expectedService.post(Department.of(headCount, name)),
+                            () -> arrayService.post(Department.of(headCount, name)));
+                    break;
+                case 1:
+                    assertSame(() -> expectedService.update(Department.of(headCount, name)),
+                            () -> arrayService.update(Department.of(headCount, name)));
+                    break;
+                case 2:
+                    String superior = random.nextInt(10) == 0 ? "*" : nameOf(random.nextInt(DEPARTMENTS));
+                    assertSame(() -> expectedService.relate(superior, name),
+                            () -> arrayService.relate(superior, name));
+                    break;
+                case 3:
+                    DeleteMode mode = random.nextInt(4) == 0 ? DeleteMode.CASCADE : DeleteMode.RE_HOME;
+                    List<String> names = random.nextInt(4) == 0
+                            ? List.of(name, nameOf(random.nextInt(DEPARTMENTS)), nameOf(random.nextInt(DEPARTMENTS)))
+                            : List.of(name);
+                    assertSame(() -> expectedService.deleteAll(names, mode),
+                            () -> arrayService.deleteAll(names, mode));
+                    break;
+                default:
+                    assertSame(() -> expectedService.getDepartment(name),
+                            () -> arrayService.getDepartment(name));
+                    assertSame(() -> expectedService.getSubtreeSummary(name).toString(),
+                            () -> arrayService.getSubtreeSummary(name).toString());
+            }
+        }
+
+        // 증감분으로 유지한 하위 조직의 집계 값이 하위 부서를 모두 방문해 계산한 값과 같은지 확인
+        for (Department department : departmentRepository.findAll()) {
+            assertEquals(summarize(department).toString(), department.getSubtreeSummary().toString());
+        }
+    }
+
+    private static SubtreeSummary summarize(Department department) {
+        int combined = department.getHeadCount();
+        int descendants = 0;
+        int depth = 0;
+        int max = department.getHeadCount();
+        for (Department subordinate : department.getSubordinates()) {
+            SubtreeSummary summary = summarize(subordinate);
+            combined += summary.getCombinedHeadCount();
+            descendants += summary.getDescendantCount() + 1;
+            depth = Math.max(depth, summary.getDepth() + 1);
+            max = Math.max(max, summary.getMaxHeadCount());
+        }
+        return SubtreeSummary.of(department.getName(), combined, descendants, depth, max);
+    }
+
+    private static void assertSame(Supplier<String> expected, Supplier<String> actual) {
+        assertEquals(run(expected), run(actual));
+    }
+
+    private static String run(Supplier<String> operation) {
+        try {
+            return operation.get();
+        } catch (CustomRuntimeException e) {
+            return "exception: " + e.getMessage();
+        }
+    }
+
+    private static String nameOf(int index) {
+        return "D" + (char) ('A' + index / 26) + (char) ('A' + index % 26);
+    }
+}
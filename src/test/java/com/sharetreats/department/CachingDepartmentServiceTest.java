@@ -0,0 +1,102 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachingDepartmentServiceTest {
+
+    DepartmentRepositoryImpl departmentRepository = new DepartmentRepositoryImpl();
+    DepartmentService expectedService = new DepartmentServiceImpl(departmentRepository);
+    MetricsRegistry registry = new MetricsRegistry(true);
+    CachingDepartmentService departmentService = new CachingDepartmentService(
+            expectedService, departmentRepository, CachingDepartmentService.DEFAULT_MAX_WEIGHT, registry);
+
+    @Test
+    void givenRepeatedQueries_whenTreeIsUnchanged_thenRenderedResultIsReused() {
+
+        //given
+        departmentService.getDepartment("BACKEND");
+
+        //when
+        String result = departmentService.getDepartment("BACKEND");
+
+        //then
+        assertEquals(expectedService.getDepartment("BACKEND"), result);
+        assertEquals(1, registry.counter("cache.department.hits").get());
+        assertEquals(1, registry.counter("cache.department.misses").get());
+    }
+
+    @Test
+    void givenCachedResults_whenOneTreeChanges_thenOnlyThatTreeIsRenderedAgain() {
+
+        //given
+        // DEV 조직과 떨어진 A>B 조직
+        departmentService.post(Department.of(5, "A"));
+        departmentService.post(Department.of(7, "B"));
+        departmentService.relate("A", "B");
+        departmentService.getDepartment("BACKEND");
+        departmentService.getDepartment("B");
+
+        //when
+        departmentService.update(Department.of(40, "FRONTEND"));
+        String backend = departmentService.getDepartment("BACKEND");
+        String b = departmentService.getDepartment("B");
+
+        //then
+        assertEquals(expectedService.getDepartment("BACKEND"), backend);
+        assertEquals(expectedService.getDepartment("B"), b);
+        assertEquals(1, registry.counter("cache.department.hits").get());
+        assertEquals(3, registry.counter("cache.department.misses").get());
+    }
+
+    @Test
+    void givenCachedResults_whenRootIsSetOrDepartmentMoves_thenResultsAreRenderedAgain() {
+
+        //given
+        departmentService.post(Department.of(5, "A"));
+        departmentService.post(Department.of(7, "B"));
+        departmentService.relate("A", "B");
+        departmentService.getDepartment("B");
+        departmentService.getDepartment("A");
+
+        //when and then
+        // 가장 상위 부서가 최상위 부서가 되면 같은 가장 상위 부서라도 출력이 바뀜
+        departmentService.relate("*", "A");
+        assertEquals(expectedService.getDepartment("A"), departmentService.getDepartment("A"));
+        assertEquals(expectedService.getDepartment("B"), departmentService.getDepartment("B"));
+
+        // 다른 조직으로 옮겨지면 가장 상위 부서가 바뀜
+        departmentService.relate("BACKEND", "B");
+        assertEquals(expectedService.getDepartment("A"), departmentService.getDepartment("A"));
+        assertEquals(expectedService.getDepartment("B"), departmentService.getDepartment("B"));
+        assertEquals(0, registry.counter("cache.department.hits").get());
+    }
+
+    @Test
+    void givenSmallMaxWeight_whenManyDepartmentsQueried_thenLeastRecentlyUsedAreEvicted() {
+
+        //given
+        // 결과 하나의 글자 수보다 조금 큰 한도로 결과를 하나만 유지
+        int length = expectedService.getDepartment("BACKEND").length();
+        CachingDepartmentService small = new CachingDepartmentService(
+                expectedService, departmentRepository, length + 1, registry);
+
+        //when
+        small.getDepartment("BACKEND");
+        small.getDepartment("DEVOPS");
+        small.getDepartment("BACKEND");
+
+        //then
+        assertEquals(0, registry.counter("cache.department.hits").get());
+        assertEquals(2, registry.counter("cache.department.evictions").get());
+    }
+
+    @Test
+    void givenUnknownDepartment_whenQueried_thenSameExceptionAsWrappedService() {
+        assertThrows(CustomRuntimeException.class, () -> departmentService.getDepartment("NOPE"));
+    }
+}
@@ -0,0 +1,164 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentDepartmentServiceTest {
+
+    private static final int MANAGERS = 10;
+    private static final int TEAMS = 40;
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int OPERATIONS = 2_000;
+
+    ConcurrentDepartmentRepository departmentRepository = new ConcurrentDepartmentRepository();
+    ConcurrentDepartmentService departmentService =
+            new ConcurrentDepartmentService(new DepartmentServiceImpl(departmentRepository), departmentRepository);
+
+    @Test
+    void givenReadersAndWriters_whenReorganizedConcurrently_thenHeadCountsStayConsistent() throws Exception {
+
+        //given
+        // *>HQ, HQ>MA..MJ, 각 관리 부서 아래에 4개의 팀
+        departmentService.post(Department.of(1, "HQ"));
+        departmentService.relate("*", "HQ");
+
+        for (int i = 0; i < MANAGERS; i++) {
+            departmentService.post(Department.of(1, managerName(i)));
+            departmentService.relate("HQ", managerName(i));
+        }
+        for (int i = 0; i < TEAMS; i++) {
+            departmentService.post(Department.of(5, teamName(i)));
+            departmentService.relate(managerName(i % MANAGERS), teamName(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        // 쓰기 스레드는 팀을 다른 관리 부서로 옮기거나 팀의 인원수를 바꾸고, 읽기 스레드는 팀을 조회
+        for (int w = 0; w < WRITERS; w++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    String team = teamName(random.nextInt(TEAMS));
+                    if (random.nextBoolean()) {
+                        departmentService.relate(managerName(random.nextInt(MANAGERS)), team);
+                    } else {
+                        departmentService.update(Department.of(random.nextInt(11), team));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    String result = departmentService.getDepartment(teamName(random.nextInt(TEAMS)));
+                    assertTrue(result.contains("[ HQ ]"), result);
+
+                    // 같은 스냅샷에서 읽은 HQ의 총 인원은 HQ와 관리 부서들의 총 인원의 합과 같음
+                    OrgChartSnapshot snapshot = departmentService.snapshot();
+                    int expected = snapshot.findBy("HQ").orElseThrow().getHeadCount();
+                    for (int m = 0; m < MANAGERS; m++) {
+                        expected += snapshot.findBy(managerName(m)).orElseThrow().getCombinedHeadCount();
+                    }
+                    assertEquals(expected, snapshot.findBy("HQ").orElseThrow().getCombinedHeadCount());
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        // 모든 부서의 총 인원은 자신의 인원과 하위 부서 총 인원의 합이고, HQ의 총 인원은 조직 전체 인원의 합
+        int sum = 0;
+        for (Department department : departmentRepository.findAll()) {
+            int expected = department.getHeadCount();
+            for (Department subordinate : department.getSubordinates()) {
+                expected += subordinate.getCombinedHeadCount();
+            }
+            assertEquals(expected, department.getCombinedHeadCount(), department.getName());
+
+            if (department.getName().equals("HQ") || department.getRoot() != null && department.getRoot().getName().equals("HQ")) {
+                sum += department.getHeadCount();
+            }
+        }
+
+        Department hq = departmentRepository.findBy("HQ").orElseThrow();
+        assertEquals(sum, hq.getCombinedHeadCount());
+    }
+
+    private static String managerName(int index) {
+        return "M" + (char) ('A' + index);
+    }
+
+    private static String teamName(int index) {
+        return "T" + (char) ('A' + index / 26) + (char) ('A' + index % 26);
+    }
+
+    @Test
+    void givenOpenTransaction_whenQueried_thenChangesArePublishedOnlyAtCommit() {
+
+        //given
+        DepartmentTransaction transaction = departmentService.begin();
+        transaction.post(Department.of(5, "QA"));
+        transaction.relate("DEV", "QA");
+        transaction.relate("DEVOPS", "FRONTEND");
+
+        //when
+        OrgChartSnapshot before = departmentService.snapshot();
+        transaction.commit();
+        OrgChartSnapshot after = departmentService.snapshot();
+
+        //then
+        assertTrue(before.findBy("QA").isEmpty());
+        assertEquals(80, before.findBy("DEV").orElseThrow().getCombinedHeadCount());
+        assertEquals(85, after.findBy("DEV").orElseThrow().getCombinedHeadCount());
+        assertEquals(50, after.findBy("DEVOPS").orElseThrow().getCombinedHeadCount());
+        assertEquals("현재부서: [ QA ], 최상위부서: [ DEV ], 총 인원: [ 85 ]", departmentService.getDepartment("QA"));
+    }
+
+    @Test
+    void givenOpenTransaction_whenSameThreadWritesOutsideIt_thenThrowsAndTransactionStillCommits() {
+
+        //given
+        DepartmentTransaction transaction = departmentService.begin();
+        transaction.relate("DEVOPS", "FRONTEND");
+
+        //when
+        Throwable write = assertThrows(CustomRuntimeException.class, () -> departmentService.relate("FRONTEND", "BACKEND"));
+        Throwable begin = assertThrows(CustomRuntimeException.class, departmentService::begin);
+        transaction.commit();
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.TRANSACTION_ALREADY_STARTED.getMessage(), write.getMessage());
+        assertEquals(CustomRuntimeExceptionCode.TRANSACTION_ALREADY_STARTED.getMessage(), begin.getMessage());
+        assertEquals("DEV", departmentRepository.findBy("BACKEND").orElseThrow().getSuperior().getName());
+        assertEquals(50, departmentService.snapshot().findBy("DEVOPS").orElseThrow().getCombinedHeadCount());
+        departmentService.relate("FRONTEND", "BACKEND");
+    }
+}
@@ -2,14 +2,17 @@ package com.sharetreats.department;
 
 import com.sharetreats.exception.CustomRuntimeException;
 import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import com.sharetreats.metrics.MetricsRegistry;
 import com.sharetreats.test_utils.DepartmentRepositoryTestImpl;
 import org.junit.jupiter.api.Test;
 
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DepartmentControllerTest {
 
@@ -38,4 +41,268 @@ public class DepartmentControllerTest {
             assertEquals(CustomRuntimeExceptionCode.NOT_VALID_COMMAND.getMessage(), result.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenBatchOfCommands_whenParsedAsBatch_thenOrgChartIsBuiltAtOnce() {
+
+        //given
+        // *>IT>QA>BACKENDAPI 조직을 하위 부서의 관계부터 입력
+        List<String> inputs = List.of(
+                "IT, 20", "QA, 0", "BACKENDAPI, 10", "",
+                "QA>BACKENDAPI", "IT>QA", "*>IT");
+
+        //when
+        departmentController.parseBatch(inputs);
+
+        //then
+        assertEquals("현재부서: [ BACKENDAPI ], 최상위부서: [ IT ], 총 인원: [ 30 ]", departmentController.parseCommand("BACKENDAPI"));
+    }
+
+    @Test
+    void givenBatchExceedingHeadCountLimit_whenParsedAsBatch_thenThrowsAndNothingIsPosted() {
+
+        //given
+        List<String> inputs = List.of("A, 600", "B, 600", "A>B");
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentController.parseBatch(inputs));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT.getMessage(), t.getMessage());
+        assertTrue(departmentRepository.findBy("A").isEmpty());
+    }
+
+    @Test
+    void givenBatchWithExistingName_whenParsedAsBatch_thenThrowsAndNothingIsPosted() {
+
+        //given
+        List<String> inputs = List.of("QA, 5", "DEV, 10");
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentController.parseBatch(inputs));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.DUPLICATED_NAME.getMessage(), t.getMessage());
+        assertTrue(departmentRepository.findBy("QA").isEmpty());
+    }
+
+    @Test
+    void givenBatchWithRootUnderRoot_whenParsedAsBatch_thenThrows() {
+
+        //given
+        List<String> inputs = List.of("A, 1", "B, 1", "*>A", "A>B", "*>B");
+
+        //when and then
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentController.parseBatch(inputs));
+        assertEquals(CustomRuntimeExceptionCode.ROOT_IS_ALREADY_SET.getMessage(), t.getMessage());
+    }
+
+    @Test
+    void givenMeteredService_whenStatsCommand_thenReportsCallsAndTreeShape() {
+
+        //given
+        MetricsRegistry registry = new MetricsRegistry(true);
+        DepartmentController controller = new DepartmentController(
+                new MeteredDepartmentService(departmentService, departmentRepository, registry), registry);
+        controller.parseCommand("QA, 5");
+        controller.parseCommand("BACKEND>QA");
+
+        //when
+        String report = controller.parseCommand("STATS");
+
+        //then
+        // DEV>BACKEND>QA 로 깊이 3, DEV 아래 3개의 부서
+        assertTrue(report.contains("service.post.calls 1"), report);
+        assertTrue(report.contains("service.relate.calls 1"), report);
+        assertTrue(report.contains("tree.departments 5"), report);
+        assertTrue(report.contains("tree.depth.max 3"), report);
+        assertTrue(report.contains("tree.width.max 3"), report);
+    }
+
+    @Test
+    void givenMeteredService_whenReportIsRead_thenTreeStatsComeFromLastChangeWithoutVisitingRepository() {
+
+        //given
+        // 게이지를 읽을 때 저장소를 읽으면 예외가 발생하는 저장소
+        AtomicBoolean reading = new AtomicBoolean();
+        DepartmentRepositoryTestImpl repository = new DepartmentRepositoryTestImpl() {
+            @Override
+            public List<Department> findAll() {
+                if (reading.get()) throw new IllegalStateException("report read the repository");
+                return super.findAll();
+            }
+        };
+        MetricsRegistry registry = new MetricsRegistry(true);
+        DepartmentService metered = new MeteredDepartmentService(new DepartmentServiceImpl(repository), repository, registry);
+        metered.post(Department.of(5, "QA"));
+        metered.relate("BACKEND", "QA");
+
+        //when
+        reading.set(true);
+        String report = registry.report();
+
+        //then
+        assertTrue(report.contains("tree.departments 5"), report);
+        assertTrue(report.contains("tree.depth.max 3"), report);
+    }
+
+    @Test
+    void givenReservedKeywordAsName_whenPosted_thenThrowsNotValidName() {
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentController.parseCommand("STATS, 10"));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_NAME.getMessage(), t.getMessage());
+    }
+
+    @Test
+    void givenTransaction_whenCommitted_thenAllCommandsAreApplied() {
+
+        //given
+        departmentController.parseCommand("BEGIN");
+        departmentController.parseCommand("QA, 5");
+        departmentController.parseCommand("DEV>QA");
+        departmentController.parseCommand("DEVOPS>FRONTEND");
+
+        //when
+        String result = departmentController.parseCommand("COMMIT");
+
+        //then
+        assertEquals("트랜잭션이 반영되었습니다. 변경된 부서 수: [ 2 ]", result);
+        assertEquals("현재부서: [ QA ], 최상위부서: [ DEV ], 총 인원: [ 85 ]", departmentController.parseCommand("QA"));
+        assertEquals(50, departmentRepository.findBy("DEVOPS").orElseThrow().getCombinedHeadCount());
+    }
+
+    @Test
+    void givenTransaction_whenRolledBack_thenOrgChartIsRestored() {
+
+        //given
+        String before = departmentService.getSubtreeSummary("DEV").toString();
+        departmentController.parseCommand("BEGIN");
+        departmentController.parseCommand("QA, 5");
+        departmentController.parseCommand("DEV>QA");
+        departmentController.parseCommand("DEVOPS>FRONTEND");
+        departmentController.parseCommand("FRONTEND>BACKEND");
+
+        //when
+        departmentController.parseCommand("ROLLBACK");
+
+        //then
+        assertTrue(departmentRepository.findBy("QA").isEmpty());
+        assertEquals("DEV", departmentRepository.findBy("BACKEND").orElseThrow().getSuperior().getName());
+        assertEquals("DEV", departmentRepository.findBy("FRONTEND").orElseThrow().getSuperior().getName());
+        assertEquals(before, departmentService.getSubtreeSummary("DEV").toString());
+    }
+
+    @Test
+    void givenHeadCountLimitExceededOnlyInTheMiddle_whenCommitted_thenLimitIsCheckedOnceAtCommit() {
+
+        //given
+        // A>B 에서 잠시 1200명이 되지만 B를 C로 옮기면 600명씩
+        departmentController.parseCommand("A, 600");
+        departmentController.parseCommand("B, 600");
+        departmentController.parseCommand("C, 0");
+        departmentController.parseCommand("BEGIN");
+        departmentController.parseCommand("A>B");
+        departmentController.parseCommand("C>B");
+
+        //when
+        departmentController.parseCommand("COMMIT");
+
+        //then
+        assertEquals(600, departmentRepository.findBy("A").orElseThrow().getCombinedHeadCount());
+        assertEquals(600, departmentRepository.findBy("C").orElseThrow().getCombinedHeadCount());
+    }
+
+    @Test
+    void givenHeadCountLimitExceededAtCommit_whenCommitted_thenThrowsAndEveryCommandIsRolledBack() {
+
+        //given
+        departmentController.parseCommand("BEGIN");
+        departmentController.parseCommand("BIG, 950");
+        departmentController.parseCommand("BACKEND>DEVOPS");
+        departmentController.parseCommand("DEV>BIG");
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentController.parseCommand("COMMIT"));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT.getMessage(), t.getMessage());
+        assertTrue(departmentRepository.findBy("BIG").isEmpty());
+        assertEquals("DEV", departmentRepository.findBy("DEVOPS").orElseThrow().getSuperior().getName());
+        assertEquals(80, departmentRepository.findBy("DEV").orElseThrow().getCombinedHeadCount());
+
+        Throwable again = assertThrows(CustomRuntimeException.class, () -> departmentController.parseCommand("COMMIT"));
+        assertEquals(CustomRuntimeExceptionCode.NO_TRANSACTION.getMessage(), again.getMessage());
+    }
+
+    @Test
+    void givenFailedCommandInTransaction_whenCommitted_thenOnlyOtherCommandsAreApplied() {
+
+        //given
+        departmentController.parseCommand("BEGIN");
+        departmentController.parseCommand("QA, 5");
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentController.parseCommand("QA>DEV"));
+        departmentController.parseCommand("BACKEND>QA");
+
+        //when
+        departmentController.parseCommand("COMMIT");
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.ROOT_CANNOT_BE_SUBORDINATED.getMessage(), t.getMessage());
+        assertEquals("현재부서: [ QA ], 최상위부서: [ DEV ], 총 인원: [ 85 ]", departmentController.parseCommand("QA"));
+    }
+
+    @Test
+    void givenTwoSessions_whenOneBeginsTransaction_thenOtherSessionNeitherJoinsNorSeesIt() {
+
+        //given
+        // 커밋된 변경만 스냅샷으로 게시하는 서비스를 여러 세션이 함께 사용
+        SingleWriterDepartmentService singleWriter = new SingleWriterDepartmentService(departmentService, departmentRepository);
+        DepartmentController departmentController = new DepartmentController(singleWriter);
+        DepartmentController.Session first = departmentController.openSession();
+        DepartmentController.Session second = departmentController.openSession();
+        departmentController.parseCommand("BEGIN", first);
+        departmentController.parseCommand("QA, 5", first);
+        departmentController.parseCommand("DEV>QA", first);
+        departmentController.parseCommand("DEVOPS>FRONTEND", first);
+
+        //when
+        // 다른 세션의 등록은 트랜잭션에 들어가지 않고, 커밋 전의 변경도 보이지 않음
+        departmentController.parseCommand("SEC, 3", second);
+        String devBeforeCommit = departmentController.parseCommand("DEVOPS", second);
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentController.parseCommand("COMMIT", second));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NO_TRANSACTION.getMessage(), t.getMessage());
+        assertTrue(departmentRepository.findBy("QA").isEmpty());
+        assertEquals("DEV", departmentRepository.findBy("FRONTEND").orElseThrow().getSuperior().getName());
+        assertEquals("현재부서: [ DEVOPS ], 최상위부서: [ DEV ], 총 인원: [ 80 ]", devBeforeCommit);
+
+        //when
+        departmentController.parseCommand("ROLLBACK", first);
+
+        //then
+        assertEquals(3, departmentRepository.findBy("SEC").orElseThrow().getHeadCount());
+        assertEquals(80, departmentRepository.findBy("DEV").orElseThrow().getCombinedHeadCount());
+        singleWriter.close();
+    }
+
+    @Test
+    void givenOpenTransaction_whenSameSessionQueries_thenSeesItsOwnUncommittedChanges() {
+
+        //given
+        departmentController.parseCommand("BEGIN");
+        departmentController.parseCommand("QA, 5");
+        departmentController.parseCommand("DEV>QA");
+
+        //when
+        String during = departmentController.parseCommand("BACKEND");
+        departmentController.parseCommand("ROLLBACK");
+
+        //then
+        assertEquals("현재부서: [ BACKEND ], 최상위부서: [ DEV ], 총 인원: [ 85 ]", during);
+        assertEquals("현재부서: [ BACKEND ], 최상위부서: [ DEV ], 총 인원: [ 80 ]", departmentController.parseCommand("BACKEND"));
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -168,4 +170,104 @@ public class DepartmentServiceImplTest {
             assertEquals(expectedTotalHeadCount, actual);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenDepartmentWithSubordinates_whenDeletedWithReHome_thenSubordinatesMoveToSuperior() {
+
+        //given
+        //relation *>DEV>BACKEND>API(5), BACKEND>BATCH(7), total headcount 92
+        Department api = departmentRepository.save(Department.of(5, "API"));
+        Department batch = departmentRepository.save(Department.of(7, "BATCH"));
+        departmentService.relate("BACKEND", "API");
+        departmentService.relate("BACKEND", "BATCH");
+        Department dev = departmentRepository.findBy("DEV").orElseThrow();
+
+        //when
+        departmentService.delete("BACKEND");
+
+        //then
+        assertTrue(departmentRepository.findBy("BACKEND").isEmpty());
+        assertSame(dev, api.getSuperior());
+        assertSame(dev, batch.getSuperior());
+        assertEquals(72, dev.getCombinedHeadCount());
+        assertEquals(4, dev.getDescendantCount());
+        assertEquals(1, dev.getSubtreeDepth());
+        assertEquals(72, batch.getTotalHeadCountOfDepartment());
+    }
+
+    @Test
+    void givenDepartmentWithSubordinates_whenDeletedWithCascade_thenWholeSubtreeIsRemoved() {
+
+        //given
+        //relation *>DEV>BACKEND>API(5)>AUTH(3), total headcount 88
+        departmentRepository.save(Department.of(5, "API"));
+        departmentRepository.save(Department.of(3, "AUTH"));
+        departmentService.relate("BACKEND", "API");
+        departmentService.relate("API", "AUTH");
+        Department dev = departmentRepository.findBy("DEV").orElseThrow();
+
+        //when
+        departmentService.delete("BACKEND", DeleteMode.CASCADE);
+
+        //then
+        for (String name : List.of("BACKEND", "API", "AUTH")) {
+            assertTrue(departmentRepository.findBy(name).isEmpty());
+        }
+        assertEquals(60, dev.getCombinedHeadCount());
+        assertEquals(2, dev.getDescendantCount());
+        assertEquals(1, dev.getSubtreeDepth());
+    }
+
+    @Test
+    void givenSeveralDepartments_whenDeletedAllAtOnce_thenNestedOnesAreCountedOnceAndRootAbortsEverything() {
+
+        //given
+        //relation *>DEV>BACKEND>API(5)
+        departmentRepository.save(Department.of(5, "API"));
+        departmentService.relate("BACKEND", "API");
+        Department dev = departmentRepository.findBy("DEV").orElseThrow();
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class,
+                () -> departmentService.deleteAll(List.of("FRONTEND", "DEV"), DeleteMode.RE_HOME));
+        String result = departmentService.deleteAll(List.of("API", "BACKEND", "FRONTEND"), DeleteMode.CASCADE);
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.ROOT_CANNOT_BE_DELETE.getMessage(), t.getMessage());
+        assertEquals("삭제된 부서 수: [ 3 ]", result);
+        assertEquals(40, dev.getCombinedHeadCount());
+        assertEquals(1, dev.getDescendantCount());
+    }
+
+    @Test
+    void givenLongTransaction_whenCommandsAreStaged_thenEachCommandLooksUpItsDepartmentsOnce() {
+
+        //given
+        // 저장소 조회 수로 명령을 몇 번 적용했는지 셈
+        AtomicInteger lookups = new AtomicInteger();
+        DepartmentRepositoryTestImpl repository = new DepartmentRepositoryTestImpl() {
+            @Override
+            public Optional<Department> findBy(String name) {
+                lookups.incrementAndGet();
+                return super.findBy(name);
+            }
+        };
+        DepartmentService service = new DepartmentServiceImpl(repository);
+        int commands = 200;
+        DepartmentTransaction transaction = service.begin();
+        lookups.set(0);
+
+        //when
+        for (int i = 0; i < commands; i++) {
+            if (i % 2 == 0) transaction.relate(i % 4 == 0 ? "FRONTEND" : "DEVOPS", "BACKEND");
+            else transaction.update(Department.of(i % 10, "BACKEND"));
+        }
+        transaction.commit();
+
+        //then
+        assertTrue(lookups.get() <= 2 * commands + 10, "lookups: " + lookups.get());
+        assertEquals("DEVOPS", repository.findBy("BACKEND").orElseThrow().getSuperior().getName());
+        assertEquals(9, repository.findBy("BACKEND").orElseThrow().getHeadCount());
+        assertEquals(69, repository.findBy("DEV").orElseThrow().getCombinedHeadCount());
+    }
+}
@@ -5,10 +5,13 @@ import com.sharetreats.exception.CustomRuntimeExceptionCode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 public class DepartmentTest {
 
@@ -104,6 +107,94 @@ public class DepartmentTest {
         assertEquals(expectedHeadCountOfNewRoot, newRoot.getTotalHeadCountOfDepartment());
     }
 
+    @Test
+    void givenDepartmentInSameHierarchy_whenRelocatedUnderAncestor_thenHeadCountsStayConsistent() {
+
+        // when
+        // c(4)를 b 아래에서 root 바로 아래로 이동
+        root.add(c);
+
+        // then
+        // root 의 총원은 그대로 15명, a는 c가 빠져 2 + 3 = 5명, b는 3명
+        assertEquals(15, root.getCombinedHeadCount());
+        assertEquals(5, a.getCombinedHeadCount());
+        assertEquals(3, b.getCombinedHeadCount());
+        assertEquals(4, c.getCombinedHeadCount());
+
+        // when
+        // c 의 인원이 4명에서 9명으로 늘어나면 c와 root 에만 반영
+        c.updateHeadcount(9);
+
+        // then
+        assertEquals(20, root.getCombinedHeadCount());
+        assertEquals(5, a.getCombinedHeadCount());
+        assertEquals(9, c.getCombinedHeadCount());
+    }
+
+    @Test
+    void givenSubtreeWithRoot_whenRelocatedToHierarchyWithoutRoot_thenRootOfSubtreeIsCleared() {
+
+        // given
+        // 최상위 부서가 없는 x(1) - y(1) 조직
+        Department x = Department.of(1, "X");
+        Department y = Department.of(1, "Y");
+        x.add(y);
+
+        // 캐시가 만들어지도록 조회
+        assertEquals(root, c.getRoot());
+        assertEquals(2, y.getTotalHeadCountOfDepartment());
+
+        // when
+        // b(3) - c(4)를 y 아래로 이동
+        y.add(b);
+
+        // then
+        assertEquals(null, b.getRoot());
+        assertEquals(null, c.getRoot());
+        assertEquals(9, c.getTotalHeadCountOfDepartment());
+        assertEquals(8, root.getTotalHeadCountOfDepartment());
+
+        // when
+        x.setAsRoot();
+
+        // then
+        assertEquals(x, c.getRoot());
+        assertEquals(x, y.getRoot());
+    }
+
+    @Test
+    void givenMillionLevelDeepHierarchy_whenQueriedAndUpdated_thenNoStackOverflow() {
+
+        // given
+        // 인원이 1명인 말단 부서 위로 0명인 부서 1,000,000개를 한 줄로 쌓은 조직
+        int depth = 1_000_000;
+        Department leaf = Department.of(1, "LEAF");
+        Department middle = null;
+        Department top = leaf;
+
+        for (int i = 0; i < depth; i++) {
+            Department superior = Department.of(0, "DEEP");
+            superior.add(top);
+            top = superior;
+            if (i == depth / 2) middle = top;
+        }
+
+        // when
+        top.setAsRoot();
+        leaf.updateHeadcount(7);
+        Department moved = Department.of(3, "MOVED");
+        leaf.add(moved);
+        middle.add(moved);
+
+        // then
+        assertEquals(top, leaf.getRoot());
+        assertEquals(top, moved.getRoot());
+        assertEquals(10, leaf.getTotalHeadCountOfDepartment());
+        assertEquals(10, top.getCombinedHeadCount());
+        assertEquals(7, leaf.getCombinedHeadCount());
+        assertEquals(10, middle.getCombinedHeadCount());
+    }
+
     @Test
     public void givenNewDepartment_whenNameIsNotUppercaseAlphabet_thenThrows() {
         Throwable t = assertThrows(CustomRuntimeException.class, () -> Department.of(15, "abC"));
@@ -178,4 +269,117 @@ public class DepartmentTest {
 
     }
 
+    @Test
+    public void givenDepartments_whenAddingNewRelation_thenSubtreeSummaryIsMaintained() {
+
+        //given
+        // root(1) - a(2) - b (3) - c (4)
+        //         - d(5)
+
+        //when
+        SubtreeSummary ofRoot = root.getSubtreeSummary();
+        SubtreeSummary ofA = a.getSubtreeSummary();
+
+        //then
+        assertEquals(15, ofRoot.getCombinedHeadCount());
+        assertEquals(4, ofRoot.getDescendantCount());
+        assertEquals(3, ofRoot.getDepth());
+        assertEquals(5, ofRoot.getMaxHeadCount());
+
+        assertEquals(9, ofA.getCombinedHeadCount());
+        assertEquals(2, ofA.getDescendantCount());
+        assertEquals(2, ofA.getDepth());
+        assertEquals(4, ofA.getMaxHeadCount());
+    }
+
+    @Test
+    public void givenDepartments_whenRelocatingAndDecreasingHeadCount_thenSubtreeSummaryShrinks() {
+
+        //given
+        // b(3) - c(4) 를 d 아래로 옮기면 root(1) - a(2)
+        //                                      - d(5) - b(3) - c(4)
+
+        //when
+        d.add(b);
+
+        //then
+        assertEquals(0, a.getDescendantCount());
+        assertEquals(0, a.getSubtreeDepth());
+        assertEquals(2, a.getMaxHeadCount());
+        assertEquals(2, d.getDescendantCount());
+        assertEquals(2, d.getSubtreeDepth());
+        assertEquals(3, root.getSubtreeDepth());
+        assertEquals(4, root.getDescendantCount());
+
+        //when
+        // 가장 많은 인원인 d의 인원수가 줄어들면 다음으로 많은 c의 인원수가 최대 인원수가 됨
+        d.updateHeadcount(1);
+
+        //then
+        assertEquals(4, d.getMaxHeadCount());
+        assertEquals(4, root.getMaxHeadCount());
+        assertEquals(11, root.getCombinedHeadCount());
+    }
+
+    @Test
+    void givenEightyThousandWideDepartment_whenSubordinatesAreLoweredAndMovedOut_thenSummaryIsKeptInLinearTime() {
+
+        //given
+        // 인원이 1명인 하위 부서 80,000개가 모두 WIDE의 최대 인원수를 가진 조직
+        int width = 80_000;
+        Department top = Department.of(0, "TOP");
+        Department wide = Department.of(0, "WIDE");
+        Department other = Department.of(0, "OTHER");
+        top.add(wide, HeadCountPolicy.UNLIMITED);
+        top.add(other, HeadCountPolicy.UNLIMITED);
+        List<Department> subordinates = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            Department subordinate = Department.of(1, "SUB");
+            wide.add(subordinate, HeadCountPolicy.UNLIMITED);
+            subordinates.add(subordinate);
+        }
+
+        //when
+        // 최대 인원수를 가진 하위 부서의 인원수를 줄이거나 옮길 때마다 하위 부서 전체를 다시 읽으면 시간 안에 끝나지 않음
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < width / 2; i++) {
+                subordinates.get(i).updateHeadcount(0, HeadCountPolicy.UNLIMITED);
+            }
+            assertEquals(1, wide.getMaxHeadCount());
+
+            for (Department subordinate : subordinates) {
+                other.add(subordinate, HeadCountPolicy.UNLIMITED);
+            }
+        });
+
+        //then
+        assertEquals(0, wide.getMaxHeadCount());
+        assertEquals(0, wide.getSubtreeDepth());
+        assertEquals(0, wide.getDescendantCount());
+        assertEquals(1, other.getMaxHeadCount());
+        assertEquals(1, other.getSubtreeDepth());
+        assertEquals(width / 2, other.getCombinedHeadCount());
+        assertEquals(2, top.getSubtreeDepth());
+        assertEquals(width + 2, top.getDescendantCount());
+    }
+
+    @Test
+    public void givenDepartments_whenRelatingAncestorUnderDescendant_thenCyclicRelationIsRejected() {
+
+        //given
+        // root(1) - a(2) - b (3) - c (4)
+        int expectedHeadCountOfRoot = 15;
+
+        //when and then
+        // c 아래에 c의 상위 부서인 a를 추가하거나 부서를 자신의 하위 부서로 추가하면 순환하는 조직도가 됨
+        CustomRuntimeException cyclic = assertThrows(CustomRuntimeException.class, () -> c.add(a));
+        CustomRuntimeException self = assertThrows(CustomRuntimeException.class, () -> a.add(a));
+
+        assertEquals(CustomRuntimeExceptionCode.CYCLIC_RELATION, cyclic.getCode());
+        assertEquals(CustomRuntimeExceptionCode.CYCLIC_RELATION, self.getCode());
+        assertEquals(root, a.getSuperior());
+        assertEquals(expectedHeadCountOfRoot, root.getCombinedHeadCount());
+        assertEquals(true, a.isAncestorOf(c));
+        assertEquals(false, c.isAncestorOf(a));
+    }
 }
@@ -0,0 +1,64 @@
+package com.sharetreats.department;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class HashTrieTest {
+
+    @Test
+    void givenRandomPutsAndRemoves_whenComparedWithHashMap_thenSameContents() {
+
+        //given
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<>();
+        HashTrie<String, Integer> trie = HashTrie.empty();
+
+        //when
+        for (int i = 0; i < 20_000; i++) {
+            String key = "K" + random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                trie = trie.remove(key);
+            } else {
+                expected.put(key, i);
+                trie = trie.put(key, i);
+            }
+        }
+
+        //then
+        for (int i = 0; i < 5_000; i++) {
+            String key = "K" + i;
+            assertEquals(expected.get(key), trie.get(key), key);
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        trie.forEachValue(value -> visited.merge(value, 1, Integer::sum));
+        assertEquals(expected.size(), visited.size());
+        for (Integer value : expected.values()) {
+            assertEquals(1, visited.get(value));
+        }
+    }
+
+    @Test
+    void givenKeysWithSameHash_whenPutAndRemoved_thenPreviousVersionUnchanged() {
+
+        //given
+        // "Aa"와 "BB"는 hashCode 가 같음
+        HashTrie<String, Integer> before = HashTrie.<String, Integer>empty().put("Aa", 1);
+
+        //when
+        HashTrie<String, Integer> after = before.put("BB", 2).remove("Aa");
+
+        //then
+        assertEquals(1, before.get("Aa"));
+        assertNull(before.get("BB"));
+        assertNull(after.get("Aa"));
+        assertEquals(2, after.get("BB"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HeadCountPolicyTest {
+
+    @Test
+    void givenDeepTreeNearLimit_whenHeadCountIncreasedAtLeaf_thenThrowsAndNothingChanges() {
+
+        //given
+        // A(900)>B(50)>C(40) 총 990명
+        Department a = Department.of(900, "A");
+        Department b = Department.of(50, "B");
+        Department c = Department.of(40, "C");
+        a.add(b);
+        b.add(c);
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> c.updateHeadcount(60));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT.getMessage(), t.getMessage());
+        assertEquals(40, c.getHeadCount());
+        assertEquals(990, a.getCombinedHeadCount());
+    }
+
+    @Test
+    void givenSubordinateAddedBelowSmallSuperior_whenTreeExceedsLimit_thenThrows() {
+
+        //given
+        // 상위 부서 B는 60명이지만 B가 속한 조직 전체는 960명
+        Department a = Department.of(900, "A");
+        Department b = Department.of(60, "B");
+        Department d = Department.of(50, "D");
+        a.add(b);
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> b.add(d));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT.getMessage(), t.getMessage());
+        assertEquals(960, a.getCombinedHeadCount());
+    }
+
+    @Test
+    void givenMoveWithinSameTree_whenAdded_thenHeadCountIsNotCountedTwice() {
+
+        //given
+        // A(600)>B(100)>C(300) 총 1000명에서 C를 A 바로 아래로 옮겨도 조직 전체의 인원수는 같음
+        Department a = Department.of(600, "A");
+        Department b = Department.of(100, "B");
+        Department c = Department.of(300, "C");
+        a.add(b);
+        b.add(c);
+
+        //when
+        a.add(c);
+
+        //then
+        assertEquals(1000, a.getCombinedHeadCount());
+        assertEquals(100, b.getCombinedHeadCount());
+    }
+
+    @Test
+    void givenSubtreeLimit_whenDivisionExceedsIt_thenThrowsWhileTreeLimitIsKept() {
+
+        //given
+        // 조직 전체는 1000명, 가장 상위 부서 바로 아래의 하위 조직은 300명까지
+        HeadCountPolicy policy = HeadCountPolicy.of(500, 300, 1000);
+        DepartmentRepositoryImpl departmentRepository = new DepartmentRepositoryImpl();
+        DepartmentService departmentService = new DepartmentServiceImpl(departmentRepository, policy);
+        departmentService.post(Department.of(100, "HQ"));
+        departmentService.post(Department.of(200, "SALES"));
+        departmentService.post(Department.of(90, "EAST"));
+        departmentService.post(Department.of(110, "WEST"));
+        departmentService.relate("HQ", "SALES");
+        departmentService.relate("SALES", "EAST");
+
+        //when
+        Throwable relate = assertThrows(CustomRuntimeException.class, () -> departmentService.relate("SALES", "WEST"));
+        Throwable update = assertThrows(CustomRuntimeException.class,
+                () -> departmentService.update(Department.of(110, "EAST")));
+        Throwable post = assertThrows(CustomRuntimeException.class, () -> departmentService.post(Department.of(600, "BIG")));
+        departmentService.relate("HQ", "WEST");
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT.getMessage(), relate.getMessage());
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT.getMessage(), update.getMessage());
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT.getMessage(), post.getMessage());
+        assertEquals(500, departmentRepository.findBy("HQ").orElseThrow().getCombinedHeadCount());
+        assertEquals(290, departmentRepository.findBy("SALES").orElseThrow().getCombinedHeadCount());
+    }
+
+    @Test
+    void givenPerDepartmentLimitAboveDefault_whenPolicyIsCreated_thenThrows() {
+
+        //when and then
+        // 부서 한 개는 Department.of에서 1000명까지만 만들 수 있으므로 더 큰 제한은 적용될 수 없음
+        assertThrows(IllegalArgumentException.class, () -> HeadCountPolicy.of(1001, 5000, 5000));
+        assertEquals(5000, HeadCountPolicy.of(1000, 5000, 5000).getMaxTreeHeadCount());
+    }
+}
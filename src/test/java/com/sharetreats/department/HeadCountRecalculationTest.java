@@ -0,0 +1,90 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HeadCountRecalculationTest {
+
+    // 나누어 계산하는 기준보다 많은 부서
+    private static final int DEPARTMENTS = HeadCountRecalculation.PARALLEL_THRESHOLD * 3;
+
+    @Test
+    void givenLargeOrgChart_whenBuilt_thenSameAsAddingOneByOne() {
+
+        //given
+        // 무작위 조직도를 OrgChartBuilder 로 만든 것과 Department#add 로 하나씩 연결한 것을 비교
+        Random random = new Random(3);
+        OrgChartBuilder builder = new OrgChartBuilder();
+        Department[] expected = new Department[DEPARTMENTS];
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            int headCount = random.nextInt(100) == 0 ? 1 : 0;
+            builder.department(nameOf(i), headCount);
+            expected[i] = Department.of(headCount, nameOf(i));
+
+            // 대부분은 바로 앞의 부서들 아래에, 일부는 맨 앞의 부서들 아래에 붙여 깊이와 너비가 섞인 조직도를 만들고,
+            // 일부는 상위 부서 없이 두거나 최상위 부서로 설정
+            if (i > 0 && i % 1000 != 0) {
+                int range = Math.min(i, 64);
+                int superior = random.nextInt(4) == 0 ? random.nextInt(range) : i - 1 - random.nextInt(range);
+                builder.relate(nameOf(superior), nameOf(i));
+                expected[superior].add(expected[i]);
+            } else if (i % 2000 == 0) {
+                builder.relate("*", nameOf(i));
+                expected[i].setAsRoot();
+            }
+        }
+
+        //when
+        List<Department> built = builder.buildValidated();
+
+        //then
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department actual = built.get(i);
+            assertEquals(expected[i].getSubtreeSummary().toString(), actual.getSubtreeSummary().toString());
+            assertEquals(expected[i].relationToString(), actual.relationToString());
+        }
+    }
+
+    @Test
+    void givenLargeOrgChart_whenHeadCountExceededOrRootUnderRoot_thenRejected() {
+
+        //given
+        // 한 줄로 이어진 큰 조직도의 맨 아래 부서에 1000명이 넘는 인원이 모이도록 설정
+        OrgChartBuilder overLimit = chain(DEPARTMENTS).department("OVER", 1000).relate(nameOf(DEPARTMENTS - 1), "OVER");
+        OrgChartBuilder rootUnderRoot = chain(DEPARTMENTS).relate("*", nameOf(0)).relate("*", nameOf(DEPARTMENTS / 2));
+        OrgChartBuilder cyclic = chain(DEPARTMENTS).relate(nameOf(DEPARTMENTS - 1), nameOf(0));
+
+        //when
+        CustomRuntimeException headCount = assertThrows(CustomRuntimeException.class, overLimit::buildValidated);
+        CustomRuntimeException root = assertThrows(CustomRuntimeException.class, rootUnderRoot::buildValidated);
+        CustomRuntimeException cycle = assertThrows(CustomRuntimeException.class, cyclic::buildValidated);
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.NOT_VALID_HEADCOUNT, headCount.getCode());
+        assertEquals(CustomRuntimeExceptionCode.ROOT_IS_ALREADY_SET, root.getCode());
+        assertEquals(CustomRuntimeExceptionCode.CYCLIC_RELATION, cycle.getCode());
+    }
+
+    private static OrgChartBuilder chain(int size) {
+        OrgChartBuilder builder = new OrgChartBuilder().department(nameOf(0), 1);
+        for (int i = 1; i < size; i++) {
+            builder.department(nameOf(i), 0).relate(nameOf(i - 1), nameOf(i));
+        }
+        return builder;
+    }
+
+    private static String nameOf(int index) {
+        StringBuilder name = new StringBuilder("D");
+        for (int i = index; i > 0; i /= 26) {
+            name.append((char) ('A' + i % 26));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.sharetreats.department;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NameDictionaryTest {
+
+    @Test
+    void givenRandomNames_whenInterned_thenSameIdsAsHashMap() {
+
+        //given
+        // 13글자 이하의 이름은 long 으로, 그보다 긴 이름과 * 는 HashMap 으로 저장됨
+        Random random = new Random(11);
+        NameDictionary dictionary = new NameDictionary();
+        Map<String, Integer> expected = new HashMap<>();
+        dictionary.intern("*");
+        expected.put("*", 0);
+
+        //when
+        for (int i = 0; i < 50_000; i++) {
+            String name = randomName(random, 1 + random.nextInt(random.nextBoolean() ? 3 : 20));
+            int id = dictionary.intern(name);
+            expected.putIfAbsent(name, expected.size());
+            assertEquals(expected.get(name), id, name);
+        }
+
+        //then
+        assertEquals(expected.size(), dictionary.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), dictionary.idOf(entry.getKey()));
+            assertEquals(entry.getKey(), dictionary.nameOf(entry.getValue()));
+        }
+        assertEquals(NameDictionary.NONE, dictionary.idOf("NOTINTERNEDNAMEATALL"));
+    }
+
+    @Test
+    void givenNamesInternedAndRemoved_whenRepeated_thenIdsAreReusedAndLookupsStayCorrect() {
+
+        //given
+        // 짧은 이름이 많아 선형 탐사 중인 칸을 지우는 경우가 자주 생김
+        Random random = new Random(7);
+        NameDictionary dictionary = new NameDictionary();
+        Map<String, Integer> expected = new HashMap<>();
+        int maxLive = 0;
+
+        //when
+        for (int i = 0; i < 100_000; i++) {
+            String name = randomName(random, 1 + random.nextInt(random.nextBoolean() ? 2 : 16));
+            if (random.nextInt(3) == 0) {
+                Integer id = expected.remove(name);
+                assertEquals(id == null ? NameDictionary.NONE : id, dictionary.remove(name), name);
+            } else {
+                int id = dictionary.intern(name);
+                assertEquals(expected.computeIfAbsent(name, n -> id), id, name);
+            }
+            maxLive = Math.max(maxLive, expected.size());
+        }
+
+        //then
+        assertEquals(expected.size(), dictionary.size());
+        assertTrue(dictionary.idLimit() <= maxLive, dictionary.idLimit() + " > " + maxLive);
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), dictionary.idOf(entry.getKey()));
+            assertEquals(entry.getKey(), dictionary.nameOf(entry.getValue()));
+        }
+    }
+
+    @Test
+    void givenNamesDifferingOnlyByLength_whenPacked_thenDifferentKeys() {
+
+        //given and when and then
+        // 'A'를 0이 아닌 1로 담기 때문에 A, AA, AAA 가 서로 다른 값이 됨
+        assertNotEquals(NameDictionary.pack("A"), NameDictionary.pack("AA"));
+        assertNotEquals(NameDictionary.pack("AA"), NameDictionary.pack("AAA"));
+        assertNotEquals(0L, NameDictionary.pack("ZZZZZZZZZZZZZ"));
+        assertEquals(0L, NameDictionary.pack("ZZZZZZZZZZZZZZ"));
+        assertEquals(0L, NameDictionary.pack("*"));
+    }
+
+    private static String randomName(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('A' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
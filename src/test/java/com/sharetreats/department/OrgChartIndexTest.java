@@ -0,0 +1,75 @@
+package com.sharetreats.department;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrgChartIndexTest {
+
+    private static final int DEPARTMENTS = 200;
+
+    @Test
+    void givenRandomOrgChart_whenIndexed_thenAncestorChecksMatchSuperiorWalk() {
+
+        //given
+        // 각 부서를 앞서 만든 부서 중 하나의 하위 부서로 추가하고, 일부는 가장 상위의 부서로 남김
+        Random random = new Random(17);
+        List<Department> departments = new ArrayList<>();
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = Department.of(random.nextInt(5), nameOf(i));
+            if (i > 0 && random.nextInt(10) != 0) {
+                departments.get(random.nextInt(i)).add(department);
+            }
+            departments.add(department);
+        }
+
+        //when
+        OrgChartIndex index = OrgChartIndex.of(departments);
+
+        //then
+        assertEquals(DEPARTMENTS, index.size());
+        for (Department ancestor : departments) {
+            List<String> subtree = index.subtreeOf(ancestor.getName());
+            assertEquals(ancestor.getName(), subtree.get(0));
+            assertEquals(ancestor.getDescendantCount() + 1, subtree.size());
+
+            for (Department descendant : departments) {
+                assertEquals(ancestor.isAncestorOf(descendant),
+                        index.isAncestorOf(ancestor.getName(), descendant.getName()));
+            }
+        }
+    }
+
+    @Test
+    void givenSnapshot_whenDepartmentMoved_thenOnlyNewSnapshotIndexReflectsIt() {
+
+        //given
+        DepartmentRepositoryImpl departmentRepository = new DepartmentRepositoryImpl();
+        ConcurrentDepartmentService departmentService =
+                new ConcurrentDepartmentService(new DepartmentServiceImpl(departmentRepository), departmentRepository);
+        departmentService.post(Department.of(1, "QA"));
+        departmentService.relate("BACKEND", "QA");
+        OrgChartSnapshot before = departmentService.snapshot();
+
+        //when
+        departmentService.relate("FRONTEND", "QA");
+        OrgChartSnapshot after = departmentService.snapshot();
+
+        //then
+        assertTrue(before.index().isAncestorOf("BACKEND", "QA"));
+        assertFalse(after.index().isAncestorOf("BACKEND", "QA"));
+        assertTrue(after.index().isAncestorOf("FRONTEND", "QA"));
+        assertTrue(after.index().isAncestorOf("DEV", "QA"));
+        assertEquals(List.of("FRONTEND", "QA"), after.index().subtreeOf("FRONTEND"));
+    }
+
+    private static String nameOf(int index) {
+        return "D" + (char) ('A' + index / 26) + (char) ('A' + index % 26);
+    }
+}
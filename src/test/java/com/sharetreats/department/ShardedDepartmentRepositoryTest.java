@@ -0,0 +1,105 @@
+package com.sharetreats.department;
+
+import com.sharetreats.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedDepartmentRepositoryTest {
+
+    MetricsRegistry registry = new MetricsRegistry(true);
+    ShardedDepartmentRepository departmentRepository = ShardedDepartmentRepository.byTopDepartment(16, registry);
+    DepartmentService departmentService = new DepartmentServiceImpl(departmentRepository);
+
+    @Test
+    void givenTwoOrgCharts_whenSubtreeIsRelatedAcrossCharts_thenItMovesToTheOtherShardInOneOperation() {
+
+        //given
+        // *>DEV(80명)과 SALES(5)>EAST(3)>NORTHEAST(2)는 서로 다른 샤드에 저장됨
+        departmentService.post(Department.of(5, "SALES"));
+        departmentService.post(Department.of(3, "EAST"));
+        departmentService.post(Department.of(2, "NORTHEAST"));
+        departmentService.relate("SALES", "EAST");
+        departmentService.relate("EAST", "NORTHEAST");
+        int devShard = departmentRepository.shardIndexOf("DEV");
+        int salesShard = departmentRepository.shardIndexOf("NORTHEAST");
+        assertNotEquals(devShard, salesShard);
+
+        //when
+        departmentService.relate("DEV", "SALES");
+
+        //then
+        for (String name : List.of("SALES", "EAST", "NORTHEAST")) {
+            assertEquals(devShard, departmentRepository.shardIndexOf(name));
+        }
+        assertEquals(90, departmentRepository.findBy("NORTHEAST").orElseThrow().getTotalHeadCountOfDepartment());
+        assertEquals(3, registry.counter("repository.shard." + salesShard + ".moves").get());
+        assertEquals(7, departmentRepository.findAll().size());
+    }
+
+    @Test
+    void givenTenantKey_whenTenantsAreBuiltInParallel_thenEachShardHoldsItsOwnOrgChart() throws Exception {
+
+        //given
+        // 부서 이름의 첫 글자를 테넌트 키로 사용하고, 테넌트마다 다른 스레드가 A>B>C... 형태의 조직도를 만듦
+        ShardedDepartmentRepository repository =
+                ShardedDepartmentRepository.byTenant(d -> d.getName().substring(0, 1), 16, registry);
+        List<String> tenants = List.of("P", "Q", "R", "S");
+        int departments = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(tenants.size());
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (String tenant : tenants) {
+            futures.add(executor.submit(() -> {
+                DepartmentService service = new DepartmentServiceImpl(repository, HeadCountPolicy.UNLIMITED);
+                for (int i = 0; i < departments; i++) {
+                    service.post(Department.of(1, tenant + nameOf(i)));
+                    if (i > 0) service.relate(tenant + nameOf(i - 1), tenant + nameOf(i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(4 + tenants.size() * departments, repository.findAll().size());
+        for (String tenant : tenants) {
+            Department top = repository.findBy(tenant + nameOf(0)).orElseThrow();
+            Department last = repository.findBy(tenant + nameOf(departments - 1)).orElseThrow();
+            assertEquals(departments, top.getCombinedHeadCount());
+            assertEquals(repository.shardIndexOf(top.getName()), repository.shardIndexOf(last.getName()));
+        }
+        assertTrue(repository.findBy("PAAA").isPresent());
+    }
+
+    private static String nameOf(int index) {
+        return "" + (char) ('A' + index / 676) + (char) ('A' + index / 26 % 26) + (char) ('A' + index % 26);
+    }
+
+    @Test
+    void givenDepartmentsInSeveralShards_whenStreamed_thenEveryShardIsVisitedOnce() {
+
+        //given
+        departmentService.post(Department.of(5, "SALES"));
+        departmentService.post(Department.of(3, "EAST"));
+        departmentService.relate("SALES", "EAST");
+
+        //when
+        List<String> names = departmentRepository.stream().map(Department::getName).sorted().collect(Collectors.toList());
+
+        //then
+        assertEquals(List.of("BACKEND", "DEV", "DEVOPS", "EAST", "FRONTEND", "SALES"), names);
+    }
+}
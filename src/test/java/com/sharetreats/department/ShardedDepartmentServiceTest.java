@@ -0,0 +1,134 @@
+package com.sharetreats.department;
+
+import com.sharetreats.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedDepartmentServiceTest {
+
+    private static final int CHARTS = 4;
+    private static final int OPERATIONS = 2_000;
+
+    ShardedDepartmentRepository departmentRepository = ShardedDepartmentRepository.byTopDepartment(16, new MetricsRegistry(false));
+
+    @Test
+    void givenWriteHeldInsideOneChart_whenAnotherChartIsUpdated_thenItDoesNotWait() throws Exception {
+
+        //given
+        // SALES 조직의 인원수 변경이 샤드 잠금을 잡은 채로 멈춰 있는 동안 DEV 조직을 변경
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        DepartmentService inner = new DepartmentServiceImpl(departmentRepository) {
+            @Override
+            public String update(Department department) {
+                if (department.getName().equals("SALES")) {
+                    entered.countDown();
+                    try {
+                        if (!released.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("not released");
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.update(department);
+            }
+        };
+        DepartmentService departmentService = new ShardedDepartmentService(inner, departmentRepository);
+        departmentService.post(Department.of(5, "SALES"));
+        assertNotEquals(departmentRepository.shardIndexOf("DEV"), departmentRepository.shardIndexOf("SALES"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        //when
+        Future<String> blocked = executor.submit(() -> departmentService.update(Department.of(7, "SALES")));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        departmentService.relate("DEVOPS", "FRONTEND");
+        departmentService.update(Department.of(25, "BACKEND"));
+        released.countDown();
+
+        //then
+        assertEquals("현재부서: [ SALES ], 현재부서의 인원: [ 7 ] ", blocked.get(5, TimeUnit.SECONDS));
+        assertEquals("현재부서: [ FRONTEND ], 최상위부서: [ DEV ], 총 인원: [ 85 ]", departmentService.getDepartment("FRONTEND"));
+        executor.shutdown();
+    }
+
+    @Test
+    void givenThreadsReorganizingTheirChartsAndMovingAcrossCharts_whenDone_thenCountsAndShardsStayConsistent() throws Exception {
+
+        //given
+        // 조직도마다 최상위 부서 하나와 팀 20개, 스레드마다 자기 조직도를 바꾸면서 가끔 팀을 다른 조직도로 옮김
+        DepartmentService departmentService = new ShardedDepartmentService(
+                new DepartmentServiceImpl(departmentRepository, HeadCountPolicy.UNLIMITED), departmentRepository);
+        for (int c = 0; c < CHARTS; c++) {
+            departmentService.post(Department.of(1, topName(c)));
+            departmentService.relate("*", topName(c));
+            for (int t = 0; t < 20; t++) {
+                departmentService.post(Department.of(1, teamName(c, t)));
+                departmentService.relate(topName(c), teamName(c, t));
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(CHARTS);
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CHARTS; c++) {
+            int chart = c;
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    String team = teamName(chart, random.nextInt(20));
+                    String other = teamName(chart, random.nextInt(20));
+                    int action = random.nextInt(10);
+                    try {
+                        if (action < 4) {
+                            departmentService.update(Department.of(random.nextInt(50), team));
+                        } else if (action < 8) {
+                            departmentService.relate(other, team);
+                        } else if (action < 9) {
+                            departmentService.relate(topName(random.nextInt(CHARTS)), team);
+                        } else {
+                            departmentService.getDepartment(team);
+                        }
+                    } catch (RuntimeException e) {
+                        // 순환 관계처럼 거부된 명령은 무시
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        List<Department> departments = departmentRepository.findAll();
+        assertEquals(4 + CHARTS * 21, departments.size());
+        for (Department department : departments) {
+            int expected = department.getHeadCount();
+            for (Department subordinate : department.getSubordinates()) {
+                expected += subordinate.getCombinedHeadCount();
+            }
+            assertEquals(expected, department.getCombinedHeadCount(), department.getName());
+            assertEquals(departmentRepository.shardIndexFor(department), departmentRepository.shardIndexOf(department.getName()),
+                    department.getName());
+        }
+    }
+
+    private static String topName(int chart) {
+        return "HQ" + (char) ('A' + chart);
+    }
+
+    private static String teamName(int chart, int team) {
+        return "T" + (char) ('A' + chart) + (char) ('A' + team);
+    }
+}
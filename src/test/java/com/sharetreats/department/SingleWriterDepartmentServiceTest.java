@@ -0,0 +1,149 @@
+package com.sharetreats.department;
+
+import com.sharetreats.exception.CustomRuntimeException;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleWriterDepartmentServiceTest {
+
+    private static final int WRITERS = 4;
+    private static final int POSTS_PER_WRITER = 500;
+
+    DepartmentRepositoryImpl departmentRepository = new DepartmentRepositoryImpl();
+    SingleWriterDepartmentService departmentService =
+            new SingleWriterDepartmentService(new DepartmentServiceImpl(departmentRepository), departmentRepository, 64);
+
+    @AfterEach
+    void close() {
+        departmentService.close();
+    }
+
+    @Test
+    void givenMutationThrowingError_whenApplied_thenOnlyThatCallerFailsAndWriterKeepsRunning() {
+
+        //given
+        // BOOM을 등록하면 StackOverflowError가 발생하는 서비스
+        DepartmentService failing = new DepartmentServiceImpl(departmentRepository) {
+            @Override
+            public String post(Department department) {
+                if (department.getName().equals("BOOM")) throw new StackOverflowError();
+                return super.post(department);
+            }
+        };
+        SingleWriterDepartmentService service = new SingleWriterDepartmentService(failing, departmentRepository, 64);
+
+        try {
+            //when
+            assertThrows(StackOverflowError.class, () -> service.post(Department.of(1, "BOOM")));
+            service.post(Department.of(5, "QA"));
+
+            //then
+            assertTrue(departmentRepository.findBy("QA").isPresent());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void givenManyThreadsSubmittingMutations_whenApplied_thenAllAppliedAndVisibleToReaders() throws Exception {
+
+        //given
+        // 각 스레드는 부서를 등록하고 DEV 아래로 옮긴 뒤 바로 조회
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < POSTS_PER_WRITER; i++) {
+                    String name = nameOf(writer * POSTS_PER_WRITER + i);
+                    departmentService.postAsync(Department.of(0, name));
+                    departmentService.relate("DEV", name);
+
+                    // 변경의 결과를 받은 뒤의 조회는 그 변경을 볼 수 있음
+                    String result = departmentService.getDepartmentAsync(name).join();
+                    assertTrue(result.contains("최상위부서: [ DEV ]"), result);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        Department dev = departmentRepository.findBy("DEV").orElseThrow();
+        assertEquals(3 + WRITERS * POSTS_PER_WRITER, dev.getSubordinates().size());
+        assertEquals(80, departmentService.snapshot().findBy("DEV").orElseThrow().getCombinedHeadCount());
+    }
+
+    @Test
+    void givenMutationThatFails_whenSubmitted_thenSameExceptionIsThrownToCaller() {
+
+        //given
+        Department duplicated = Department.of(1, "DEV");
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, () -> departmentService.post(duplicated));
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.DUPLICATED_NAME.getMessage(), t.getMessage());
+    }
+
+    @Test
+    void givenQueuedMutations_whenClosed_thenQueuedAppliedAndLaterRejected() {
+
+        //given
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(departmentService.postAsync(Department.of(1, nameOf(i))));
+        }
+
+        //when
+        departmentService.close();
+
+        //then
+        for (CompletableFuture<String> future : futures) {
+            assertTrue(future.isDone() && !future.isCompletedExceptionally());
+        }
+        assertThrows(RejectedExecutionException.class, () -> departmentService.post(Department.of(1, "QA")));
+    }
+
+    private static String nameOf(int index) {
+        return "T" + (char) ('A' + index / 676) + (char) ('A' + index / 26 % 26) + (char) ('A' + index % 26);
+    }
+
+    @Test
+    void givenTransactionWithFailingCommand_whenCommitted_thenThrowsAndNothingIsApplied() {
+
+        //given
+        DepartmentTransaction transaction = departmentService.begin();
+        transaction.post(Department.of(5, "QA"));
+        transaction.relate("DEV", "QA");
+        transaction.relate("QA", "DEV");
+
+        //when
+        Throwable t = assertThrows(CustomRuntimeException.class, transaction::commit);
+
+        //then
+        assertEquals(CustomRuntimeExceptionCode.ROOT_CANNOT_BE_SUBORDINATED.getMessage(), t.getMessage());
+        assertTrue(departmentRepository.findBy("QA").isEmpty());
+        assertEquals(80, departmentService.snapshot().findBy("DEV").orElseThrow().getCombinedHeadCount());
+    }
+}
@@ -0,0 +1,112 @@
+package com.sharetreats.department;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TraversalTest {
+
+    Department root = Department.of(1, "ROOT", true);
+    Department a = Department.of(2, "A");
+    Department b = Department.of(3, "B");
+    Department c = Department.of(4, "C");
+    Department d = Department.of(5, "D");
+
+    @Test
+    void givenHierarchy_whenTraversed_thenVisitedInEachOrder() {
+
+        //given
+        // root - a - b
+        //          - c
+        //      - d
+        root.add(a);
+        root.add(d);
+        a.add(b);
+        a.add(c);
+
+        //when
+        List<String> preOrder = namesOf(Traversal.PRE_ORDER, root);
+        List<String> postOrder = namesOf(Traversal.POST_ORDER, root);
+        List<String> levelOrder = namesOf(Traversal.LEVEL_ORDER, root);
+
+        //then
+        assertEquals(List.of("ROOT", "A", "B", "C", "D"), preOrder);
+        assertEquals(List.of("B", "C", "A", "D", "ROOT"), postOrder);
+        assertEquals(List.of("ROOT", "A", "D", "B", "C"), levelOrder);
+        assertEquals(List.of("A", "B", "C"), namesOf(Traversal.PRE_ORDER, a));
+    }
+
+    @Test
+    void givenVeryDeepChain_whenTraversed_thenNoStackOverflowAndSizeIsKnown() {
+
+        //given
+        // 재귀로 순회하면 호출 스택이 넘치는 깊이의 조직도
+        int depth = 200_000;
+        OrgChartBuilder builder = new OrgChartBuilder().department("D", 0);
+        String superior = "D";
+        for (int i = 1; i < depth; i++) {
+            String name = nameOf(i);
+            builder.department(name, 0).relate(superior, name);
+            superior = name;
+        }
+        Department top = builder.build().get(0);
+
+        //when and then
+        for (Traversal traversal : Traversal.values()) {
+            Spliterator<Department> spliterator = traversal.spliterator(top);
+            assertEquals(depth, spliterator.getExactSizeIfKnown());
+            assertEquals(depth, traversal.stream(top).count());
+        }
+        assertEquals(nameOf(depth - 1), Traversal.POST_ORDER.iterator(top).next().getName());
+    }
+
+    @Test
+    void givenWideOrgChartInRepository_whenHierarchyIsIterated_thenSubtreeIsNotCollectedBeforeFirstDepartment() {
+
+        //given
+        // 상위 부서 D 아래에 하위 부서 200,000개
+        int width = 200_000;
+        OrgChartBuilder builder = new OrgChartBuilder().department("D", 0);
+        for (int i = 1; i <= width; i++) {
+            builder.department(nameOf(i), 0).relate("D", nameOf(i));
+        }
+        DepartmentRepository repository = new ConcurrentDepartmentRepository();
+        builder.build().forEach(repository::save);
+        Department last = repository.findBy(nameOf(width)).orElseThrow();
+
+        for (Iterator<Department> hierarchy : List.of(repository.hierarchyIterator(Traversal.PRE_ORDER),
+                repository.streamHierarchy(Traversal.PRE_ORDER).iterator())) {
+
+            //when
+            // D를 꺼낸 뒤 마지막 하위 부서 아래에 부서를 추가. 하위 조직을 미리 모았다면 추가한 부서는 방문하지 않음
+            while (!hierarchy.next().getName().equals("D")) {
+            }
+            Department added = Department.of(0, "ADDED");
+            last.add(added);
+            boolean addedVisited = false;
+            while (hierarchy.hasNext()) {
+                addedVisited |= hierarchy.next() == added;
+            }
+
+            //then
+            assertEquals(true, addedVisited);
+        }
+    }
+
+    private static List<String> namesOf(Traversal traversal, Department from) {
+        return traversal.stream(from).map(Department::getName).collect(Collectors.toList());
+    }
+
+    private static String nameOf(int index) {
+        StringBuilder name = new StringBuilder("D");
+        for (int i = index; i > 0; i /= 26) {
+            name.append((char) ('A' + i % 26));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sharetreats.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void givenUniformValues_whenRecorded_thenPercentilesWithinBucketError() {
+
+        //given
+        MetricsRegistry registry = new MetricsRegistry(true);
+        Histogram histogram = registry.histogram("latency");
+
+        //when
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+
+        //then
+        // 구간의 하한을 반환하므로 실제 값보다 최대 1/8 작음
+        long p50 = histogram.percentile(50);
+        long p99 = histogram.percentile(99);
+        assertTrue(p50 <= 50_000 && p50 >= 50_000 * 7 / 8, String.valueOf(p50));
+        assertTrue(p99 <= 99_000 && p99 >= 99_000 * 7 / 8, String.valueOf(p99));
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(100_000, histogram.getCount());
+    }
+
+    @Test
+    void givenSmallValues_whenIndexed_thenExactAndIndexesAreMonotonic() {
+
+        //when and then
+        for (long v = 0; v < 8; v++) {
+            assertEquals(v, Histogram.lowerBoundOf(Histogram.indexOf(v)));
+        }
+        for (long v = 8; v < 1_000_000; v += 7) {
+            long lower = Histogram.lowerBoundOf(Histogram.indexOf(v));
+            assertTrue(lower <= v && v - lower <= v / 8, String.valueOf(v));
+        }
+        assertTrue(Histogram.indexOf(Long.MAX_VALUE) < (Long.SIZE - 2) * 8);
+    }
+
+    @Test
+    void givenDisabledRegistry_whenRecorded_thenNothingIsCounted() {
+
+        //given
+        MetricsRegistry registry = new MetricsRegistry(false);
+
+        //when
+        registry.counter("calls").increment();
+        registry.histogram("latency").record(10);
+
+        //then
+        assertEquals(0, registry.counter("calls").get());
+        assertEquals(0, registry.histogram("latency").getCount());
+    }
+
+    @Test
+    void givenGaugeThatFailsOnce_whenDumped_thenLaterDumpsStillRun() throws Exception {
+
+        //given
+        MetricsRegistry registry = new MetricsRegistry(true);
+        AtomicInteger calls = new AtomicInteger();
+        registry.gauges("flaky", () -> {
+            if (calls.incrementAndGet() == 1) throw new ConcurrentModificationException();
+            return Map.of("value", 1L);
+        });
+        BlockingQueue<String> dumps = new LinkedBlockingQueue<>();
+
+        //when
+        Closeable dump = registry.startDump(10, TimeUnit.MILLISECONDS, dumps::add);
+        String first = dumps.poll(5, TimeUnit.SECONDS);
+        String second = dumps.poll(5, TimeUnit.SECONDS);
+        dump.close();
+
+        //then
+        assertTrue(first.startsWith("지표를 기록하지 못했습니다."), first);
+        assertEquals("flaky.value 1", second);
+    }
+}
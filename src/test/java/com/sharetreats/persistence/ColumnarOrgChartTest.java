@@ -0,0 +1,105 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.CachingDepartmentService;
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentRepositoryImpl;
+import com.sharetreats.department.DepartmentService;
+import com.sharetreats.department.DepartmentServiceImpl;
+import com.sharetreats.department.MeteredDepartmentService;
+import com.sharetreats.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ColumnarOrgChartTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenExportedOrgChart_whenOpened_thenQueriesMatchWithoutMaterializing() throws IOException {
+
+        //given
+        // 기본 조직에 A>B 형태의 최상위 부서가 없는 조직을 추가
+        DepartmentRepositoryImpl repository = new DepartmentRepositoryImpl();
+        DepartmentService departmentService = new DepartmentServiceImpl(repository);
+        departmentService.post(Department.of(3, "A"));
+        departmentService.post(Department.of(4, "B"));
+        departmentService.relate("A", "B");
+
+        Path file = directory.resolve("org.chart");
+        ColumnarOrgChart.write(repository.findAll(), file);
+
+        //when
+        ColumnarOrgChart chart = ColumnarOrgChart.open(file);
+
+        //then
+        assertEquals(6, chart.size());
+        assertEquals(-1, chart.indexOf("QA"));
+        assertEquals(80, chart.combinedHeadCountOf(chart.indexOf("DEV")));
+        for (String name : new String[]{"DEV", "BACKEND", "FRONTEND", "DEVOPS", "A", "B"}) {
+            assertEquals(departmentService.getDepartment(name), chart.relationToString(name));
+        }
+    }
+
+    @Test
+    void givenExportedOrgChart_whenLoadedLazily_thenRepositoryIsRestored() throws IOException {
+
+        //given
+        Path file = directory.resolve("org.chart");
+        ColumnarOrgChart.write(new DepartmentRepositoryImpl().findAll(), file);
+        ColumnarOrgChart chart = ColumnarOrgChart.open(file);
+
+        //when
+        DepartmentRepositoryImpl repository = new DepartmentRepositoryImpl(chart::toDepartments);
+        DepartmentService departmentService = new DepartmentServiceImpl(repository);
+        departmentService.post(Department.of(5, "QA"));
+        departmentService.relate("DEV", "QA");
+
+        //then
+        Department qa = repository.findBy("QA").orElseThrow();
+        assertEquals("DEV", qa.getRoot().getName());
+        assertEquals(85, qa.getTotalHeadCountOfDepartment());
+    }
+
+    @Test
+    void givenImportedOrgChart_whenQueriedBeforeChange_thenAnsweredFromFileWithoutLoading() throws IOException {
+
+        //given
+        Path file = directory.resolve("org.chart");
+        DepartmentService expected = new DepartmentServiceImpl(new DepartmentRepositoryImpl());
+        ColumnarOrgChart.write(new DepartmentRepositoryImpl().findAll(), file);
+        ColumnarOrgChart chart = ColumnarOrgChart.open(file);
+
+        AtomicInteger loads = new AtomicInteger();
+        DepartmentRepositoryImpl repository = new DepartmentRepositoryImpl(() -> {
+            loads.incrementAndGet();
+            return chart.toDepartments();
+        });
+        DepartmentService departmentService = new MeteredDepartmentService(
+                new ColumnarDepartmentService(chart,
+                        new CachingDepartmentService(new DepartmentServiceImpl(repository), repository)),
+                repository, new MetricsRegistry(true));
+
+        //when
+        for (String name : new String[]{"DEV", "BACKEND", "FRONTEND", "DEVOPS"}) {
+            assertEquals(expected.getDepartment(name), departmentService.getDepartment(name));
+        }
+        int loadsBeforeChange = loads.get();
+        departmentService.post(Department.of(5, "QA"));
+        departmentService.relate("DEV", "QA");
+
+        //then
+        assertEquals(0, loadsBeforeChange);
+        assertEquals(1, loads.get());
+        expected.post(Department.of(5, "QA"));
+        expected.relate("DEV", "QA");
+        assertEquals(expected.getDepartment("BACKEND"), departmentService.getDepartment("BACKEND"));
+        assertEquals(expected.getDepartment("QA"), departmentService.getDepartment("QA"));
+    }
+}
@@ -0,0 +1,261 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.DeleteMode;
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentService;
+import com.sharetreats.department.DepartmentServiceImpl;
+import com.sharetreats.department.DepartmentTransaction;
+import com.sharetreats.department.OrgChartBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DurableDepartmentRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenMutationsInLog_whenReopened_thenSameOrgChartIsRestored() throws IOException {
+
+        //given
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            DepartmentService departmentService = new DepartmentServiceImpl(repository);
+            departmentService.post(Department.of(5, "QA"));
+            departmentService.relate("DEV", "QA");
+            departmentService.update(Department.of(25, "BACKEND"));
+        }
+
+        //when
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+
+            //then
+            // 기본 조직 80명 + QA 5명 + BACKEND 5명 증가
+            Department qa = repository.findBy("QA").orElseThrow();
+            assertEquals("DEV", qa.getRoot().getName());
+            assertEquals(90, qa.getTotalHeadCountOfDepartment());
+            assertEquals(25, repository.findBy("BACKEND").orElseThrow().getHeadCount());
+        }
+    }
+
+    @Test
+    void givenCompactionThresholdReached_whenReopened_thenSnapshotAndLogTailAreRestored() throws IOException {
+
+        //given
+        // 3개의 변경마다 스냅샷을 만들도록 설정하고 7개의 변경을 기록
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory, 3)) {
+            DepartmentService departmentService = new DepartmentServiceImpl(repository);
+            departmentService.post(Department.of(1, "A"));
+            departmentService.post(Department.of(2, "B"));
+            departmentService.post(Department.of(3, "C"));
+            departmentService.relate("A", "B");
+            departmentService.relate("B", "C");
+            departmentService.relate("*", "A");
+            departmentService.update(Department.of(10, "C"));
+        }
+
+        //when
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+
+            //then
+            Department c = repository.findBy("C").orElseThrow();
+            assertEquals("A", c.getRoot().getName());
+            assertEquals(13, c.getTotalHeadCountOfDepartment());
+            assertEquals(12, repository.findBy("B").orElseThrow().getCombinedHeadCount());
+        }
+    }
+
+    @Test
+    void givenTornRecordAtEndOfLog_whenReopened_thenRecordIsDiscarded() throws IOException {
+
+        //given
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            DepartmentService departmentService = new DepartmentServiceImpl(repository);
+            departmentService.post(Department.of(5, "QA"));
+            departmentService.post(Department.of(7, "OPS"));
+        }
+
+        // 마지막 레코드의 끝 3바이트가 기록되지 않은 상황
+        Path log = directory.resolve(DurableDepartmentRepository.LOG_FILE);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        //when
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            DepartmentService departmentService = new DepartmentServiceImpl(repository);
+
+            //then
+            assertTrue(repository.findBy("QA").isPresent());
+            assertTrue(repository.findBy("OPS").isEmpty());
+
+            // 잘린 뒤에 이어서 기록한 내용도 다시 불러올 수 있어야 함
+            departmentService.post(Department.of(9, "SEC"));
+        }
+
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            assertEquals(9, repository.findBy("SEC").orElseThrow().getHeadCount());
+        }
+    }
+
+    @Test
+    void givenCommittedTransaction_whenReopened_thenAllChangesAreRestoredFromOneRecord() throws IOException {
+
+        //given
+        // DEV>BACKEND>QA 를 DEV>QA>BACKEND 로 바꾸는 트랜잭션. 하위 부서부터 다시 적용하면 순환하는 조직도가 됨
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            DepartmentService departmentService = new DepartmentServiceImpl(repository);
+            departmentService.post(Department.of(5, "QA"));
+            departmentService.relate("BACKEND", "QA");
+
+            DepartmentTransaction transaction = departmentService.begin();
+            transaction.relate("DEV", "QA");
+            transaction.relate("QA", "BACKEND");
+            transaction.post(Department.of(950, "TEMP"));
+            transaction.relate("DEV", "TEMP");
+            transaction.post(Department.of(0, "SIDE"));
+            transaction.relate("SIDE", "TEMP");
+            transaction.commit();
+        }
+
+        //when
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+
+            //then
+            assertEquals("DEV", repository.findBy("QA").orElseThrow().getSuperior().getName());
+            assertEquals("QA", repository.findBy("BACKEND").orElseThrow().getSuperior().getName());
+            assertEquals(85, repository.findBy("DEV").orElseThrow().getCombinedHeadCount());
+            assertEquals(950, repository.findBy("SIDE").orElseThrow().getCombinedHeadCount());
+        }
+
+        // 처음 시작할 때 만든 1세대 스냅샷 이후로 QA 등록, 관계 설정 레코드와 변경된 부서 4개를 담은 레코드 하나만 기록됨
+        List<Byte> types = new ArrayList<>();
+        WriteAheadLog.replay(directory.resolve(DurableDepartmentRepository.LOG_FILE), 1, (type, payload) -> types.add(type));
+        assertEquals(List.of((byte) 1, (byte) 1, (byte) 2), types);
+    }
+
+    @Test
+    void givenDeletions_whenReopened_thenRemovedDepartmentsAndReHomedSubordinatesAreRestored() throws IOException {
+
+        //given
+        // DEV>BACKEND>API(5)>AUTH(3), LONE(6)>CHILD(2)
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            DepartmentService departmentService = new DepartmentServiceImpl(repository);
+            departmentService.post(Department.of(5, "API"));
+            departmentService.post(Department.of(3, "AUTH"));
+            departmentService.post(Department.of(6, "LONE"));
+            departmentService.post(Department.of(2, "CHILD"));
+            departmentService.relate("BACKEND", "API");
+            departmentService.relate("API", "AUTH");
+            departmentService.relate("LONE", "CHILD");
+
+            departmentService.deleteAll(List.of("BACKEND", "LONE"), DeleteMode.RE_HOME);
+            departmentService.delete("API", DeleteMode.CASCADE);
+        }
+
+        //when
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+
+            //then
+            for (String name : List.of("BACKEND", "LONE", "API", "AUTH")) {
+                assertTrue(repository.findBy(name).isEmpty());
+            }
+            Department dev = repository.findBy("DEV").orElseThrow();
+            assertEquals(60, dev.getCombinedHeadCount());
+            assertEquals(2, dev.getDescendantCount());
+            Department child = repository.findBy("CHILD").orElseThrow();
+            assertNull(child.getSuperior());
+            assertEquals(2, child.getTotalHeadCountOfDepartment());
+        }
+
+        // 두 번의 삭제는 각각 레코드 하나로 기록됨
+        List<Byte> types = new ArrayList<>();
+        WriteAheadLog.replay(directory.resolve(DurableDepartmentRepository.LOG_FILE), 1, (type, payload) -> types.add(type));
+        assertEquals(List.of((byte) 3, (byte) 3), types.subList(types.size() - 2, types.size()));
+    }
+
+    @Test
+    void givenBatchListingSubordinateFirst_whenReopened_thenRelationIsRestoredFromOneRecord() throws IOException {
+
+        //given
+        // 하위 부서가 먼저 등록된 명령 묶음
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            DepartmentService departmentService = new DepartmentServiceImpl(repository);
+            List<Department> departments = new OrgChartBuilder()
+                    .department("CHILD", 1)
+                    .department("PARENT", 2)
+                    .relate("PARENT", "CHILD")
+                    .buildValidated();
+            departmentService.postAll(departments);
+        }
+
+        //when
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+
+            //then
+            assertEquals(3, repository.findBy("CHILD").orElseThrow().getTotalHeadCountOfDepartment());
+        }
+
+        List<Byte> types = new ArrayList<>();
+        WriteAheadLog.replay(directory.resolve(DurableDepartmentRepository.LOG_FILE), 1, (type, payload) -> types.add(type));
+        assertEquals(List.of((byte) 2), types);
+    }
+
+    @Test
+    void givenConcurrentSavesAndCompactions_whenReopened_thenNoSavedDepartmentIsLost() throws Exception {
+
+        //given
+        // 4개의 스레드가 부서를 저장하는 동안 다른 스레드가 계속 스냅샷을 만듦
+        int threads = 4;
+        int departments = 500;
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+            AtomicBoolean saving = new AtomicBoolean(true);
+            List<Future<?>> savers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String prefix = String.valueOf((char) ('P' + t));
+                savers.add(executor.submit(() -> {
+                    for (int i = 0; i < departments; i++) {
+                        repository.save(Department.of(1, prefix + nameOf(i)));
+                    }
+                }));
+            }
+            Future<?> compactor = executor.submit(() -> {
+                while (saving.get()) {
+                    repository.compact();
+                }
+            });
+
+            //when
+            for (Future<?> saver : savers) {
+                saver.get();
+            }
+            saving.set(false);
+            compactor.get();
+            executor.shutdown();
+        }
+
+        //then
+        try (DurableDepartmentRepository repository = DurableDepartmentRepository.open(directory)) {
+            assertEquals(4 + threads * departments, repository.findAll().size());
+        }
+    }
+
+    private static String nameOf(int index) {
+        return "" + (char) ('A' + index / 676) + (char) ('A' + index / 26 % 26) + (char) ('A' + index % 26);
+    }
+}
@@ -0,0 +1,59 @@
+package com.sharetreats.persistence;
+
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentRepositoryImpl;
+import com.sharetreats.department.DepartmentService;
+import com.sharetreats.department.DepartmentServiceImpl;
+import com.sharetreats.department.Traversal;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OrgChartExporterTest {
+
+    DepartmentRepositoryImpl repository = new DepartmentRepositoryImpl();
+    DepartmentService departmentService = new DepartmentServiceImpl(repository);
+
+    @Test
+    void givenOrgChart_whenExportedAsCsv_thenOneRowPerDepartmentInPreOrder() throws IOException {
+
+        //given
+        // 기본 조직의 BACKEND 아래에 QA를 추가
+        departmentService.post(Department.of(5, "QA"));
+        departmentService.relate("BACKEND", "QA");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        long count = OrgChartExporter.export(repository, Traversal.PRE_ORDER, out, OrgChartExporter.Format.CSV);
+
+        //then
+        assertEquals(5, count);
+        assertEquals("name,superior,headCount,combinedHeadCount,root\n" +
+                "DEV,,10,85,true\n" +
+                "BACKEND,DEV,20,25,false\n" +
+                "QA,BACKEND,5,5,false\n" +
+                "FRONTEND,DEV,20,20,false\n" +
+                "DEVOPS,DEV,30,30,false\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void givenOrgChart_whenExportedAsJsonLines_thenOneObjectPerLine() throws IOException {
+
+        //given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        long count = OrgChartExporter.export(repository, Traversal.LEVEL_ORDER, out, OrgChartExporter.Format.of("org.jsonl"));
+
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, count);
+        assertEquals(4, lines.length);
+        assertEquals("{\"name\":\"DEV\",\"superior\":null,\"headCount\":10,\"combinedHeadCount\":80,\"root\":true}", lines[0]);
+        assertEquals("{\"name\":\"DEVOPS\",\"superior\":\"DEV\",\"headCount\":30,\"combinedHeadCount\":30,\"root\":false}", lines[3]);
+    }
+}
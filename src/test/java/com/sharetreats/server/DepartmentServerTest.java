@@ -0,0 +1,114 @@
+package com.sharetreats.server;
+
+import com.sharetreats.department.Department;
+import com.sharetreats.department.DepartmentController;
+import com.sharetreats.department.DepartmentRepositoryImpl;
+import com.sharetreats.department.DepartmentServiceImpl;
+import com.sharetreats.exception.CustomRuntimeExceptionCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DepartmentServerTest {
+
+    private static final int CLIENTS = 50;
+    private static final int REQUESTS = 400;
+    private static final int PIPELINE = 16;
+
+    DepartmentServer server;
+    Thread serverThread;
+
+    @BeforeEach
+    void start() throws IOException {
+        DepartmentController departmentController =
+                new DepartmentController(new DepartmentServiceImpl(new DepartmentRepositoryImpl()));
+        server = DepartmentServer.open(departmentController, new InetSocketAddress("127.0.0.1", 0));
+        serverThread = new Thread(server, "department-server");
+        serverThread.start();
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        server.close();
+        serverThread.join();
+    }
+
+    @Test
+    void givenManyClientsPipeliningCommands_whenServed_thenResponsesArriveInOrder() throws Exception {
+
+        //given
+        // 짝수 번째는 조회, 홀수 번째는 잘못된 명령
+        String query = "현재부서: [ BACKEND ], 최상위부서: [ DEV ], 총 인원: [ 80 ]";
+        String invalid = CustomRuntimeExceptionCode.NOT_VALID_COMMAND.getMessage();
+
+        //when
+        LoadGenerator.Result result = LoadGenerator.run(server.getLocalAddress(), CLIENTS, REQUESTS, PIPELINE,
+                i -> i % 2 == 0 ? "BACKEND" : "BACKEND>>DEV");
+
+        //then
+        assertEquals(CLIENTS, result.getResponses().size());
+        for (List<String> responses : result.getResponses()) {
+            assertEquals(REQUESTS, responses.size());
+            for (int i = 0; i < REQUESTS; i++) {
+                assertEquals(i % 2 == 0 ? query : invalid, responses.get(i));
+            }
+        }
+    }
+
+    @Test
+    void givenResultWithLineBreak_whenServed_thenSentAsOneLine() throws Exception {
+
+        //given
+        // 최상위 부서가 없는 조직의 조회 결과에는 줄바꿈이 포함됨
+        List<String> commands = List.of("QA, 5", "QAAPI, 5", "QA>QAAPI", "QAAPI");
+
+        //when
+        LoadGenerator.Result result = LoadGenerator.run(server.getLocalAddress(), 1, commands.size(), 1, commands::get);
+
+        //then
+        String last = result.getResponses().get(0).get(3);
+        assertEquals("최상위 부서가 설정되어 있지 않아 현재 부서의 상위 부서 중 최고 부서의 정보가 표시됩니다. " +
+                "현재부서: [ QAAPI ], 상위부서: [ QA ], 총 인원: [ 10 ]", last);
+    }
+
+    @Test
+    void givenCommandFailingWithUnexpectedException_whenServed_thenOnlyThatCommandFails() throws Exception {
+
+        //given
+        // BOOM을 저장하면 입출력 오류가 발생하는 저장소
+        DepartmentRepositoryImpl failing = new DepartmentRepositoryImpl() {
+            @Override
+            public Department save(Department department) {
+                if (department.getName().equals("BOOM")) throw new UncheckedIOException(new IOException("disk full"));
+                return super.save(department);
+            }
+        };
+        List<String> commands = List.of("BOOM, 1", "BACKEND");
+        Thread thread;
+        LoadGenerator.Result result;
+
+        try (DepartmentServer failingServer = DepartmentServer.open(
+                new DepartmentController(new DepartmentServiceImpl(failing)), new InetSocketAddress("127.0.0.1", 0))) {
+            thread = new Thread(failingServer, "department-server-failing");
+            thread.start();
+
+            //when
+            result = LoadGenerator.run(failingServer.getLocalAddress(), 2, commands.size(), 1, commands::get);
+        }
+        thread.join();
+
+        //then
+        for (List<String> responses : result.getResponses()) {
+            assertTrue(responses.get(0).startsWith(CustomRuntimeExceptionCode.COMMAND_FAILED.getMessage()));
+            assertEquals("현재부서: [ BACKEND ], 최상위부서: [ DEV ], 총 인원: [ 80 ]", responses.get(1));
+        }
+    }
+}
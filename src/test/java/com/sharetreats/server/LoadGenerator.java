@@ -0,0 +1,147 @@
+package com.sharetreats.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * {@link DepartmentServer}에 부하를 주고 초당 처리량과 지연 시간을 측정하는 클라이언트입니다.
+ * <p>
+ *     클라이언트마다 연결을 하나씩 열고, 응답을 기다리지 않은 명령이 {@code pipeline}개가 되도록 명령을 이어서 보냅니다.
+ *     명령을 보낸 시각부터 그 명령의 응답을 읽은 시각까지를 지연 시간으로 기록합니다.
+ * </p>
+ * <pre>
+ *     java ... com.sharetreats.server.LoadGenerator [host] [port] [클라이언트 수] [클라이언트당 명령 수] [pipeline]
+ * </pre>
+ * */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        InetSocketAddress address = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+        Result result = run(address, Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                i -> "DEV");
+        System.out.println(result);
+    }
+
+    /**
+     * 부하를 주고 결과를 반환합니다. 응답 줄은 {@code responses}에 클라이언트별로 보낸 순서대로 담깁니다.
+     *
+     * @param commands 클라이언트 안에서의 순번으로 보낼 명령을 만드는 함수
+     * */
+    public static Result run(InetSocketAddress address, int clients, int requestsPerClient, int pipeline,
+                             IntFunction<String> commands) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<Client>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(executor.submit(() -> new Client(requestsPerClient).run(address, pipeline, commands)));
+        }
+
+        List<Client> finished = new ArrayList<>();
+        for (Future<Client> future : futures) {
+            finished.add(future.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long[] latencies = new long[clients * requestsPerClient];
+        List<List<String>> responses = new ArrayList<>();
+        int offset = 0;
+        for (Client client : finished) {
+            System.arraycopy(client.latencies, 0, latencies, offset, requestsPerClient);
+            offset += requestsPerClient;
+            responses.add(client.responses);
+        }
+        Arrays.sort(latencies);
+
+        return new Result(latencies.length, elapsed, latencies, responses);
+    }
+
+    private static final class Client {
+
+        private final long[] latencies;
+        private final long[] sentAt;
+        private final List<String> responses;
+
+        private Client(int requests) {
+            this.latencies = new long[requests];
+            this.sentAt = new long[requests];
+            this.responses = new ArrayList<>(requests);
+        }
+
+        private Client run(InetSocketAddress address, int pipeline, IntFunction<String> commands) throws IOException {
+            int requests = latencies.length;
+
+            try (Socket socket = new Socket()) {
+                socket.setTcpNoDelay(true);
+                socket.connect(address);
+                OutputStream out = socket.getOutputStream();
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+                int sent = 0;
+                for (int received = 0; received < requests; received++) {
+                    while (sent < requests && sent - received < pipeline) {
+                        sentAt[sent] = System.nanoTime();
+                        out.write((commands.apply(sent) + "\n").getBytes(StandardCharsets.UTF_8));
+                        sent++;
+                    }
+                    out.flush();
+
+                    responses.add(in.readLine());
+                    latencies[received] = System.nanoTime() - sentAt[received];
+                }
+            }
+            return this;
+        }
+    }
+
+    public static final class Result {
+
+        private final int requests;
+        private final long elapsedNanos;
+        private final long[] sortedLatencies;
+        private final List<List<String>> responses;
+
+        private Result(int requests, long elapsedNanos, long[] sortedLatencies, List<List<String>> responses) {
+            this.requests = requests;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = sortedLatencies;
+            this.responses = responses;
+        }
+
+        public double requestsPerSecond() {
+            return requests * 1e9 / elapsedNanos;
+        }
+
+        public long percentileMicros(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000;
+        }
+
+        public List<List<String>> getResponses() {
+            return responses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests: %d, req/s: %.0f, p50: %dus, p99: %dus",
+                    requests, requestsPerSecond(), percentileMicros(50), percentileMicros(99));
+        }
+    }
+}
@@ -20,6 +20,11 @@ public class DepartmentRepositoryTestImpl implements DepartmentRepository {
         return department;
     }
 
+    @Override
+    public void delete(Department department) {
+        storage.remove(department.getName(), department);
+    }
+
     @Override
     public List<Department> findAll() {
         return new ArrayList<>(storage.values());